@@ -0,0 +1,57 @@
+package io.fi0x.javalogger.internal;
+
+/**
+ * This class is used internally by the log-files and by Mixpanel to write texts as JSON-strings.
+ * Quotes, backslashes and control-characters are escaped, all other characters are written unchanged.
+ * It is not part of the API of the JavaLogger and can change at any time.
+ */
+public final class JsonStrings
+{
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private JsonStrings()
+    {
+    }
+
+    /**
+     * Append a part of a text as a quoted JSON-string.
+     * The text can be the {@link StringBuilder} itself, as long as the part was already written.
+     *
+     * @param builder The {@link StringBuilder} to which the JSON-string is appended.
+     * @param text    The text that contains the part.
+     * @param start   The index of the first character of the part.
+     * @param end     The index after the last character of the part.
+     */
+    public static void append(StringBuilder builder, CharSequence text, int start, int end)
+    {
+        builder.append('"');
+        for(int i = start; i < end; i++)
+        {
+            char c = text.charAt(i);
+            switch(c)
+            {
+                case '"':
+                    builder.append("\\\"");
+                    break;
+                case '\\':
+                    builder.append("\\\\");
+                    break;
+                case '\n':
+                    builder.append("\\n");
+                    break;
+                case '\r':
+                    builder.append("\\r");
+                    break;
+                case '\t':
+                    builder.append("\\t");
+                    break;
+                default:
+                    if(c < 0x20)
+                        builder.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+                    else
+                        builder.append(c);
+            }
+        }
+        builder.append('"');
+    }
+}
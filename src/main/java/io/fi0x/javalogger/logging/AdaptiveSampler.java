@@ -0,0 +1,83 @@
+package io.fi0x.javalogger.logging;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class is used internally to sample the {@link LogEntry}s of a {@link LogTemplate} under load.
+ * All {@link LogEntry}s are kept while the {@link LogTemplate} stays below its expected throughput,
+ * above that only a share of them is kept, so roughly the expected throughput reaches the output.
+ * If the asynchronous queues fill up, the share is reduced further,
+ * until only the minimum rate is kept once a queue is {@link #CRITICAL_FILL} full.
+ * The rate is calculated again by a single thread every {@link #WINDOW} nanoseconds,
+ * so all other threads only count the {@link LogEntry} and compare a random number with the current rate.
+ * Rates are rounded to three decimals, so they can be printed and stored without losing precision.
+ * {@link LogEntry}s with a severity of at least {@link #minSeverity} are never sampled.
+ */
+class AdaptiveSampler
+{
+    private static final long WINDOW = 100_000_000L;
+    private static final double BUSY_FILL = 0.5;
+    private static final double CRITICAL_FILL = 0.8;
+
+    private final double entriesPerSecond;
+    private final double minRate;
+    final int minSeverity;
+    private final LongAdder offered = new LongAdder();
+    private final LongAdder sampledOut = new LongAdder();
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private volatile double rate = 1;
+
+    AdaptiveSampler(double entriesPerSecond, double minRate, int minSeverity)
+    {
+        this.entriesPerSecond = entriesPerSecond;
+        this.minRate = round(minRate);
+        this.minSeverity = minSeverity;
+    }
+
+    long getSampledOut()
+    {
+        return sampledOut.sum();
+    }
+    double getRate()
+    {
+        return rate;
+    }
+
+    /**
+     * @return The rate with which the {@link LogEntry} was kept, or 0 if it should be dropped.
+     */
+    double sample(long now)
+    {
+        offered.increment();
+        long start = windowStart.get();
+        if(now - start >= WINDOW && windowStart.compareAndSet(start, now))
+            rate = calculateRate(offered.sumThenReset(), now - start);
+
+        double currentRate = rate;
+        if(currentRate >= 1 || ThreadLocalRandom.current().nextDouble() < currentRate)
+            return currentRate;
+
+        sampledOut.increment();
+        return 0;
+    }
+
+    private double calculateRate(long count, long elapsedNanos)
+    {
+        double throughput = count * 1_000_000_000d / elapsedNanos;
+        double result = throughput <= entriesPerSecond ? 1 : entriesPerSecond / throughput;
+
+        double fill = Logger.getInstance().getQueueFill();
+        if(fill >= CRITICAL_FILL)
+            result = minRate;
+        else if(fill > BUSY_FILL)
+            result = Math.min(result, 1 - (fill - BUSY_FILL) / (CRITICAL_FILL - BUSY_FILL) * (1 - minRate));
+
+        return Math.max(minRate, round(result));
+    }
+    private static double round(double value)
+    {
+        return Math.min(1, Math.round(value * 1000) / 1000d);
+    }
+}
@@ -0,0 +1,44 @@
+package io.fi0x.javalogger.logging;
+
+import java.io.IOException;
+
+/**
+ * This interface can be used to send {@link LogEntry}s to a destination of your own,
+ * in addition to the console, the log-file and Mixpanel.
+ * An {@link Appender} is registered with {@link Logger#addAppender(String, Appender)}.
+ * In asynchronous-mode, every {@link Appender} gets its own queue and thread,
+ * so a slow {@link Appender} does not delay the others.
+ */
+public interface Appender
+{
+    /**
+     * Write a single {@link LogEntry} to the destination of this {@link Appender}.
+     * In asynchronous-mode, this is always called from the same thread.
+     *
+     * @param entry The {@link LogEntry} that should be written.
+     * @param text  The {@link LogEntry} formatted by the {@link LogFormatter} of this {@link Appender},
+     *              without a line-separator. The text is only valid until this method returns.
+     * @throws IOException If the {@link LogEntry} could not be written.
+     */
+    void append(LogEntry entry, CharSequence text) throws IOException;
+
+    /**
+     * Write everything this {@link Appender} has buffered to its destination.
+     * This is called after each batch of {@link LogEntry}s in asynchronous-mode
+     * and when the {@link Logger} gets flushed.
+     *
+     * @throws IOException If the buffered {@link LogEntry}s could not be written.
+     */
+    default void flush() throws IOException
+    {
+    }
+    /**
+     * Release the resources of this {@link Appender}.
+     * This is called when the {@link Appender} is removed or the application exits.
+     *
+     * @throws IOException If the destination could not be closed.
+     */
+    default void close() throws IOException
+    {
+    }
+}
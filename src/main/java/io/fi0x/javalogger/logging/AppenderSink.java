@@ -0,0 +1,41 @@
+package io.fi0x.javalogger.logging;
+
+import java.io.IOException;
+import java.util.function.Predicate;
+
+/**
+ * This class is used internally to connect an {@link Appender} to the {@link Logger}.
+ * It formats each visible {@link LogEntry} and hands the text to the {@link Appender}.
+ */
+class AppenderSink extends LogSink
+{
+    private final Appender appender;
+
+    AppenderSink(String name, Appender appender, Predicate<LogEntry> filter, LogFormatter formatter)
+    {
+        super(name, filter, formatter);
+        this.appender = appender;
+    }
+
+    @Override
+    boolean isInterested(LogEntry log, boolean visible)
+    {
+        return visible;
+    }
+    @Override
+    void write(LogEntry log, LogBuffers buffers) throws IOException
+    {
+        Logger.format(log, buffers.text, formatter);
+        appender.append(log, buffers.text);
+    }
+    @Override
+    void flush() throws IOException
+    {
+        appender.flush();
+    }
+    @Override
+    void close() throws IOException
+    {
+        appender.close();
+    }
+}
@@ -0,0 +1,195 @@
+package io.fi0x.javalogger.logging;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * This class converts log-files that were written with the BINARY {@link FileFormat}
+ * back into the text format of the {@link Logger}.
+ * The file is read as a stream, so even very large log-files are never loaded completely into memory.
+ * It can be started from the command line with the path of a log-file as the only argument,
+ * which prints the converted {@link LogEntry}s to the default output.
+ * Log-files that were compressed after rotation can be converted directly.
+ * Zero bytes between records are skipped, because a memory-mapped log-file that was not closed can contain them.
+ */
+public class BinaryLogDecoder
+{
+    private final DataInputStream in;
+    private final List<String> dictionary = new ArrayList<>();
+    private final StringBuilder line = new StringBuilder(256);
+    private byte[] bytes = new byte[1024];
+    private long previousMicros;
+
+    private BinaryLogDecoder(InputStream in)
+    {
+        this.in = new DataInputStream(new BufferedInputStream(in, 65536));
+    }
+
+    /**
+     * Convert a binary log-file and print it to the default output.
+     *
+     * @param args The path of the log-file.
+     * @throws IOException If the file can't be read or is not a binary log-file.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        if(args.length != 1)
+        {
+            System.err.println("Usage: java " + BinaryLogDecoder.class.getName() + " <log-file>");
+            System.exit(1);
+        }
+
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, LogBuffers.CONSOLE_CHARSET), 65536);
+        decode(new File(args[0]), out);
+        out.flush();
+    }
+    /**
+     * Convert a binary log-file into the text format.
+     *
+     * @param logFile The binary log-file, which can also be compressed with gzip.
+     * @param out     The {@link Writer} that receives the converted {@link LogEntry}s.
+     * @return The number of {@link LogEntry}s that were converted.
+     * @throws IOException If the file can't be read or is not a binary log-file.
+     */
+    public static long decode(File logFile, Writer out) throws IOException
+    {
+        try(InputStream in = Files.newInputStream(logFile.toPath()))
+        {
+            return decode(logFile.getName().endsWith(".gz") ? new GZIPInputStream(in, 65536) : in, out);
+        }
+    }
+    /**
+     * Convert binary log-data into the text format.
+     * The {@link InputStream} is not closed by this method.
+     *
+     * @param in  The {@link InputStream} that provides the binary log-data.
+     * @param out The {@link Writer} that receives the converted {@link LogEntry}s.
+     * @return The number of {@link LogEntry}s that were converted.
+     * @throws IOException If the data can't be read or is not in the binary format.
+     */
+    public static long decode(InputStream in, Writer out) throws IOException
+    {
+        return new BinaryLogDecoder(in).decodeAll(out);
+    }
+
+    private long decodeAll(Writer out) throws IOException
+    {
+        long entries = 0;
+        boolean headerFound = false;
+        int type;
+        while((type = in.read()) >= 0)
+        {
+            if(type == 0)
+                continue;
+            if(type == BinaryLogEncoder.HEADER[0])
+            {
+                readHeader();
+                headerFound = true;
+                continue;
+            }
+            if(!headerFound)
+                throw new IOException("The data does not start with the header of a binary log-file");
+
+            if(type == BinaryLogEncoder.RECORD_DICTIONARY)
+                readDictionaryRecord();
+            else if(type == BinaryLogEncoder.RECORD_ENTRY)
+            {
+                readEntryRecord();
+                out.append(line);
+                entries++;
+            } else
+                throw new IOException("Unknown record-type in binary log-file: " + type);
+        }
+        return entries;
+    }
+
+    private void readHeader() throws IOException
+    {
+        byte[] header = new byte[BinaryLogEncoder.HEADER.length];
+        header[0] = BinaryLogEncoder.HEADER[0];
+        in.readFully(header, 1, header.length - 1);
+        if(!Arrays.equals(header, BinaryLogEncoder.HEADER))
+            throw new IOException("Unsupported header in binary log-file");
+
+        dictionary.clear();
+        previousMicros = 0;
+    }
+    private void readDictionaryRecord() throws IOException
+    {
+        int id = (int) readVarLong();
+        String text = readString();
+        while(dictionary.size() <= id)
+            dictionary.add("");
+        dictionary.set(id, text);
+    }
+    private void readEntryRecord() throws IOException
+    {
+        long micros = previousMicros + unZigZag(readVarLong());
+        previousMicros = micros;
+        readVarLong();
+        long errorCode = unZigZag(readVarLong());
+        String level = lookup(readVarLong());
+        String project = lookup(readVarLong());
+        int flags = in.readUnsignedByte();
+        long sampleRate = (flags & BinaryLogEncoder.FLAG_SAMPLED) != 0 ? readVarLong() : 1000;
+        String message = readString();
+
+        line.setLength(0);
+        if((flags & BinaryLogEncoder.FLAG_PLAIN_TEXT) == 0)
+        {
+            LogTimestamp.appendTo(line, Math.floorDiv(micros, 1000));
+            line.append('[').append(level).append(']');
+            if(errorCode == 0)
+                line.append("[---]");
+            else
+                line.append('[').append(errorCode).append(']');
+            if((flags & BinaryLogEncoder.FLAG_PROJECT_NAME) != 0)
+                line.append('[').append(project).append(']');
+            if(sampleRate < 1000)
+                line.append("[sampled ").append(sampleRate / 1000d).append(']');
+        }
+        line.append(message);
+        if((flags & BinaryLogEncoder.FLAG_EXCEPTION) != 0)
+            line.append(System.lineSeparator()).append("\t").append(readString());
+        line.append(System.lineSeparator());
+    }
+
+    private String lookup(long id) throws IOException
+    {
+        if(id >= dictionary.size())
+            throw new IOException("Unknown dictionary-id in binary log-file: " + id);
+        return dictionary.get((int) id);
+    }
+    private String readString() throws IOException
+    {
+        long length = readVarLong();
+        if(length > Integer.MAX_VALUE - 8)
+            throw new IOException("Invalid text-length in binary log-file: " + length);
+
+        if(bytes.length < length)
+            bytes = new byte[(int) Math.max(length, bytes.length * 2L)];
+        in.readFully(bytes, 0, (int) length);
+        return new String(bytes, 0, (int) length, StandardCharsets.UTF_8);
+    }
+    private long readVarLong() throws IOException
+    {
+        long value = 0;
+        for(int shift = 0; shift < 64; shift += 7)
+        {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if((b & 0x80) == 0)
+                return value;
+        }
+        throw new IOException("Invalid number in binary log-file");
+    }
+    private static long unZigZag(long value)
+    {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,128 @@
+package io.fi0x.javalogger.logging;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This class is used internally to encode {@link LogEntry}s into the compact binary log-format.
+ * Every {@link LogFileWriter} has its own encoder, because the dictionary of logging-levels and project names
+ * and the timestamp of the previous {@link LogEntry} are only valid within one file.
+ * Callers have to synchronize on the {@link LogFileWriter} until the encoded record is written,
+ * so the records appear in the file in the same order in which they were encoded.
+ * <p>
+ * The format starts with a header that is repeated each time a new encoder starts writing to the file.
+ * After that, each record starts with its type:
+ * a dictionary record contains the id and the UTF-8 text of a logging-level or project name,
+ * and an entry record contains the difference to the previous timestamp in microseconds,
+ * the template-id, the error-code, the dictionary-ids of the logging-level and project name, flags for the parts of the text format that are shown,
+ * the sample-rate in thousandths if the {@link LogEntry} was sampled,
+ * the length-prefixed UTF-8 message and, if there is one, the length-prefixed stack-trace.
+ * All numbers are stored as variable-length integers.
+ */
+class BinaryLogEncoder
+{
+    static final byte[] HEADER = {'J', 'L', 'O', 'G', 'B', 'I', 'N', 1};
+    static final byte RECORD_DICTIONARY = 1;
+    static final byte RECORD_ENTRY = 2;
+    static final int FLAG_PLAIN_TEXT = 1;
+    static final int FLAG_EXCEPTION = 2;
+    static final int FLAG_PROJECT_NAME = 4;
+    static final int FLAG_SAMPLED = 8;
+    /**
+     * The most zero bytes a record can end with: an entry record without template, error-code, flags or message
+     * ends with seven zero varints.
+     * Messages that end with NUL characters can end with more, those characters can be lost if the file is trimmed after a crash.
+     */
+    static final int MAX_TRAILING_ZEROS = 8;
+
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private ByteBuffer record = ByteBuffer.allocate(1024);
+    private boolean headerWritten;
+    private long previousMicros;
+
+    ByteBuffer encode(LogEntry entry, ByteBuffer message, String stackTrace, int flags)
+    {
+        record.clear();
+        if(!headerWritten)
+        {
+            ensureCapacity(HEADER.length);
+            record.put(HEADER);
+            headerWritten = true;
+        }
+
+        int level = lookup(entry.loglevel);
+        int project = lookup(entry.projectName);
+
+        byte[] trace = stackTrace == null ? null : stackTrace.getBytes(StandardCharsets.UTF_8);
+        ensureCapacity(64 + message.remaining() + (trace == null ? 0 : trace.length));
+
+        long micros = entry.time * 1000;
+        record.put(RECORD_ENTRY);
+        putVarLong(zigZag(micros - previousMicros));
+        previousMicros = micros;
+        putVarLong(entry.templateId + 1L);
+        putVarLong(zigZag(entry.errorCode));
+        putVarLong(level);
+        putVarLong(project);
+        boolean sampled = entry.sampleRate < 1;
+        record.put((byte) (flags | (trace != null ? FLAG_EXCEPTION : 0) | (sampled ? FLAG_SAMPLED : 0)));
+        if(sampled)
+            putVarLong(Math.round(entry.sampleRate * 1000));
+        putVarLong(message.remaining());
+        record.put(message);
+        if(trace != null)
+        {
+            putVarLong(trace.length);
+            record.put(trace);
+        }
+
+        record.flip();
+        return record;
+    }
+
+    private int lookup(String text)
+    {
+        String key = text == null ? "" : text;
+        Integer id = dictionary.get(key);
+        if(id != null)
+            return id;
+
+        id = dictionary.size();
+        dictionary.put(key, id);
+
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        ensureCapacity(16 + bytes.length);
+        record.put(RECORD_DICTIONARY);
+        putVarLong(id);
+        putVarLong(bytes.length);
+        record.put(bytes);
+        return id;
+    }
+
+    private void putVarLong(long value)
+    {
+        while((value & ~0x7FL) != 0)
+        {
+            record.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        record.put((byte) value);
+    }
+    private static long zigZag(long value)
+    {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private void ensureCapacity(int additional)
+    {
+        if(record.remaining() >= additional)
+            return;
+
+        ByteBuffer larger = ByteBuffer.allocate(Math.max(record.capacity() * 2, record.position() + additional));
+        record.flip();
+        larger.put(record);
+        record = larger;
+    }
+}
@@ -0,0 +1,87 @@
+package io.fi0x.javalogger.logging;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class is used internally to append encoded lines to a log-file through a {@link FileChannel}.
+ * Lines are collected in a buffer and written according to the {@link FlushPolicy}.
+ */
+class BufferedLogFileWriter extends LogFileWriter
+{
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final FlushPolicy flushPolicy;
+
+    private BufferedLogFileWriter(File file, FileChannel channel, int bufferSize, FlushPolicy flushPolicy) throws IOException
+    {
+        super(file, channel.size());
+        this.channel = channel;
+        this.flushPolicy = flushPolicy;
+        buffer = ByteBuffer.allocate(bufferSize);
+    }
+
+    static BufferedLogFileWriter open(File file, int bufferSize, FlushPolicy flushPolicy, int keptZeros) throws IOException
+    {
+        trimPadding(file, keptZeros);
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        return new BufferedLogFileWriter(file, channel, bufferSize, flushPolicy);
+    }
+
+    @Override
+    void append(ByteBuffer line) throws IOException
+    {
+        if(line.remaining() > buffer.remaining())
+            flushBuffer();
+
+        if(line.remaining() > buffer.capacity())
+            writeFully(line);
+        else
+            buffer.put(line);
+
+        if(flushPolicy == FlushPolicy.EVERY_ENTRY)
+            flushBuffer();
+    }
+
+    @Override
+    void flushBuffer() throws IOException
+    {
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+    }
+
+    @Override
+    long forceToDisk() throws IOException
+    {
+        long reached;
+        synchronized(this)
+        {
+            flushBuffer();
+            reached = getSize();
+        }
+        try
+        {
+            channel.force(false);
+        } catch(ClosedChannelException ignored)
+        {
+        }
+        return reached;
+    }
+
+    @Override
+    void release(long finalSize) throws IOException
+    {
+        channel.close();
+    }
+
+    private void writeFully(ByteBuffer source) throws IOException
+    {
+        while(source.hasRemaining())
+            channel.write(source);
+    }
+}
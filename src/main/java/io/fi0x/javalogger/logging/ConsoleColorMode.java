@@ -0,0 +1,69 @@
+package io.fi0x.javalogger.logging;
+
+import java.io.Console;
+import java.lang.reflect.Method;
+
+/**
+ * This enum defines when the console output of the {@link Logger} contains color codes.
+ */
+public enum ConsoleColorMode
+{
+    /**
+     * Colors are used if the application runs in a terminal,
+     * the environment variable "NO_COLOR" is not set and "TERM" is not "dumb".
+     * If the output is redirected into a file or another program, the color codes are left out.
+     * The terminal is detected with {@link System#console()}, so colors are also left out
+     * if only the input is redirected, because Java can not check the output on its own.
+     */
+    AUTO,
+    /**
+     * Colors are always used.
+     */
+    ALWAYS,
+    /**
+     * Colors are never used.
+     */
+    NEVER;
+
+    boolean isColored()
+    {
+        if(this == AUTO)
+            return isColored(System.getenv("NO_COLOR"), System.getenv("TERM"), isTerminal(System.console()));
+
+        return this == ALWAYS;
+    }
+    boolean isColored(String noColor, String term, boolean terminal)
+    {
+        if(this == AUTO)
+            return noColor == null && !"dumb".equals(term) && terminal;
+
+        return this == ALWAYS;
+    }
+
+    /**
+     * Since Java 22, {@link System#console()} also returns a {@link Console} if the output is redirected,
+     * so its isTerminal() method has to be checked, which is called by reflection to keep running on Java 11.
+     * Older versions only return a {@link Console} for a terminal.
+     */
+    static boolean isTerminal(Console console)
+    {
+        if(console == null)
+            return false;
+
+        Method isTerminal;
+        try
+        {
+            isTerminal = Console.class.getMethod("isTerminal");
+        } catch(NoSuchMethodException e)
+        {
+            return true;
+        }
+        try
+        {
+            return (Boolean) isTerminal.invoke(console);
+        } catch(ReflectiveOperationException | RuntimeException e)
+        {
+            return false;
+        }
+    }
+}
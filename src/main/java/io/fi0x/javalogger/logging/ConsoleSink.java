@@ -0,0 +1,175 @@
+package io.fi0x.javalogger.logging;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class is used internally as the built-in "console" appender.
+ * It writes all visible {@link LogEntry}s to the default output.
+ * The encoded lines are collected in a buffer and written directly to the channel of the default output,
+ * so many lines only need a single write and do not lock {@link System#out}.
+ * The color-codes are copied into the buffer as bytes that were encoded once for each {@link LogTemplate}.
+ * If {@link System#out} was replaced by the application, the lines are written to the replacement instead.
+ */
+class ConsoleSink extends LogSink
+{
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final PrintStream STANDARD_OUT = System.out;
+    private static final byte[] LINE_END = System.lineSeparator().getBytes(LogBuffers.CONSOLE_CHARSET);
+    private static final byte[] COLORED_LINE_END = (LogColor.RESET + System.lineSeparator()).getBytes(LogBuffers.CONSOLE_CHARSET);
+
+    private final FileChannel channel = new FileOutputStream(FileDescriptor.out).getChannel();
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private volatile boolean colored = ConsoleColorMode.AUTO.isColored();
+    private volatile long flushDelay = 0;
+    private ScheduledExecutorService flusher;
+
+    ConsoleSink()
+    {
+        super(Logger.CONSOLE_APPENDER, null, null);
+    }
+
+    void setColorMode(ConsoleColorMode mode)
+    {
+        colored = mode.isColored();
+    }
+    synchronized void setFlushDelay(long millis)
+    {
+        flushDelay = millis;
+        if(flusher != null)
+        {
+            flusher.shutdown();
+            flusher = null;
+        }
+        if(millis > 0)
+        {
+            flusher = Executors.newSingleThreadScheduledExecutor(runnable ->
+            {
+                Thread thread = new Thread(runnable, "JavaLogger-Console");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::finishBatch, millis, millis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    boolean isInterested(LogEntry log, boolean visible)
+    {
+        return visible;
+    }
+    @Override
+    void write(LogEntry log, LogBuffers buffers) throws IOException
+    {
+        byte[] color = null;
+        byte[] background = null;
+        byte[] lineEnd = LINE_END;
+        if(colored)
+        {
+            if(log.consolePrefix != null)
+                color = log.consolePrefix;
+            else
+            {
+                color = LogColor.encode(log.color);
+                background = LogColor.encode(log.background);
+            }
+            lineEnd = COLORED_LINE_END;
+        }
+
+        StringBuilder text = buffers.text;
+        Logger.format(log, text, formatter);
+        ByteBuffer message = buffers.encodeForConsole(0, text.length());
+
+        boolean printStackTrace = log.exception != null && (log.consoleException || Logger.getInstance().isConsoleExceptions());
+        synchronized(this)
+        {
+            PrintStream out = System.out;
+            if(out != STANDARD_OUT)
+            {
+                writeBuffer();
+                if(color != null)
+                    out.write(color, 0, color.length);
+                if(background != null)
+                    out.write(background, 0, background.length);
+                out.write(message.array(), message.arrayOffset() + message.position(), message.remaining());
+                out.write(lineEnd, 0, lineEnd.length);
+            } else
+            {
+                int length = length(color) + length(background) + message.remaining() + lineEnd.length;
+                if(length > buffer.remaining())
+                    writeBuffer();
+                if(length > buffer.capacity())
+                {
+                    writeFully(color);
+                    writeFully(background);
+                    writeFully(message);
+                    writeFully(lineEnd);
+                } else
+                {
+                    if(color != null)
+                        buffer.put(color);
+                    if(background != null)
+                        buffer.put(background);
+                    buffer.put(message).put(lineEnd);
+                }
+
+                if(printStackTrace || (flushDelay == 0 && !LogDispatcher.isDispatcherThread()))
+                    writeBuffer();
+            }
+        }
+
+        if(printStackTrace)
+            log.exception.printStackTrace();
+    }
+    @Override
+    void flush() throws IOException
+    {
+        synchronized(this)
+        {
+            writeBuffer();
+        }
+        System.out.flush();
+    }
+    @Override
+    void close() throws IOException
+    {
+        setFlushDelay(0);
+    }
+
+    private void writeBuffer() throws IOException
+    {
+        if(buffer.position() == 0)
+            return;
+
+        STANDARD_OUT.flush();
+        buffer.flip();
+        try
+        {
+            writeFully(buffer);
+        } finally
+        {
+            buffer.clear();
+        }
+    }
+    private static int length(byte[] bytes)
+    {
+        return bytes == null ? 0 : bytes.length;
+    }
+    private void writeFully(byte[] bytes) throws IOException
+    {
+        if(bytes != null)
+            writeFully(ByteBuffer.wrap(bytes));
+    }
+    private void writeFully(ByteBuffer bytes) throws IOException
+    {
+        while(bytes.hasRemaining())
+            channel.write(bytes);
+    }
+}
@@ -0,0 +1,28 @@
+package io.fi0x.javalogger.logging;
+
+/**
+ * This enum defines when the log-file is forced from the cache of the operating system to the disk.
+ * Forcing the log-file makes sure that {@link LogEntry}s survive a crash of the whole system,
+ * but it is slow, so threads that wait at the same time share a single force.
+ */
+public enum DurabilityPolicy
+{
+    /**
+     * The log-file is never forced. Writing to the disk is left to the operating system.
+     */
+    NONE,
+    /**
+     * The log-file is forced after every batch of the asynchronous {@link Logger},
+     * or after every {@link LogEntry} if the {@link Logger} is not asynchronous.
+     */
+    PER_BATCH,
+    /**
+     * A background-thread forces the log-file in a fixed interval.
+     */
+    INTERVAL,
+    /**
+     * The log-file is only forced for {@link LogEntry}s with error-severity,
+     * and the logging thread waits until their force is done.
+     */
+    ERROR_SYNC
+}
@@ -0,0 +1,42 @@
+package io.fi0x.javalogger.logging;
+
+/**
+ * This enum defines the format in which the {@link Logger} writes {@link LogEntry}s into the log-file.
+ */
+public enum FileFormat
+{
+    /**
+     * Each {@link LogEntry} is written as a line of text, in the same format as in the console.
+     */
+    TEXT(".log"),
+    /**
+     * Each {@link LogEntry} is written as a compact binary record.
+     * Logging-levels and project names are only stored once per file,
+     * and the timestamp is stored as the difference to the previous {@link LogEntry}.
+     * These files can be converted into the text format with the {@link BinaryLogDecoder}.
+     */
+    BINARY(".jlog"),
+    /**
+     * Each {@link LogEntry} is written as a single line of JSON,
+     * which contains the prefix information, the message and all structured fields of the {@link LogEntry}.
+     * This format can be read by log-shippers without parsing the text format.
+     */
+    JSON(".jsonl");
+
+    final String suffix;
+
+    FileFormat(String suffix)
+    {
+        this.suffix = suffix;
+    }
+
+    static boolean isLogFile(String fileName)
+    {
+        for(FileFormat format : values())
+        {
+            if(fileName.endsWith(format.suffix) || fileName.endsWith(format.suffix + ".gz"))
+                return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,44 @@
+package io.fi0x.javalogger.logging;
+
+import java.util.Map;
+
+/**
+ * This class is used internally as the built-in "file" appender.
+ * It writes all {@link LogEntry}s that should be saved into the log-file of the {@link Logger},
+ * in the current {@link FileFormat}.
+ */
+class FileSink extends LogSink
+{
+    FileSink()
+    {
+        super(Logger.FILE_APPENDER, null, null);
+    }
+
+    @Override
+    boolean isInterested(LogEntry log, boolean visible)
+    {
+        return log.fileEntry;
+    }
+    @Override
+    void write(LogEntry log, LogBuffers buffers)
+    {
+        Logger.getInstance().addEntryToFile(log, buffers, formatter);
+    }
+    @Override
+    void flush()
+    {
+        Logger.getInstance().flushLogFile();
+    }
+    @Override
+    void endBatch()
+    {
+        Logger.getInstance().endBatch();
+    }
+    @Override
+    Map<String, Long> getMetrics()
+    {
+        Map<String, Long> metrics = super.getMetrics();
+        metrics.put("forcedWrites", Logger.getInstance().getFileForces());
+        return metrics;
+    }
+}
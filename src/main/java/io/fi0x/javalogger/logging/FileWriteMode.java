@@ -0,0 +1,20 @@
+package io.fi0x.javalogger.logging;
+
+/**
+ * This enum defines how the {@link Logger} writes {@link LogEntry}s into the log-file.
+ */
+public enum FileWriteMode
+{
+    /**
+     * {@link LogEntry}s are collected in a buffer and written with a system-call,
+     * according to the {@link FlushPolicy}.
+     */
+    BUFFERED,
+    /**
+     * {@link LogEntry}s are copied into a memory-mapped region of the log-file,
+     * and the operating system writes them to the disk.
+     * This is the fastest mode for a high number of {@link LogEntry}s,
+     * but the log-file is larger than its content until it is closed.
+     */
+    MEMORY_MAPPED
+}
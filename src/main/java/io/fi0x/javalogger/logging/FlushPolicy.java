@@ -0,0 +1,17 @@
+package io.fi0x.javalogger.logging;
+
+/**
+ * This enum defines when buffered {@link LogEntry}s are written from memory to the log-file.
+ */
+public enum FlushPolicy
+{
+    /**
+     * Every {@link LogEntry} is written to the log-file immediately.
+     */
+    EVERY_ENTRY,
+    /**
+     * {@link LogEntry}s are collected in memory and only written to the log-file
+     * when the buffer is full, the log-file changes or the {@link Logger} gets flushed.
+     */
+    BUFFER_FULL
+}
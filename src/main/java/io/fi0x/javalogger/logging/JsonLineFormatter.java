@@ -0,0 +1,89 @@
+package io.fi0x.javalogger.logging;
+
+import io.fi0x.javalogger.internal.JsonStrings;
+
+/**
+ * This class is used internally to write a {@link LogEntry} as a single line of JSON.
+ * The line is written directly into the provided {@link StringBuilder},
+ * without creating any intermediate JSON objects.
+ * Each line contains the timestamp in milliseconds, the logging-level, the error-code, the project name,
+ * the name of the {@link LogTemplate}, the message, the stack-trace if there is one,
+ * and all structured fields of the {@link LogEntry} in a "fields" object.
+ */
+class JsonLineFormatter
+{
+    private JsonLineFormatter()
+    {
+    }
+
+    static void appendTo(StringBuilder builder, LogEntry entry, int messageStart, int messageEnd, String stackTrace)
+    {
+        builder.append("{\"time\":").append(entry.time);
+        builder.append(",\"level\":");
+        appendString(builder, entry.loglevel);
+        if(entry.errorCode != 0)
+            builder.append(",\"code\":").append(entry.errorCode);
+        builder.append(",\"project\":");
+        appendString(builder, entry.projectName);
+        if(entry.templateName != null)
+        {
+            builder.append(",\"template\":");
+            appendString(builder, entry.templateName);
+        }
+        if(entry.sampleRate < 1)
+            builder.append(",\"sampleRate\":").append(entry.sampleRate);
+        builder.append(",\"message\":");
+        JsonStrings.append(builder, builder, messageStart, messageEnd);
+        if(stackTrace != null)
+        {
+            builder.append(",\"exception\":");
+            appendString(builder, stackTrace);
+        }
+
+        LogFields fields = entry.fields;
+        if(fields != null && fields.size() > 0)
+        {
+            builder.append(",\"fields\":{");
+            for(int i = 0; i < fields.size(); i++)
+            {
+                if(i > 0)
+                    builder.append(',');
+                appendString(builder, fields.name(i));
+                builder.append(':');
+                appendValue(builder, fields, i);
+            }
+            builder.append('}');
+        }
+        builder.append('}').append('\n');
+    }
+
+    private static void appendValue(StringBuilder builder, LogFields fields, int index)
+    {
+        switch(fields.type(index))
+        {
+            case LogFields.DOUBLE:
+                double value = fields.doubleValue(index);
+                if(Double.isNaN(value) || Double.isInfinite(value))
+                    builder.append('"').append(value).append('"');
+                else
+                    builder.append(value);
+                break;
+            case LogFields.BOOLEAN:
+                builder.append(fields.booleanValue(index));
+                break;
+            case LogFields.STRING:
+                appendString(builder, fields.stringValue(index));
+                break;
+            default:
+                builder.append(fields.longValue(index));
+        }
+    }
+
+    private static void appendString(StringBuilder builder, String text)
+    {
+        if(text == null)
+            builder.append("null");
+        else
+            JsonStrings.append(builder, text, 0, text.length());
+    }
+}
@@ -1,8 +1,13 @@
 package io.fi0x.javalogger.logging;
 
+import java.util.function.Supplier;
+
 /**
  * This class is designed to enable an easy way to log important messages with pre-defined settings.
  * These settings can be changed by overriding the default LogLevel types.
+ * In the patterns of the methods ending with "F", a "{}" that should stay in the message is escaped with a backslash,
+ * which is written as "\\{}" in Java code.
+ * Missing arguments leave their "{}" unchanged, and additional arguments are ignored.
  */
 public class LOG
 {
@@ -17,7 +22,7 @@ public class LOG
      */
     public static void INFO(String message, String projectName)
     {
-        LogEntry l = new LogEntry(message, LogLevel.INFO)
+        LogEntry l = LogEntry.obtain(message, LogLevel.INFO)
                 .PROJECTNAME(projectName);
         Logger.log(l);
     }
@@ -28,7 +33,7 @@ public class LOG
      */
     public static void INFO(String message)
     {
-        LogEntry l = new LogEntry(message, LogLevel.INFO);
+        LogEntry l = LogEntry.obtain(message, LogLevel.INFO);
         Logger.log(l);
     }
     /**
@@ -41,7 +46,7 @@ public class LOG
      */
     public static void WARN(String message, String projectName, int errorCode, Exception exception)
     {
-        LogEntry l = new LogEntry(message, LogLevel.WARNING)
+        LogEntry l = LogEntry.obtain(message, LogLevel.WARNING)
                 .PROJECTNAME(projectName)
                 .CODE(errorCode)
                 .EXCEPTION(exception);
@@ -56,7 +61,7 @@ public class LOG
      */
     public static void WARN(String message, int errorCode, Exception exception)
     {
-        LogEntry l = new LogEntry(message, LogLevel.WARNING)
+        LogEntry l = LogEntry.obtain(message, LogLevel.WARNING)
                 .CODE(errorCode)
                 .EXCEPTION(exception);
         Logger.log(l);
@@ -70,7 +75,7 @@ public class LOG
      */
     public static void WARN(String message, String projectName, int errorCode)
     {
-        LogEntry l = new LogEntry(message, LogLevel.WARNING)
+        LogEntry l = LogEntry.obtain(message, LogLevel.WARNING)
                 .PROJECTNAME(projectName)
                 .CODE(errorCode);
         Logger.log(l);
@@ -84,7 +89,7 @@ public class LOG
      */
     public static void WARN(String message, String projectName, Exception exception)
     {
-        LogEntry l = new LogEntry(message, LogLevel.WARNING)
+        LogEntry l = LogEntry.obtain(message, LogLevel.WARNING)
                 .PROJECTNAME(projectName)
                 .EXCEPTION(exception);
         Logger.log(l);
@@ -97,7 +102,7 @@ public class LOG
      */
     public static void WARN(String message, int errorCode)
     {
-        LogEntry l = new LogEntry(message, LogLevel.WARNING)
+        LogEntry l = LogEntry.obtain(message, LogLevel.WARNING)
                 .CODE(errorCode);
         Logger.log(l);
     }
@@ -109,7 +114,7 @@ public class LOG
      */
     public static void WARN(String message, String projectName)
     {
-        LogEntry l = new LogEntry(message, LogLevel.WARNING)
+        LogEntry l = LogEntry.obtain(message, LogLevel.WARNING)
                 .PROJECTNAME(projectName);
         Logger.log(l);
     }
@@ -121,7 +126,7 @@ public class LOG
      */
     public static void WARN(String message, Exception exception)
     {
-        LogEntry l = new LogEntry(message, LogLevel.WARNING)
+        LogEntry l = LogEntry.obtain(message, LogLevel.WARNING)
                 .EXCEPTION(exception);
         Logger.log(l);
     }
@@ -132,7 +137,7 @@ public class LOG
      */
     public static void WARN(String message)
     {
-        LogEntry l = new LogEntry(message, LogLevel.WARNING);
+        LogEntry l = LogEntry.obtain(message, LogLevel.WARNING);
         Logger.log(l);
     }
     /**
@@ -145,7 +150,7 @@ public class LOG
      */
     public static void ERROR(String message, String projectName, int errorCode, Exception exception)
     {
-        LogEntry l = new LogEntry(message, LogLevel.ERROR)
+        LogEntry l = LogEntry.obtain(message, LogLevel.ERROR)
                 .PROJECTNAME(projectName)
                 .CODE(errorCode)
                 .EXCEPTION(exception);
@@ -160,7 +165,7 @@ public class LOG
      */
     public static void ERROR(String message, int errorCode, Exception exception)
     {
-        LogEntry l = new LogEntry(message, LogLevel.ERROR)
+        LogEntry l = LogEntry.obtain(message, LogLevel.ERROR)
                 .CODE(errorCode)
                 .EXCEPTION(exception);
         Logger.log(l);
@@ -174,7 +179,7 @@ public class LOG
      */
     public static void ERROR(String message, String projectName, int errorCode)
     {
-        LogEntry l = new LogEntry(message, LogLevel.ERROR)
+        LogEntry l = LogEntry.obtain(message, LogLevel.ERROR)
                 .PROJECTNAME(projectName)
                 .CODE(errorCode);
         Logger.log(l);
@@ -188,7 +193,7 @@ public class LOG
      */
     public static void ERROR(String message, String projectName, Exception exception)
     {
-        LogEntry l = new LogEntry(message, LogLevel.ERROR)
+        LogEntry l = LogEntry.obtain(message, LogLevel.ERROR)
                 .PROJECTNAME(projectName)
                 .EXCEPTION(exception);
         Logger.log(l);
@@ -201,7 +206,7 @@ public class LOG
      */
     public static void ERROR(String message, int errorCode)
     {
-        LogEntry l = new LogEntry(message, LogLevel.ERROR)
+        LogEntry l = LogEntry.obtain(message, LogLevel.ERROR)
                 .CODE(errorCode);
         Logger.log(l);
     }
@@ -213,7 +218,7 @@ public class LOG
      */
     public static void ERROR(String message, String projectName)
     {
-        LogEntry l = new LogEntry(message, LogLevel.ERROR)
+        LogEntry l = LogEntry.obtain(message, LogLevel.ERROR)
                 .PROJECTNAME(projectName);
         Logger.log(l);
     }
@@ -225,7 +230,7 @@ public class LOG
      */
     public static void ERROR(String message, Exception exception)
     {
-        LogEntry l = new LogEntry(message, LogLevel.ERROR)
+        LogEntry l = LogEntry.obtain(message, LogLevel.ERROR)
                 .EXCEPTION(exception);
         Logger.log(l);
     }
@@ -236,7 +241,7 @@ public class LOG
      */
     public static void ERROR(String message)
     {
-        LogEntry l = new LogEntry(message, LogLevel.ERROR);
+        LogEntry l = LogEntry.obtain(message, LogLevel.ERROR);
         Logger.log(l);
     }
 
@@ -249,7 +254,7 @@ public class LOG
      */
     public static void VERBOSE(String message, String projectName, int verboseLevel)
     {
-        LogEntry l = new LogEntry(message, LogLevel.VERBOSE)
+        LogEntry l = LogEntry.obtain(message, LogLevel.VERBOSE)
                 .PROJECTNAME(projectName);
         l.verboseLevel = verboseLevel;
         Logger.log(l);
@@ -262,7 +267,7 @@ public class LOG
      */
     public static void VERBOSE(String message, String projectName)
     {
-        LogEntry l = new LogEntry(message, LogLevel.VERBOSE)
+        LogEntry l = LogEntry.obtain(message, LogLevel.VERBOSE)
                 .PROJECTNAME(projectName);
         Logger.log(l);
     }
@@ -274,7 +279,7 @@ public class LOG
      */
     public static void VERBOSE(String message, int verboseLevel)
     {
-        LogEntry l = new LogEntry(message, LogLevel.VERBOSE);
+        LogEntry l = LogEntry.obtain(message, LogLevel.VERBOSE);
         l.verboseLevel = verboseLevel;
         Logger.log(l);
     }
@@ -285,7 +290,360 @@ public class LOG
      */
     public static void VERBOSE(String message)
     {
-        LogEntry l = new LogEntry(message, LogLevel.VERBOSE);
+        LogEntry l = LogEntry.obtain(message, LogLevel.VERBOSE);
+        Logger.log(l);
+    }
+
+    /**
+     * This method will create a log message with the INFO template.
+     * The message is only created if the {@link LogEntry} is actually printed, saved or sent.
+     *
+     * @param message     A supplier for the message that will be displayed in the log.
+     * @param projectName The name of the project this log was created in.
+     */
+    public static void INFO_LAZY(Supplier<String> message, String projectName)
+    {
+        LogEntry l = LogEntry.obtain(null, LogLevel.INFO)
+                .PROJECTNAME(projectName);
+        l.messageSupplier = message;
+        Logger.log(l);
+    }
+    /**
+     * This method will create a log message with the INFO template.
+     * The message is only created if the {@link LogEntry} is actually printed, saved or sent.
+     *
+     * @param message A supplier for the message that will be displayed in the log.
+     */
+    public static void INFO_LAZY(Supplier<String> message)
+    {
+        LogEntry l = LogEntry.obtain(null, LogLevel.INFO);
+        l.messageSupplier = message;
+        Logger.log(l);
+    }
+    /**
+     * This method will create a log message with the INFO template.
+     * Each "{}" in the pattern is replaced by the next argument,
+     * but only if the {@link LogEntry} is actually printed, saved or sent.
+     *
+     * @param pattern   The message that will be displayed in the log, with "{}" as placeholders.
+     * @param arguments The values that replace the placeholders.
+     */
+    public static void INFOF(String pattern, Object... arguments)
+    {
+        LogEntry l = LogEntry.obtain(pattern, LogLevel.INFO);
+        l.messageArguments = arguments;
+        Logger.log(l);
+    }
+    /**
+     * This method will create a log message with the INFO template.
+     * The "{}" in the pattern is replaced by the argument,
+     * but only if the {@link LogEntry} is actually printed, saved or sent.
+     *
+     * @param pattern  The message that will be displayed in the log, with "{}" as placeholder.
+     * @param argument The value that replaces the placeholder.
+     */
+    public static void INFOF(String pattern, long argument)
+    {
+        LogEntry l = LogEntry.obtain(pattern, LogLevel.INFO);
+        l.primitiveArguments = 1;
+        l.primitive0 = argument;
+        Logger.log(l);
+    }
+    /**
+     * This method will create a log message with the INFO template.
+     * The "{}" in the pattern is replaced by the argument,
+     * but only if the {@link LogEntry} is actually printed, saved or sent.
+     *
+     * @param pattern  The message that will be displayed in the log, with "{}" as placeholder.
+     * @param argument The value that replaces the placeholder.
+     */
+    public static void INFOF(String pattern, double argument)
+    {
+        LogEntry l = LogEntry.obtain(pattern, LogLevel.INFO);
+        l.primitiveArguments = 1;
+        l.primitivesAreDouble = true;
+        l.primitive0 = Double.doubleToRawLongBits(argument);
+        Logger.log(l);
+    }
+    /**
+     * This method will create a log message with the INFO template.
+     * The two "{}" in the pattern are replaced by the arguments,
+     * but only if the {@link LogEntry} is actually printed, saved or sent.
+     *
+     * @param pattern The message that will be displayed in the log, with "{}" as placeholders.
+     * @param first   The value that replaces the first placeholder.
+     * @param second  The value that replaces the second placeholder.
+     */
+    public static void INFOF(String pattern, long first, long second)
+    {
+        LogEntry l = LogEntry.obtain(pattern, LogLevel.INFO);
+        l.primitiveArguments = 2;
+        l.primitive0 = first;
+        l.primitive1 = second;
+        Logger.log(l);
+    }
+    /**
+     * This method will create a log message with the WARNING template.
+     * The message is only created if the {@link LogEntry} is actually printed, saved or sent.
+     *
+     * @param message     A supplier for the message that will be displayed in the log.
+     * @param projectName The name of the project this log was created in.
+     */
+    public static void WARN_LAZY(Supplier<String> message, String projectName)
+    {
+        LogEntry l = LogEntry.obtain(null, LogLevel.WARNING)
+                .PROJECTNAME(projectName);
+        l.messageSupplier = message;
+        Logger.log(l);
+    }
+    /**
+     * This method will create a log message with the WARNING template.
+     * The message is only created if the {@link LogEntry} is actually printed, saved or sent.
+     *
+     * @param message A supplier for the message that will be displayed in the log.
+     */
+    public static void WARN_LAZY(Supplier<String> message)
+    {
+        LogEntry l = LogEntry.obtain(null, LogLevel.WARNING);
+        l.messageSupplier = message;
+        Logger.log(l);
+    }
+    /**
+     * This method will create a log message with the WARNING template.
+     * Each "{}" in the pattern is replaced by the next argument,
+     * but only if the {@link LogEntry} is actually printed, saved or sent.
+     *
+     * @param pattern   The message that will be displayed in the log, with "{}" as placeholders.
+     * @param arguments The values that replace the placeholders.
+     */
+    public static void WARNF(String pattern, Object... arguments)
+    {
+        LogEntry l = LogEntry.obtain(pattern, LogLevel.WARNING);
+        l.messageArguments = arguments;
+        Logger.log(l);
+    }
+    /**
+     * This method will create a log message with the WARNING template.
+     * The "{}" in the pattern is replaced by the argument,
+     * but only if the {@link LogEntry} is actually printed, saved or sent.
+     *
+     * @param pattern  The message that will be displayed in the log, with "{}" as placeholder.
+     * @param argument The value that replaces the placeholder.
+     */
+    public static void WARNF(String pattern, long argument)
+    {
+        LogEntry l = LogEntry.obtain(pattern, LogLevel.WARNING);
+        l.primitiveArguments = 1;
+        l.primitive0 = argument;
+        Logger.log(l);
+    }
+    /**
+     * This method will create a log message with the WARNING template.
+     * The "{}" in the pattern is replaced by the argument,
+     * but only if the {@link LogEntry} is actually printed, saved or sent.
+     *
+     * @param pattern  The message that will be displayed in the log, with "{}" as placeholder.
+     * @param argument The value that replaces the placeholder.
+     */
+    public static void WARNF(String pattern, double argument)
+    {
+        LogEntry l = LogEntry.obtain(pattern, LogLevel.WARNING);
+        l.primitiveArguments = 1;
+        l.primitivesAreDouble = true;
+        l.primitive0 = Double.doubleToRawLongBits(argument);
+        Logger.log(l);
+    }
+    /**
+     * This method will create a log message with the WARNING template.
+     * The two "{}" in the pattern are replaced by the arguments,
+     * but only if the {@link LogEntry} is actually printed, saved or sent.
+     *
+     * @param pattern The message that will be displayed in the log, with "{}" as placeholders.
+     * @param first   The value that replaces the first placeholder.
+     * @param second  The value that replaces the second placeholder.
+     */
+    public static void WARNF(String pattern, long first, long second)
+    {
+        LogEntry l = LogEntry.obtain(pattern, LogLevel.WARNING);
+        l.primitiveArguments = 2;
+        l.primitive0 = first;
+        l.primitive1 = second;
+        Logger.log(l);
+    }
+    /**
+     * This method will create a log message with the ERROR template.
+     * The message is only created if the {@link LogEntry} is actually printed, saved or sent.
+     *
+     * @param message     A supplier for the message that will be displayed in the log.
+     * @param projectName The name of the project this log was created in.
+     */
+    public static void ERROR_LAZY(Supplier<String> message, String projectName)
+    {
+        LogEntry l = LogEntry.obtain(null, LogLevel.ERROR)
+                .PROJECTNAME(projectName);
+        l.messageSupplier = message;
+        Logger.log(l);
+    }
+    /**
+     * This method will create a log message with the ERROR template.
+     * The message is only created if the {@link LogEntry} is actually printed, saved or sent.
+     *
+     * @param message A supplier for the message that will be displayed in the log.
+     */
+    public static void ERROR_LAZY(Supplier<String> message)
+    {
+        LogEntry l = LogEntry.obtain(null, LogLevel.ERROR);
+        l.messageSupplier = message;
+        Logger.log(l);
+    }
+    /**
+     * This method will create a log message with the ERROR template.
+     * Each "{}" in the pattern is replaced by the next argument,
+     * but only if the {@link LogEntry} is actually printed, saved or sent.
+     *
+     * @param pattern   The message that will be displayed in the log, with "{}" as placeholders.
+     * @param arguments The values that replace the placeholders.
+     */
+    public static void ERRORF(String pattern, Object... arguments)
+    {
+        LogEntry l = LogEntry.obtain(pattern, LogLevel.ERROR);
+        l.messageArguments = arguments;
+        Logger.log(l);
+    }
+    /**
+     * This method will create a log message with the ERROR template.
+     * The "{}" in the pattern is replaced by the argument,
+     * but only if the {@link LogEntry} is actually printed, saved or sent.
+     *
+     * @param pattern  The message that will be displayed in the log, with "{}" as placeholder.
+     * @param argument The value that replaces the placeholder.
+     */
+    public static void ERRORF(String pattern, long argument)
+    {
+        LogEntry l = LogEntry.obtain(pattern, LogLevel.ERROR);
+        l.primitiveArguments = 1;
+        l.primitive0 = argument;
+        Logger.log(l);
+    }
+    /**
+     * This method will create a log message with the ERROR template.
+     * The "{}" in the pattern is replaced by the argument,
+     * but only if the {@link LogEntry} is actually printed, saved or sent.
+     *
+     * @param pattern  The message that will be displayed in the log, with "{}" as placeholder.
+     * @param argument The value that replaces the placeholder.
+     */
+    public static void ERRORF(String pattern, double argument)
+    {
+        LogEntry l = LogEntry.obtain(pattern, LogLevel.ERROR);
+        l.primitiveArguments = 1;
+        l.primitivesAreDouble = true;
+        l.primitive0 = Double.doubleToRawLongBits(argument);
+        Logger.log(l);
+    }
+    /**
+     * This method will create a log message with the ERROR template.
+     * The two "{}" in the pattern are replaced by the arguments,
+     * but only if the {@link LogEntry} is actually printed, saved or sent.
+     *
+     * @param pattern The message that will be displayed in the log, with "{}" as placeholders.
+     * @param first   The value that replaces the first placeholder.
+     * @param second  The value that replaces the second placeholder.
+     */
+    public static void ERRORF(String pattern, long first, long second)
+    {
+        LogEntry l = LogEntry.obtain(pattern, LogLevel.ERROR);
+        l.primitiveArguments = 2;
+        l.primitive0 = first;
+        l.primitive1 = second;
+        Logger.log(l);
+    }
+    /**
+     * This method will create a log message with the VERBOSE template.
+     * The message is only created if the {@link LogEntry} is actually printed, saved or sent.
+     *
+     * @param message     A supplier for the message that will be displayed in the log.
+     * @param projectName The name of the project this log was created in.
+     */
+    public static void VERBOSE_LAZY(Supplier<String> message, String projectName)
+    {
+        LogEntry l = LogEntry.obtain(null, LogLevel.VERBOSE)
+                .PROJECTNAME(projectName);
+        l.messageSupplier = message;
+        Logger.log(l);
+    }
+    /**
+     * This method will create a log message with the VERBOSE template.
+     * The message is only created if the {@link LogEntry} is actually printed, saved or sent.
+     *
+     * @param message A supplier for the message that will be displayed in the log.
+     */
+    public static void VERBOSE_LAZY(Supplier<String> message)
+    {
+        LogEntry l = LogEntry.obtain(null, LogLevel.VERBOSE);
+        l.messageSupplier = message;
+        Logger.log(l);
+    }
+    /**
+     * This method will create a log message with the VERBOSE template.
+     * Each "{}" in the pattern is replaced by the next argument,
+     * but only if the {@link LogEntry} is actually printed, saved or sent.
+     *
+     * @param pattern   The message that will be displayed in the log, with "{}" as placeholders.
+     * @param arguments The values that replace the placeholders.
+     */
+    public static void VERBOSEF(String pattern, Object... arguments)
+    {
+        LogEntry l = LogEntry.obtain(pattern, LogLevel.VERBOSE);
+        l.messageArguments = arguments;
+        Logger.log(l);
+    }
+    /**
+     * This method will create a log message with the VERBOSE template.
+     * The "{}" in the pattern is replaced by the argument,
+     * but only if the {@link LogEntry} is actually printed, saved or sent.
+     *
+     * @param pattern  The message that will be displayed in the log, with "{}" as placeholder.
+     * @param argument The value that replaces the placeholder.
+     */
+    public static void VERBOSEF(String pattern, long argument)
+    {
+        LogEntry l = LogEntry.obtain(pattern, LogLevel.VERBOSE);
+        l.primitiveArguments = 1;
+        l.primitive0 = argument;
+        Logger.log(l);
+    }
+    /**
+     * This method will create a log message with the VERBOSE template.
+     * The "{}" in the pattern is replaced by the argument,
+     * but only if the {@link LogEntry} is actually printed, saved or sent.
+     *
+     * @param pattern  The message that will be displayed in the log, with "{}" as placeholder.
+     * @param argument The value that replaces the placeholder.
+     */
+    public static void VERBOSEF(String pattern, double argument)
+    {
+        LogEntry l = LogEntry.obtain(pattern, LogLevel.VERBOSE);
+        l.primitiveArguments = 1;
+        l.primitivesAreDouble = true;
+        l.primitive0 = Double.doubleToRawLongBits(argument);
+        Logger.log(l);
+    }
+    /**
+     * This method will create a log message with the VERBOSE template.
+     * The two "{}" in the pattern are replaced by the arguments,
+     * but only if the {@link LogEntry} is actually printed, saved or sent.
+     *
+     * @param pattern The message that will be displayed in the log, with "{}" as placeholders.
+     * @param first   The value that replaces the first placeholder.
+     * @param second  The value that replaces the second placeholder.
+     */
+    public static void VERBOSEF(String pattern, long first, long second)
+    {
+        LogEntry l = LogEntry.obtain(pattern, LogLevel.VERBOSE);
+        l.primitiveArguments = 2;
+        l.primitive0 = first;
+        l.primitive1 = second;
         Logger.log(l);
     }
 }
@@ -0,0 +1,177 @@
+package io.fi0x.javalogger.logging;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * This class is used internally to handle log-files that are no longer written to.
+ * It closes rolled log-files, compresses them and deletes the oldest log-files if the log-folder gets too large.
+ * All work is done by a single background-thread with a low priority,
+ * so logging threads never wait for it.
+ */
+class LogArchiver
+{
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable ->
+    {
+        Thread thread = new Thread(runnable, "JavaLogger-Archiver");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+    private final AtomicInteger pendingCloses = new AtomicInteger();
+
+    void archive(File rolledFile, File currentFile, boolean compress, long maxTotalBytes, int maxFiles)
+    {
+        archive(null, rolledFile, currentFile, compress, maxTotalBytes, maxFiles);
+    }
+    void archive(Runnable closeFile, File rolledFile, File currentFile, boolean compress, long maxTotalBytes, int maxFiles)
+    {
+        if(closeFile != null)
+            pendingCloses.incrementAndGet();
+        executor.execute(() ->
+        {
+            if(closeFile != null)
+            {
+                try
+                {
+                    closeFile.run();
+                } finally
+                {
+                    pendingCloses.decrementAndGet();
+                }
+            }
+            if(compress)
+                compress(rolledFile);
+            applyRetention(rolledFile.getParentFile(), currentFile, maxTotalBytes, maxFiles);
+        });
+    }
+
+    /**
+     * Wait until all rolled log-files that were handed to {@link #archive(Runnable, File, File, boolean, long, int)}
+     * before this call are closed.
+     */
+    void awaitClosedFiles()
+    {
+        if(pendingCloses.get() == 0)
+            return;
+
+        try
+        {
+            executor.submit(() ->
+            {
+            }).get();
+        } catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        } catch(ExecutionException | RejectedExecutionException ignored)
+        {
+        }
+    }
+
+    void shutdown(long timeoutMillis)
+    {
+        executor.shutdown();
+        try
+        {
+            executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void compress(File file)
+    {
+        if(!file.exists())
+            return;
+
+        File temporary = new File(file.getPath() + ".gz.tmp");
+        File archive = new File(file.getPath() + ".gz");
+
+        try(InputStream in = Files.newInputStream(file.toPath());
+            OutputStream out = new GZIPOutputStream(Files.newOutputStream(temporary.toPath()), 65536))
+        {
+            in.transferTo(out);
+        } catch(IOException e)
+        {
+            logError("Could not compress log-file: " + file, 606, e);
+            temporary.delete();
+            return;
+        }
+
+        try
+        {
+            Files.move(temporary.toPath(), archive.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Files.delete(file.toPath());
+        } catch(IOException e)
+        {
+            logError("Could not replace log-file with its compressed version: " + file, 606, e);
+        }
+    }
+
+    private void applyRetention(File folder, File currentFile, long maxTotalBytes, int maxFiles)
+    {
+        if(maxTotalBytes <= 0 && maxFiles <= 0)
+            return;
+
+        File[] files = folder.listFiles((dir, name) -> FileFormat.isLogFile(name));
+        if(files == null)
+            return;
+
+        List<File> candidates = new ArrayList<>();
+        long totalBytes = 0;
+        for(File file : files)
+        {
+            totalBytes += file.length();
+            if(!file.equals(currentFile))
+                candidates.add(file);
+        }
+        candidates.sort(Comparator.comparingLong(File::lastModified));
+
+        int fileCount = candidates.size() + 1;
+        for(File oldest : candidates)
+        {
+            boolean tooMany = maxFiles > 0 && fileCount > maxFiles;
+            boolean tooLarge = maxTotalBytes > 0 && totalBytes > maxTotalBytes;
+            if(!tooMany && !tooLarge)
+                break;
+
+            long length = oldest.length();
+            try
+            {
+                Files.delete(oldest.toPath());
+                totalBytes -= length;
+                fileCount--;
+            } catch(IOException e)
+            {
+                logError("Could not delete old log-file: " + oldest, 607, e);
+            }
+        }
+    }
+
+    private static void logError(String message, int code, Exception e)
+    {
+        LogEntry l = new LogEntry(message)
+                .COLOR(LogColor.RED_BRIGHT)
+                .LEVEL("ERR")
+                .CODE(code)
+                .EXCEPTION(e)
+                .FILE_ENTRY(false)
+                .PROJECTNAME("JavaLogger");
+        Logger.log(l);
+    }
+}
@@ -0,0 +1,109 @@
+package io.fi0x.javalogger.logging;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class is used internally to hold the buffers that are needed to render and encode a {@link LogEntry}.
+ * Every thread re-uses its own buffers, so rendering a {@link LogEntry} does not create garbage.
+ * If a thread logs again while its buffers are in use, temporary buffers are created instead.
+ */
+class LogBuffers
+{
+    static final Charset CONSOLE_CHARSET = findConsoleCharset();
+
+    private static final ThreadLocal<LogBuffers> threadBuffers = ThreadLocal.withInitial(LogBuffers::new);
+
+    final StringBuilder text = new StringBuilder(256);
+    private final CharsetEncoder fileEncoder = createEncoder(StandardCharsets.UTF_8);
+    private final CharsetEncoder consoleEncoder = createEncoder(CONSOLE_CHARSET);
+    private char[] chars = new char[256];
+    private CharBuffer charBuffer = CharBuffer.wrap(chars);
+    private ByteBuffer bytes = ByteBuffer.allocate(512);
+    private boolean inUse;
+
+    private LogBuffers()
+    {
+    }
+
+    static LogBuffers acquire()
+    {
+        LogBuffers buffers = threadBuffers.get();
+        if(buffers.inUse)
+            buffers = new LogBuffers();
+
+        buffers.inUse = true;
+        buffers.text.setLength(0);
+        return buffers;
+    }
+    void release()
+    {
+        inUse = false;
+    }
+
+    ByteBuffer encodeForFile(int start, int end)
+    {
+        return encode(start, end, fileEncoder);
+    }
+    ByteBuffer encodeForConsole(int start, int end)
+    {
+        return encode(start, end, consoleEncoder);
+    }
+
+    private ByteBuffer encode(int start, int end, CharsetEncoder encoder)
+    {
+        int length = end - start;
+        if(chars.length < length)
+        {
+            chars = new char[Math.max(length, chars.length * 2)];
+            charBuffer = CharBuffer.wrap(chars);
+        }
+        text.getChars(start, end, chars, 0);
+        charBuffer.clear().limit(length);
+
+        bytes.clear();
+        encoder.reset();
+        CoderResult result = encoder.encode(charBuffer, bytes, true);
+        while(result.isOverflow())
+        {
+            growBytes();
+            result = encoder.encode(charBuffer, bytes, true);
+        }
+        while(encoder.flush(bytes).isOverflow())
+            growBytes();
+
+        bytes.flip();
+        return bytes;
+    }
+    private void growBytes()
+    {
+        ByteBuffer larger = ByteBuffer.allocate(bytes.capacity() * 2);
+        bytes.flip();
+        larger.put(bytes);
+        bytes = larger;
+    }
+
+    private static CharsetEncoder createEncoder(Charset charset)
+    {
+        return charset.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+    private static Charset findConsoleCharset()
+    {
+        String name = System.getProperty("stdout.encoding", System.getProperty("sun.stdout.encoding"));
+        try
+        {
+            if(name != null)
+                return Charset.forName(name);
+        } catch(IllegalArgumentException ignored)
+        {
+        }
+        return Charset.defaultCharset();
+    }
+}
@@ -1,10 +1,22 @@
 package io.fi0x.javalogger.logging;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * This class defines colors and text-designs that can be used in the log-entries for the console.
+ * All color-codes that {@link #get(Color, Design, boolean, boolean)} can return are created once,
+ * together with their bytes for the console, so looking them up does not create new Strings
+ * and printing them does not need to encode them again.
  */
 public class LogColor
 {
+    private static final byte[] NO_BYTES = new byte[0];
+    private static final Color[] COLORS = Color.values();
+    private static final Design[] DESIGNS = Design.values();
+    private static final String[] SEQUENCES = new String[COLORS.length * DESIGNS.length * 4];
+    private static final Map<String, byte[]> bytesBySequence = new HashMap<>();
+
     private LogColor()
     {
     }
@@ -191,16 +203,7 @@ public class LogColor
      */
     public static String get(Color color, Design design, boolean bright, boolean foreground)
     {
-        String result = "\33[";
-        if(foreground)
-            result += design.style + ";";
-
-        int colorNumber = color.id;
-        if(bright)
-            colorNumber += 60;
-
-        result += colorNumber + "m";
-        return result;
+        return SEQUENCES[index(color, design, bright, foreground)];
     }
     /**
      * Creates a String that corresponds to a usable color-code.
@@ -239,6 +242,60 @@ public class LogColor
         return get(color, Design.NORMAL);
     }
 
+    static byte[] encode(String colorCode)
+    {
+        if(colorCode == null || colorCode.isEmpty())
+            return NO_BYTES;
+
+        byte[] bytes = bytesBySequence.get(colorCode);
+        return bytes != null ? bytes : colorCode.getBytes(LogBuffers.CONSOLE_CHARSET);
+    }
+
+    private static int index(Color color, Design design, boolean bright, boolean foreground)
+    {
+        int designIndex = foreground ? design.ordinal() : 0;
+        return ((color.ordinal() * DESIGNS.length + designIndex) << 2) | (bright ? 2 : 0) | (foreground ? 1 : 0);
+    }
+    private static String create(Color color, Design design, boolean bright, boolean foreground)
+    {
+        StringBuilder result = new StringBuilder("\33[");
+        if(foreground)
+            result.append(design.style).append(';');
+
+        int colorNumber = color.id;
+        if(bright)
+            colorNumber += 60;
+
+        return result.append(colorNumber).append('m').toString();
+    }
+
+    static
+    {
+        for(Color color : COLORS)
+        {
+            for(Design design : DESIGNS)
+            {
+                for(int variant = 0; variant < 4; variant++)
+                {
+                    boolean bright = (variant & 2) != 0;
+                    boolean foreground = (variant & 1) != 0;
+                    int index = index(color, design, bright, foreground);
+                    if(SEQUENCES[index] != null)
+                        continue;
+
+                    SEQUENCES[index] = create(color, design, bright, foreground);
+                    bytesBySequence.put(SEQUENCES[index], SEQUENCES[index].getBytes(LogBuffers.CONSOLE_CHARSET));
+                }
+            }
+        }
+        for(String constant : new String[]{RESET,
+                BLACK, RED, GREEN, YELLOW, BLUE, PURPLE, CYAN, WHITE,
+                BLACK_BRIGHT, RED_BRIGHT, GREEN_BRIGHT, YELLOW_BRIGHT, BLUE_BRIGHT, PURPLE_BRIGHT, CYAN_BRIGHT, WHITE_BRIGHT,
+                BLACK_BACKGROUND, RED_BACKGROUND, GREEN_BACKGROUND, YELLOW_BACKGROUND, BLUE_BACKGROUND, PURPLE_BACKGROUND, CYAN_BACKGROUND, WHITE_BACKGROUND,
+                BLACK_BACKGROUND_BRIGHT, RED_BACKGROUND_BRIGHT, GREEN_BACKGROUND_BRIGHT, YELLOW_BACKGROUND_BRIGHT, BLUE_BACKGROUND_BRIGHT, PURPLE_BACKGROUND_BRIGHT, CYAN_BACKGROUND_BRIGHT, WHITE_BACKGROUND_BRIGHT})
+            bytesBySequence.computeIfAbsent(constant, sequence -> sequence.getBytes(LogBuffers.CONSOLE_CHARSET));
+    }
+
     /**
      * This enum defines values for default colors.
      */
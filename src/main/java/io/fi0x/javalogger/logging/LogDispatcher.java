@@ -0,0 +1,263 @@
+package io.fi0x.javalogger.logging;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class is used internally by the asynchronous {@link Logger}.
+ * Every {@link LogSink} has its own {@link LogDispatcher}, which owns a {@link LogRingBuffer}
+ * and a single thread that takes {@link LogEntry}s out of it and writes them to that {@link LogSink}.
+ * Threads of a {@link LogDispatcher} never wait for space in the queue of another {@link LogDispatcher},
+ * so two destinations that log errors into each other cannot block each other.
+ * Producers register themselves while they publish, so stopping the {@link LogDispatcher}
+ * can wait for every {@link LogEntry} that is already on its way into the queue before the last drain.
+ * Producers that arrive after that wait until the queue is empty and hand their {@link LogEntry}
+ * to the {@link LogDispatcher} that replaces this one, or write it directly if there is none.
+ */
+class LogDispatcher
+{
+    private static final int BATCH_SIZE = 256;
+    private static final long DROP_REPORT_DELAY = 1000;
+    private static final ThreadLocal<Boolean> dispatcherThreads = ThreadLocal.withInitial(() -> false);
+
+    private final LogSink sink;
+    private final LogRingBuffer queue;
+    private final WaitStrategy waitStrategy;
+    private final Thread worker;
+    private volatile boolean running = true;
+    private volatile boolean closed;
+    private volatile boolean stopped;
+    private volatile LogDispatcher successor;
+    private final AtomicInteger publishers = new AtomicInteger();
+    private volatile OverflowPolicy overflowPolicy;
+    private volatile int minSeverity;
+
+    private final Map<String, LongAdder> droppedTotal = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> droppedSinceReport = new ConcurrentHashMap<>();
+    private volatile boolean hasDropped;
+    private long lastDropReport;
+
+    LogDispatcher(LogSink sink, int capacity, WaitStrategy waitStrategy, OverflowPolicy overflowPolicy, int minSeverity)
+    {
+        this.sink = sink;
+        queue = new LogRingBuffer(capacity);
+        this.waitStrategy = waitStrategy;
+        this.overflowPolicy = overflowPolicy;
+        this.minSeverity = minSeverity;
+
+        worker = new Thread(this::run, "JavaLogger-Async-" + sink.name);
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    boolean isWorkerThread()
+    {
+        return Thread.currentThread() == worker;
+    }
+    static boolean isDispatcherThread()
+    {
+        return dispatcherThreads.get();
+    }
+    int size()
+    {
+        return queue.size();
+    }
+    double fill()
+    {
+        return (double) queue.size() / queue.capacity();
+    }
+
+    void setOverflowPolicy(OverflowPolicy overflowPolicy, int minSeverity)
+    {
+        this.minSeverity = minSeverity;
+        this.overflowPolicy = overflowPolicy;
+    }
+    Map<String, Long> getDroppedEntries()
+    {
+        Map<String, Long> result = new TreeMap<>();
+        for(Map.Entry<String, LongAdder> count : droppedTotal.entrySet())
+            result.put(count.getKey(), count.getValue().sum());
+
+        return result;
+    }
+
+    void publish(LogEntry entry)
+    {
+        publishers.incrementAndGet();
+        try
+        {
+            if(!closed)
+            {
+                enqueue(entry);
+                return;
+            }
+        } finally
+        {
+            publishers.decrementAndGet();
+        }
+
+        int attempt = 0;
+        while(!stopped)
+            waitStrategy.idle(attempt++);
+
+        LogDispatcher next = successor;
+        if(next != null)
+            next.publish(entry);
+        else
+        {
+            sink.process(entry);
+            sink.finishBatch();
+        }
+    }
+    private void enqueue(LogEntry entry)
+    {
+        int attempt = 0;
+        while(!queue.offer(entry))
+        {
+            // The slot of the LogEntry that is being written is only free again after it was written,
+            // so dropping queued LogEntries only makes space if the queue is really full
+            boolean isFull = queue.size() >= queue.capacity();
+            switch(overflowPolicy)
+            {
+                case DROP_NEW:
+                    countDropped(entry);
+                    return;
+                case DROP_OLDEST:
+                    if(isFull && queue.poll(this::countDropped))
+                        continue;
+                    break;
+                case DROP_BELOW_SEVERITY:
+                    if(entry.severity < minSeverity)
+                    {
+                        countDropped(entry);
+                        return;
+                    }
+                    if(isFull && queue.pollIf(this::isDroppable, this::countDropped))
+                        continue;
+                    break;
+                default:
+                    break;
+            }
+            if(isDispatcherThread())
+            {
+                countDropped(entry);
+                return;
+            }
+            waitStrategy.idle(attempt++);
+        }
+    }
+
+    void stop(LogDispatcher next)
+    {
+        successor = next;
+        closed = true;
+        int attempt = 0;
+        while(publishers.get() > 0)
+            waitStrategy.idle(attempt++);
+
+        running = false;
+        boolean interrupted = false;
+        while(worker.isAlive())
+        {
+            try
+            {
+                worker.join();
+            } catch(InterruptedException e)
+            {
+                interrupted = true;
+            }
+        }
+        if(interrupted)
+            Thread.currentThread().interrupt();
+        stopped = true;
+        reportDropped();
+    }
+
+    private void run()
+    {
+        dispatcherThreads.set(true);
+        int attempt = 0;
+        while(running)
+        {
+            try
+            {
+                if(drain() > 0)
+                    attempt = 0;
+                else
+                    waitStrategy.idle(attempt++);
+
+                if(hasDropped && System.currentTimeMillis() - lastDropReport >= DROP_REPORT_DELAY)
+                    reportDropped();
+            } catch(RuntimeException e)
+            {
+                LogEntry l = new LogEntry("Could not process a LogEntry asynchronously")
+                        .COLOR(LogColor.RED_BRIGHT)
+                        .LEVEL("ERR")
+                        .EXCEPTION(e)
+                        .CODE(604)
+                        .FILE_ENTRY(false)
+                        .PROJECTNAME("JavaLogger");
+                Logger.log(l);
+            }
+        }
+        drain();
+    }
+
+    private int drain()
+    {
+        int total = 0;
+        int drained;
+        do
+        {
+            drained = queue.drain(sink::process, BATCH_SIZE);
+            total += drained;
+        } while(drained == BATCH_SIZE);
+
+        if(total > 0)
+            sink.finishBatch();
+        return total;
+    }
+
+    private boolean isDroppable(LogEntry entry)
+    {
+        return entry.severity < minSeverity;
+    }
+    private void countDropped(LogEntry entry)
+    {
+        String key = entry.templateName == null ? entry.loglevel : entry.templateName;
+        droppedTotal.computeIfAbsent(key, k -> new LongAdder()).increment();
+        droppedSinceReport.computeIfAbsent(key, k -> new LongAdder()).increment();
+        sink.countDropped();
+        hasDropped = true;
+    }
+    private void reportDropped()
+    {
+        hasDropped = false;
+        lastDropReport = System.currentTimeMillis();
+
+        long total = 0;
+        StringBuilder counts = new StringBuilder();
+        for(Map.Entry<String, LongAdder> count : new TreeMap<>(droppedSinceReport).entrySet())
+        {
+            long dropped = count.getValue().sumThenReset();
+            if(dropped == 0)
+                continue;
+
+            total += dropped;
+            counts.append(counts.length() == 0 ? "" : ", ").append(count.getKey()).append('=').append(dropped);
+        }
+        if(total == 0)
+            return;
+
+        LogEntry l = new LogEntry("Dropped " + total + " LogEntries because the asynchronous queue of the appender '" + sink.name + "' was full: " + counts)
+                .COLOR(LogColor.YELLOW_BRIGHT)
+                .LEVEL("WRN")
+                .CODE(605)
+                .SEVERITY(2)
+                .PROJECTNAME("JavaLogger");
+        Logger.log(l);
+    }
+}
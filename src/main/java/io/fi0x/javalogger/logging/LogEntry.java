@@ -1,5 +1,7 @@
 package io.fi0x.javalogger.logging;
 
+import java.util.function.Supplier;
+
 /**
  * This class provides all information that are needed to print and / or save a {@link LogEntry}.
  * It contains the message that should be logged,
@@ -12,9 +14,26 @@ package io.fi0x.javalogger.logging;
  */
 public class LogEntry
 {
-    final String message;
+    private static final ThreadLocal<LogEntry> pooledEntries = ThreadLocal.withInitial(() ->
+    {
+        LogEntry entry = new LogEntry(null);
+        entry.pooled = true;
+        return entry;
+    });
+    private boolean pooled = false;
+    private boolean inUse = false;
+
+    String message;
+    Supplier<String> messageSupplier = null;
+    Object[] messageArguments = null;
+    int primitiveArguments = 0;
+    boolean primitivesAreDouble = false;
+    long primitive0;
+    long primitive1;
+    long time = LogTimestamp.now();
     String color = "";
     String background = "";
+    byte[] consolePrefix = null;
     String loglevel = "INF";
     int errorCode = 0;
     Exception exception = null;
@@ -27,6 +46,11 @@ public class LogEntry
     boolean mixpanel = false;
     String mixpanelEventName = "LOG";
     String projectName = "";
+    int severity = 1;
+    String templateName = null;
+    int templateId = -1;
+    double sampleRate = 1;
+    LogFields fields = null;
 
     /**
      * Create a new {@link LogEntry} with the given text.
@@ -48,14 +72,58 @@ public class LogEntry
      */
     public LogEntry(String text, String templateName) throws IllegalArgumentException
     {
-        if(!Logger.templates.containsKey(templateName))
-            throw new IllegalArgumentException("A LogTemplate with this name does not exist");
-
         message = text;
+        applyTemplate(Logger.templates.get(templateName), templateName);
+    }
+    /**
+     * Create a new {@link LogEntry} with the provided text,
+     * based on the given {@link LogTemplate}-name.
+     *
+     * @param text         The message that should be logged.
+     * @param templateName The enum that will be used as name for the {@link LogTemplate}.
+     * @throws IllegalArgumentException Will throw if a {@link LogTemplate} with the provided name does not exist.
+     */
+    public LogEntry(String text, Enum<?> templateName) throws IllegalArgumentException
+    {
+        message = text;
+        applyTemplate(Logger.templates.get(templateName), templateName.name());
+    }
+
+    static LogEntry obtain(String text, Enum<?> templateName)
+    {
+        if(!Logger.getInstance().isGarbageFree())
+            return new LogEntry(text, templateName);
+
+        LogEntry entry = pooledEntries.get();
+        if(entry.inUse)
+            return new LogEntry(text, templateName);
+
+        entry.inUse = true;
+        entry.message = text;
+        entry.time = LogTimestamp.now();
+        entry.errorCode = 0;
+        entry.primitiveArguments = 0;
+        entry.primitivesAreDouble = false;
+        entry.applyTemplate(Logger.templates.get(templateName), templateName.name());
+        return entry;
+    }
+    void recycle()
+    {
+        if(!pooled)
+            return;
+
+        clear();
+        inUse = false;
+    }
+
+    private void applyTemplate(LogTemplate t, String templateName)
+    {
+        if(t == null)
+            throw new IllegalArgumentException("A LogTemplate with this name does not exist");
 
-        LogTemplate t = Logger.templates.get(templateName);
         this.color = t.color;
         this.background = t.background;
+        this.consolePrefix = t.consolePrefix;
         this.loglevel = t.loglevel;
         this.fileEntry = t.fileEntry;
         this.onlyVerbose = t.onlyVerbose;
@@ -66,18 +134,93 @@ public class LogEntry
         this.mixpanel = t.mixpanelMessage;
         this.mixpanelEventName = t.mixpanelEventName;
         this.projectName = t.projectName;
+        this.severity = t.severity;
+        this.templateName = templateName;
+        this.templateId = t.id;
     }
+
     /**
-     * Create a new {@link LogEntry} with the provided text,
-     * based on the given {@link LogTemplate}-name.
-     *
-     * @param text         The message that should be logged.
-     * @param templateName The enum that will be used as name for the {@link LogTemplate}.
-     * @throws IllegalArgumentException Will throw if a {@link LogTemplate} with the provided name does not exist.
+     * @return This {@link LogEntry} if it belongs to the pool, which resets the rate when it is recycled,
+     * otherwise a copy, so the {@link LogEntry} of the caller keeps its own rate.
      */
-    public LogEntry(String text, Enum<?> templateName) throws IllegalArgumentException
+    LogEntry withSampleRate(double rate)
     {
-        this(text, templateName.name());
+        LogEntry entry = this;
+        if(!pooled)
+        {
+            entry = new LogEntry(null);
+            entry.copyFrom(this);
+        }
+        entry.sampleRate = rate;
+        return entry;
+    }
+    void copyFrom(LogEntry other)
+    {
+        message = other.message;
+        messageSupplier = other.messageSupplier;
+        messageArguments = other.messageArguments;
+        primitiveArguments = other.primitiveArguments;
+        primitivesAreDouble = other.primitivesAreDouble;
+        primitive0 = other.primitive0;
+        primitive1 = other.primitive1;
+        time = other.time;
+        color = other.color;
+        background = other.background;
+        consolePrefix = other.consolePrefix;
+        loglevel = other.loglevel;
+        errorCode = other.errorCode;
+        exception = other.exception;
+        fileEntry = other.fileEntry;
+        onlyVerbose = other.onlyVerbose;
+        verboseLevel = other.verboseLevel;
+        onlyDebug = other.onlyDebug;
+        plainText = other.plainText;
+        consoleException = other.consoleException;
+        mixpanel = other.mixpanel;
+        mixpanelEventName = other.mixpanelEventName;
+        projectName = other.projectName;
+        severity = other.severity;
+        templateName = other.templateName;
+        templateId = other.templateId;
+        sampleRate = other.sampleRate;
+        if(other.fields != null && other.fields.size() > 0)
+        {
+            if(fields == null)
+                fields = new LogFields();
+            fields.copyFrom(other.fields);
+        } else if(fields != null)
+            fields.clear();
+    }
+    void clear()
+    {
+        message = null;
+        messageSupplier = null;
+        messageArguments = null;
+        exception = null;
+        sampleRate = 1;
+        if(fields != null)
+            fields.clear();
+    }
+    String getMessage()
+    {
+        if(messageSupplier == null && messageArguments == null && primitiveArguments == 0)
+            return message;
+
+        StringBuilder builder = new StringBuilder();
+        MessageFormatter.formatTo(builder, this);
+        message = builder.toString();
+        messageSupplier = null;
+        messageArguments = null;
+        primitiveArguments = 0;
+        return message;
+    }
+    void resolveSupplier()
+    {
+        if(messageSupplier == null)
+            return;
+
+        message = messageSupplier.get();
+        messageSupplier = null;
     }
 
     /**
@@ -90,6 +233,7 @@ public class LogEntry
     public LogEntry COLOR(String colorCode)
     {
         color = colorCode;
+        consolePrefix = null;
         return this;
     }
     /**
@@ -102,6 +246,7 @@ public class LogEntry
     public LogEntry BACKGROUND(String colorCode)
     {
         background = colorCode;
+        consolePrefix = null;
         return this;
     }
     /**
@@ -254,4 +399,165 @@ public class LogEntry
         projectName = nameOfProject;
         return this;
     }
+    /**
+     * Change the severity of this {@link LogEntry}.
+     * The severity decides which {@link LogEntry}s are dropped first
+     * if the asynchronous {@link Logger} can not keep up.
+     *
+     * @param severityLevel The new severity, where 0 is verbose, 1 is info, 2 is warning and 3 is error
+     *                      (Default is 1).
+     * @return The current {@link LogEntry} to be used further.
+     */
+    public LogEntry SEVERITY(int severityLevel)
+    {
+        severity = severityLevel;
+        return this;
+    }
+    /**
+     * Add a structured field with a number to this {@link LogEntry}.
+     * Fields are not part of the printed message,
+     * but they are written into log-files with the JSON {@link FileFormat} and sent to Mixpanel.
+     *
+     * @param name  The name of the field.
+     * @param value The value of the field.
+     * @return The current {@link LogEntry} to be used further.
+     */
+    public LogEntry FIELD(String name, long value)
+    {
+        getFields().add(name, LogFields.LONG, value, null);
+        return this;
+    }
+    /**
+     * Add a structured field with a decimal number to this {@link LogEntry}.
+     * Fields are not part of the printed message,
+     * but they are written into log-files with the JSON {@link FileFormat} and sent to Mixpanel.
+     *
+     * @param name  The name of the field.
+     * @param value The value of the field.
+     * @return The current {@link LogEntry} to be used further.
+     */
+    public LogEntry FIELD(String name, double value)
+    {
+        getFields().add(name, LogFields.DOUBLE, Double.doubleToRawLongBits(value), null);
+        return this;
+    }
+    /**
+     * Add a structured field with a boolean to this {@link LogEntry}.
+     * Fields are not part of the printed message,
+     * but they are written into log-files with the JSON {@link FileFormat} and sent to Mixpanel.
+     *
+     * @param name  The name of the field.
+     * @param value The value of the field.
+     * @return The current {@link LogEntry} to be used further.
+     */
+    public LogEntry FIELD(String name, boolean value)
+    {
+        getFields().add(name, LogFields.BOOLEAN, value ? 1 : 0, null);
+        return this;
+    }
+    /**
+     * Add a structured field with a text to this {@link LogEntry}.
+     * Fields are not part of the printed message,
+     * but they are written into log-files with the JSON {@link FileFormat} and sent to Mixpanel.
+     *
+     * @param name  The name of the field.
+     * @param value The value of the field.
+     * @return The current {@link LogEntry} to be used further.
+     */
+    public LogEntry FIELD(String name, String value)
+    {
+        getFields().add(name, LogFields.STRING, 0, value);
+        return this;
+    }
+
+    /**
+     * Get the message of this {@link LogEntry}, with all placeholders replaced by their arguments.
+     *
+     * @return The message without any prefix.
+     */
+    public String getText()
+    {
+        return getMessage();
+    }
+    /**
+     * Get the logging-level of this {@link LogEntry}, like "INF" or "ERR".
+     *
+     * @return The logging-level.
+     */
+    public String getLogLevel()
+    {
+        return loglevel;
+    }
+    /**
+     * Get the severity of this {@link LogEntry},
+     * where 0 is verbose, 1 is info, 2 is warning and 3 is error.
+     *
+     * @return The severity.
+     */
+    public int getSeverity()
+    {
+        return severity;
+    }
+    /**
+     * Get the error code of this {@link LogEntry}.
+     *
+     * @return The error code, or 0 if there is none.
+     */
+    public int getErrorCode()
+    {
+        return errorCode;
+    }
+    /**
+     * Get the time at which this {@link LogEntry} was created.
+     *
+     * @return The time in milliseconds since 1970-01-01T00:00Z.
+     */
+    public long getTime()
+    {
+        return time;
+    }
+    /**
+     * Get the name of the {@link LogTemplate} this {@link LogEntry} was created with.
+     *
+     * @return The name of the {@link LogTemplate}, or null if no {@link LogTemplate} was used.
+     */
+    public String getTemplateName()
+    {
+        return templateName;
+    }
+    /**
+     * Get the name of the project this {@link LogEntry} belongs to.
+     *
+     * @return The name of the project.
+     */
+    public String getProjectName()
+    {
+        return projectName;
+    }
+    /**
+     * Get the exception of this {@link LogEntry}.
+     *
+     * @return The exception, or null if there is none.
+     */
+    public Exception getException()
+    {
+        return exception;
+    }
+    /**
+     * Get the rate with which this {@link LogEntry} was kept by the sampling of its {@link LogTemplate}.
+     * Counts of sampled {@link LogEntry}s can be divided by this rate to estimate the original number.
+     *
+     * @return The rate between 0.001 and 1, where 1 means that the {@link LogEntry} was not sampled.
+     */
+    public double getSampleRate()
+    {
+        return sampleRate;
+    }
+
+    private LogFields getFields()
+    {
+        if(fields == null)
+            fields = new LogFields();
+        return fields;
+    }
 }
@@ -0,0 +1,81 @@
+package io.fi0x.javalogger.logging;
+
+import java.util.Arrays;
+
+/**
+ * This class is used internally to store the structured fields of a {@link LogEntry}.
+ * Numbers and booleans are stored in a primitive array and texts in a separate array,
+ * so adding a field does not box its value.
+ * The arrays are kept when the fields are cleared,
+ * so pooled {@link LogEntry}s and the slots of the asynchronous queue can reuse them.
+ */
+class LogFields
+{
+    static final byte LONG = 0;
+    static final byte DOUBLE = 1;
+    static final byte BOOLEAN = 2;
+    static final byte STRING = 3;
+
+    private String[] names = new String[4];
+    private byte[] types = new byte[4];
+    private long[] primitives = new long[4];
+    private String[] texts = new String[4];
+    private int count;
+
+    int size()
+    {
+        return count;
+    }
+    String name(int index)
+    {
+        return names[index];
+    }
+    byte type(int index)
+    {
+        return types[index];
+    }
+    long longValue(int index)
+    {
+        return primitives[index];
+    }
+    double doubleValue(int index)
+    {
+        return Double.longBitsToDouble(primitives[index]);
+    }
+    boolean booleanValue(int index)
+    {
+        return primitives[index] != 0;
+    }
+    String stringValue(int index)
+    {
+        return texts[index];
+    }
+    void add(String name, byte type, long primitive, String text)
+    {
+        if(count == names.length)
+        {
+            int capacity = count * 2;
+            names = Arrays.copyOf(names, capacity);
+            types = Arrays.copyOf(types, capacity);
+            primitives = Arrays.copyOf(primitives, capacity);
+            texts = Arrays.copyOf(texts, capacity);
+        }
+        names[count] = name;
+        types[count] = type;
+        primitives[count] = primitive;
+        texts[count] = text;
+        count++;
+    }
+    void copyFrom(LogFields other)
+    {
+        clear();
+        for(int i = 0; i < other.count; i++)
+            add(other.names[i], other.types[i], other.primitives[i], other.texts[i]);
+    }
+    void clear()
+    {
+        Arrays.fill(names, 0, count, null);
+        Arrays.fill(texts, 0, count, null);
+        count = 0;
+    }
+}
@@ -0,0 +1,195 @@
+package io.fi0x.javalogger.logging;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class is used internally as the base for all classes that append encoded lines to a log-file.
+ * The file stays open until the writer is closed,
+ * so the cost of each line does not depend on the size of the file.
+ */
+abstract class LogFileWriter
+{
+    private static final int PADDING_CHUNK = 64 * 1024;
+
+    private final File file;
+    private final Object syncLock = new Object();
+    private boolean closed;
+    private volatile long size;
+    private long syncedSize;
+    private boolean syncing;
+    private long forces;
+    private volatile boolean durable;
+    private BinaryLogEncoder binaryEncoder;
+
+    LogFileWriter(File file, long initialSize)
+    {
+        this.file = file;
+        size = initialSize;
+    }
+
+    File getFile()
+    {
+        return file;
+    }
+    long getSize()
+    {
+        return size;
+    }
+    void setDurable(boolean forceToDisk)
+    {
+        durable = forceToDisk;
+    }
+    boolean isDurable()
+    {
+        return durable;
+    }
+    synchronized BinaryLogEncoder getBinaryEncoder()
+    {
+        if(binaryEncoder == null)
+            binaryEncoder = new BinaryLogEncoder();
+        return binaryEncoder;
+    }
+
+    synchronized long write(ByteBuffer line) throws IOException
+    {
+        if(closed)
+            return -1;
+
+        size += line.remaining();
+        append(line);
+        return size;
+    }
+
+    long getForces()
+    {
+        synchronized(syncLock)
+        {
+            return forces;
+        }
+    }
+
+    void sync() throws IOException
+    {
+        syncTo(size);
+    }
+    void syncTo(long position) throws IOException
+    {
+        synchronized(syncLock)
+        {
+            while(syncedSize < position && syncing)
+            {
+                try
+                {
+                    syncLock.wait();
+                } catch(InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            if(syncedSize >= position)
+                return;
+
+            syncing = true;
+        }
+
+        long reached = syncedSize;
+        try
+        {
+            reached = forceToDisk();
+        } finally
+        {
+            synchronized(syncLock)
+            {
+                forces++;
+                syncing = false;
+                syncedSize = Math.max(syncedSize, reached);
+                syncLock.notifyAll();
+            }
+        }
+    }
+    synchronized void flush() throws IOException
+    {
+        if(!closed)
+            flushBuffer();
+    }
+    synchronized void close() throws IOException
+    {
+        if(closed)
+            return;
+
+        try
+        {
+            flushBuffer();
+            if(durable)
+            {
+                forceToDisk();
+                synchronized(syncLock)
+                {
+                    forces++;
+                }
+            }
+        } finally
+        {
+            closed = true;
+            release(size);
+        }
+    }
+
+    /**
+     * Remove the zero bytes that a {@link MappedLogFileWriter} leaves at the end of a log-file
+     * if the process stopped before the file was truncated to its real length,
+     * so new lines are appended directly after the last line.
+     * Text and JSON lines end with a line-break, so every zero byte at the end is padding.
+     * Binary records can end with zero bytes, so keptZeros of them are kept and skipped by the {@link BinaryLogDecoder}.
+     */
+    static void trimPadding(File file, int keptZeros) throws IOException
+    {
+        if(!file.exists())
+            return;
+
+        try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE))
+        {
+            trimPadding(channel, keptZeros);
+        }
+    }
+    private static void trimPadding(FileChannel channel, int keptZeros) throws IOException
+    {
+        long size = channel.size();
+        long content = size;
+        ByteBuffer chunk = ByteBuffer.allocate((int) Math.min(PADDING_CHUNK, Math.max(1, size)));
+        search:
+        while(content > 0)
+        {
+            long start = Math.max(0, content - chunk.capacity());
+            chunk.clear().limit((int) (content - start));
+            while(chunk.hasRemaining())
+            {
+                if(channel.read(chunk, start + chunk.position()) < 0)
+                    break;
+            }
+            for(int i = chunk.position() - 1; i >= 0; i--)
+            {
+                if(chunk.get(i) != 0)
+                {
+                    content = start + i + 1;
+                    break search;
+                }
+            }
+            content = start;
+        }
+
+        long end = content == 0 ? 0 : Math.min(size, content + keptZeros);
+        if(end < size)
+            channel.truncate(end);
+    }
+
+    abstract void append(ByteBuffer line) throws IOException;
+    abstract void flushBuffer() throws IOException;
+    abstract long forceToDisk() throws IOException;
+    abstract void release(long finalSize) throws IOException;
+}
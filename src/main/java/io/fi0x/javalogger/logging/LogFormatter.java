@@ -0,0 +1,18 @@
+package io.fi0x.javalogger.logging;
+
+/**
+ * This interface can be used to change how an {@link Appender}
+ * or the console, the text log-file and Mixpanel display a {@link LogEntry}.
+ */
+@FunctionalInterface
+public interface LogFormatter
+{
+    /**
+     * Write the text for a {@link LogEntry} into the provided {@link StringBuilder}.
+     * The text should not end with a line-separator.
+     *
+     * @param entry  The {@link LogEntry} that should be formatted.
+     * @param output The {@link StringBuilder} the text is appended to.
+     */
+    void format(LogEntry entry, StringBuilder output);
+}
@@ -0,0 +1,115 @@
+package io.fi0x.javalogger.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * This class is used internally as a bounded queue between the threads that create {@link LogEntry}s
+ * and the thread of the asynchronous {@link Logger}.
+ * All slots are created once and re-used, so publishing a {@link LogEntry} only copies its values.
+ * Every slot has a sequence number that tells producers and consumers
+ * if the slot is free or filled, so no locks are required.
+ */
+class LogRingBuffer
+{
+    private final LogEntry[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    LogRingBuffer(int capacity)
+    {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        slots = new LogEntry[size];
+        sequences = new AtomicLongArray(size);
+        mask = size - 1;
+
+        for(int i = 0; i < size; i++)
+        {
+            slots[i] = new LogEntry(null);
+            sequences.set(i, i);
+        }
+    }
+
+    int capacity()
+    {
+        return slots.length;
+    }
+    int size()
+    {
+        return (int) Math.max(0, head.get() - tail.get());
+    }
+
+    boolean offer(LogEntry entry)
+    {
+        long position = head.get();
+        while(true)
+        {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+
+            if(difference == 0)
+            {
+                if(head.compareAndSet(position, position + 1))
+                {
+                    slots[index].copyFrom(entry);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = head.get();
+            } else if(difference < 0)
+                return false;
+            else
+                position = head.get();
+        }
+    }
+
+    int drain(Consumer<LogEntry> handler, int maxEntries)
+    {
+        int drained = 0;
+        while(drained < maxEntries && poll(handler))
+            drained++;
+
+        return drained;
+    }
+
+    boolean poll(Consumer<LogEntry> handler)
+    {
+        return pollIf(null, handler);
+    }
+    boolean pollIf(Predicate<LogEntry> condition, Consumer<LogEntry> handler)
+    {
+        long position = tail.get();
+        while(true)
+        {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - (position + 1);
+
+            if(difference == 0)
+            {
+                if(condition != null && !condition.test(slots[index]))
+                    return false;
+                if(tail.compareAndSet(position, position + 1))
+                {
+                    LogEntry slot = slots[index];
+                    try
+                    {
+                        handler.accept(slot);
+                    } finally
+                    {
+                        slot.clear();
+                        sequences.set(index, position + slots.length);
+                    }
+                    return true;
+                }
+                position = tail.get();
+            } else if(difference < 0)
+                return false;
+            else
+                position = tail.get();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package io.fi0x.javalogger.logging;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * This class is used internally as the base for all destinations of the {@link Logger}.
+ * The console, the log-file, Mixpanel and every registered {@link Appender} have their own {@link LogSink},
+ * which decides which {@link LogEntry}s it accepts and measures how long writing them takes.
+ * In asynchronous-mode, each {@link LogSink} owns a {@link LogDispatcher},
+ * so every destination is drained by its own thread.
+ */
+abstract class LogSink
+{
+    final String name;
+    volatile Predicate<LogEntry> filter;
+    volatile LogFormatter formatter;
+    volatile LogDispatcher dispatcher;
+
+    private final LongAdder appended = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder latencyNanos = new LongAdder();
+    private final LongAccumulator maxLatencyNanos = new LongAccumulator(Math::max, 0);
+    private volatile boolean reportingFailure;
+
+    LogSink(String name, Predicate<LogEntry> filter, LogFormatter formatter)
+    {
+        this.name = name;
+        this.filter = filter;
+        this.formatter = formatter;
+    }
+
+    abstract boolean isInterested(LogEntry log, boolean visible);
+    abstract void write(LogEntry log, LogBuffers buffers) throws IOException;
+    void flush() throws IOException
+    {
+    }
+    void endBatch() throws IOException
+    {
+        flush();
+    }
+    void close() throws IOException
+    {
+    }
+
+    final boolean accepts(LogEntry log, boolean visible)
+    {
+        Predicate<LogEntry> entryFilter = filter;
+        return isInterested(log, visible) && (entryFilter == null || entryFilter.test(log));
+    }
+    final void process(LogEntry log)
+    {
+        LogBuffers buffers = LogBuffers.acquire();
+        long start = System.nanoTime();
+        try
+        {
+            write(log, buffers);
+            appended.increment();
+        } catch(IOException | RuntimeException e)
+        {
+            failed.increment();
+            reportFailure(e);
+        } finally
+        {
+            buffers.release();
+            long latency = System.nanoTime() - start;
+            latencyNanos.add(latency);
+            maxLatencyNanos.accumulate(latency);
+        }
+    }
+    final void finishBatch()
+    {
+        try
+        {
+            endBatch();
+        } catch(IOException | RuntimeException e)
+        {
+            reportFailure(e);
+        }
+    }
+    final void countDropped()
+    {
+        dropped.increment();
+    }
+
+    Map<String, Long> getMetrics()
+    {
+        LogDispatcher asyncDispatcher = dispatcher;
+        long count = appended.sum() + failed.sum();
+
+        Map<String, Long> metrics = new LinkedHashMap<>();
+        metrics.put("queuedEntries", asyncDispatcher == null ? 0L : asyncDispatcher.size());
+        metrics.put("appendedEntries", appended.sum());
+        metrics.put("failedEntries", failed.sum());
+        metrics.put("droppedEntries", dropped.sum());
+        metrics.put("averageLatencyNanos", count == 0 ? 0L : latencyNanos.sum() / count);
+        metrics.put("maxLatencyNanos", maxLatencyNanos.get());
+        return metrics;
+    }
+
+    private void reportFailure(Exception e)
+    {
+        if(reportingFailure)
+            return;
+
+        reportingFailure = true;
+        try
+        {
+            LogEntry l = new LogEntry("The appender '" + name + "' could not write a LogEntry")
+                    .COLOR(LogColor.RED_BRIGHT)
+                    .LEVEL("ERR")
+                    .EXCEPTION(e)
+                    .CODE(611)
+                    .FILE_ENTRY(false)
+                    .PROJECTNAME("JavaLogger");
+            Logger.log(l);
+        } finally
+        {
+            reportingFailure = false;
+        }
+    }
+}
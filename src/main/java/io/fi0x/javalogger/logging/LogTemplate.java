@@ -1,28 +1,34 @@
 package io.fi0x.javalogger.logging;
 
+import java.util.Arrays;
+
 /**
  * This class is used internally to create {@link LogTemplate}
  * for default logging-behaviour.
  */
 class LogTemplate
 {
-    String color;
-    String background;
-    String loglevel;
-    boolean fileEntry;
-    boolean onlyVerbose;
-    int verboseLevel;
-    boolean onlyDebug;
-    boolean plainText;
-    boolean consoleException;
-    boolean mixpanelMessage;
-    String mixpanelEventName;
-    String projectName;
+    final String color;
+    final String background;
+    final byte[] consolePrefix;
+    final String loglevel;
+    final boolean fileEntry;
+    final boolean onlyVerbose;
+    final int verboseLevel;
+    final boolean onlyDebug;
+    final boolean plainText;
+    final boolean consoleException;
+    final boolean mixpanelMessage;
+    final String mixpanelEventName;
+    final String projectName;
+    final int severity;
+    int id;
 
-    LogTemplate(String color, String background, String level, boolean writeToFile, boolean requireVerbose, int verboseLevel, boolean requireDebug, boolean noPrefix, boolean showExceptionInConsole, boolean mixpanelMessage, String mixpanelEventName, String projectName)
+    LogTemplate(String color, String background, String level, boolean writeToFile, boolean requireVerbose, int verboseLevel, boolean requireDebug, boolean noPrefix, boolean showExceptionInConsole, boolean mixpanelMessage, String mixpanelEventName, String projectName, int severity)
     {
         this.color = color;
         this.background = background;
+        this.consolePrefix = createConsolePrefix(color, background);
         this.loglevel = level;
         this.fileEntry = writeToFile;
         this.onlyVerbose = requireVerbose;
@@ -33,5 +39,20 @@ class LogTemplate
         this.mixpanelMessage = mixpanelMessage;
         this.mixpanelEventName = mixpanelEventName;
         this.projectName = projectName;
+        this.severity = severity;
+    }
+
+    LogTemplate withSeverity(int newSeverity)
+    {
+        return new LogTemplate(color, background, loglevel, fileEntry, onlyVerbose, verboseLevel, onlyDebug, plainText, consoleException, mixpanelMessage, mixpanelEventName, projectName, newSeverity);
+    }
+
+    private static byte[] createConsolePrefix(String color, String background)
+    {
+        byte[] colorBytes = LogColor.encode(color);
+        byte[] backgroundBytes = LogColor.encode(background);
+        byte[] prefix = Arrays.copyOf(colorBytes, colorBytes.length + backgroundBytes.length);
+        System.arraycopy(backgroundBytes, 0, prefix, colorBytes.length, backgroundBytes.length);
+        return prefix;
     }
 }
@@ -0,0 +1,126 @@
+package io.fi0x.javalogger.logging;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * This class is used internally to render the timestamps of {@link LogEntry}s.
+ * The "[yyyy/MM/dd HH:mm:ss." part only changes once per second, so it is cached
+ * and only the milliseconds are written for each {@link LogEntry}.
+ * It can also provide a coarse clock that is updated by a background thread,
+ * which is cheaper to read than the system clock.
+ */
+class LogTimestamp
+{
+    private static volatile CachedSecond cache = new CachedSecond(Long.MIN_VALUE, new char[0]);
+
+    private static volatile long coarseTime;
+    private static volatile Thread ticker;
+
+    private LogTimestamp()
+    {
+    }
+
+    static long now()
+    {
+        return ticker == null ? System.currentTimeMillis() : coarseTime;
+    }
+
+    static synchronized void setCoarseClock(boolean useCoarseClock)
+    {
+        if(useCoarseClock == (ticker != null))
+            return;
+
+        if(!useCoarseClock)
+        {
+            Thread old = ticker;
+            ticker = null;
+            old.interrupt();
+            return;
+        }
+
+        coarseTime = System.currentTimeMillis();
+        Thread t = new Thread(() ->
+        {
+            while(!Thread.currentThread().isInterrupted())
+            {
+                coarseTime = System.currentTimeMillis();
+                try
+                {
+                    Thread.sleep(1);
+                } catch(InterruptedException e)
+                {
+                    return;
+                }
+            }
+        }, "JavaLogger-Clock");
+        t.setDaemon(true);
+        t.start();
+        ticker = t;
+    }
+
+    static void appendTo(StringBuilder builder, long millis)
+    {
+        long second = Math.floorDiv(millis, 1000);
+        int milli = Math.floorMod(millis, 1000);
+
+        CachedSecond current = cache;
+        if(current.second != second)
+        {
+            current = new CachedSecond(second, renderSecond(second));
+            cache = current;
+        }
+
+        builder.append(current.chars)
+                .append((char) ('0' + milli / 100))
+                .append((char) ('0' + milli / 10 % 10))
+                .append((char) ('0' + milli % 10))
+                .append(']');
+    }
+
+    static char[] getCachedSecond()
+    {
+        return cache.chars;
+    }
+
+    private static char[] renderSecond(long second)
+    {
+        LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochSecond(second), ZoneId.systemDefault());
+        char[] chars = new char[21];
+        chars[0] = '[';
+        writeDigits(chars, 1, time.getYear(), 4);
+        chars[5] = '/';
+        writeDigits(chars, 6, time.getMonthValue(), 2);
+        chars[8] = '/';
+        writeDigits(chars, 9, time.getDayOfMonth(), 2);
+        chars[11] = ' ';
+        writeDigits(chars, 12, time.getHour(), 2);
+        chars[14] = ':';
+        writeDigits(chars, 15, time.getMinute(), 2);
+        chars[17] = ':';
+        writeDigits(chars, 18, time.getSecond(), 2);
+        chars[20] = '.';
+        return chars;
+    }
+    private static void writeDigits(char[] chars, int offset, int value, int length)
+    {
+        for(int i = offset + length - 1; i >= offset; i--)
+        {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private static class CachedSecond
+    {
+        private final long second;
+        private final char[] chars;
+
+        private CachedSecond(long second, char[] chars)
+        {
+            this.second = second;
+            this.chars = chars;
+        }
+    }
+}
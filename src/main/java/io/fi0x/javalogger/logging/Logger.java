@@ -4,50 +4,112 @@ import io.fi0x.javalogger.mixpanel.MixpanelHandler;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
 
 /**
  * This class can be used for logging to the default output
  * and to a log-file.
+ * The console, the log-file and Mixpanel are built-in {@link Appender}s with the names
+ * "console", "file" and "mixpanel", and more {@link Appender}s can be added.
  */
 public class Logger
 {
-    private static Logger instance;
-
-    private File logFolder;
-    private File currentLogFile;
-    private boolean isDebug;
-    private boolean isVerbose;
-    private int verboseLevel = 0;
-    private boolean smallLog;
-    private boolean consoleExceptions;
-    private boolean projectName;
-
-    static Map<String, LogTemplate> templates = new HashMap<>()
-    {{
-        put(LogLevel.VERBOSE.name(), new LogTemplate(LogColor.WHITE, "", "VER", false, true, 0, false, false, false, false, "LOG", "JavaLogger"));
-        put(LogLevel.VVERBOSE.name(), new LogTemplate(LogColor.WHITE, "", "VER", false, true, 1, false, false, false, false, "LOG", "JavaLogger"));
-        put(LogLevel.VVVERBOSE.name(), new LogTemplate(LogColor.WHITE, "", "VER", false, true, 2, false, false, false, false, "LOG", "JavaLogger"));
-        put(LogLevel.INFO.name(), new LogTemplate(LogColor.WHITE_BRIGHT, "", "INF", true, false, 0, true, false, false, false, "LOG", "JavaLogger"));
-        put(LogLevel.WARNING.name(), new LogTemplate(LogColor.YELLOW_BRIGHT, "", "WRN", true, false, 0, false, false, true, false, "LOG", "JavaLogger"));
-        put(LogLevel.ERROR.name(), new LogTemplate(LogColor.RED_BRIGHT, "", "ERR", true, false, 0, false, false, true, false, "LOG", "JavaLogger"));
-        put(LogLevel.SPECIAL.name(), new LogTemplate(LogColor.GREEN, "", "SPE", false, false, 0, false, false, false, false, "LOG", "JavaLogger"));
-        put(LogLevel.RESPONSE.name(), new LogTemplate(LogColor.BLUE, "", "RES", false, false, 0, false, false, false, false, "LOG", "JavaLogger"));
-        put(LogLevel.QUESTION.name(), new LogTemplate(LogColor.CYAN_BRIGHT, "", "QUE", false, false, 0, false, false, false, false, "LOG", "JavaLogger"));
-        put(LogLevel.CLEAN_INFO.name(), new LogTemplate(LogColor.WHITE_BRIGHT, "", "INF", true, false, 0, true, true, false, false, "LOG", "JavaLogger"));
-        put(LogLevel.CLEAN_SPECIAL.name(), new LogTemplate(LogColor.GREEN, "", "SPE", false, false, 0, false, true, false, false, "LOG", "JavaLogger"));
-        put(LogLevel.CLEAN_RESPONSE.name(), new LogTemplate(LogColor.BLUE, "", "RES", false, false, 0, false, true, false, false, "LOG", "JavaLogger"));
-        put(LogLevel.CLEAN_QUESTION.name(), new LogTemplate(LogColor.CYAN_BRIGHT, "", "QUE", false, false, 0, false, true, false, false, "LOG", "JavaLogger"));
-    }};
+    static final String CONSOLE_APPENDER = "console";
+    static final String FILE_APPENDER = "file";
+    static final String MIXPANEL_APPENDER = "mixpanel";
+
+    private final Object fileLock = new Object();
+    private volatile File logFolder;
+    private volatile File currentLogFile;
+    private volatile LogFileWriter fileWriter;
+    private volatile int fileBufferSize = 8192;
+    private volatile FlushPolicy flushPolicy = FlushPolicy.EVERY_ENTRY;
+    private volatile FileWriteMode fileWriteMode = FileWriteMode.BUFFERED;
+    private volatile FileFormat fileFormat = FileFormat.TEXT;
+    private volatile int mappedRegionSize = 4 * 1024 * 1024;
+    private volatile DurabilityPolicy durabilityPolicy = DurabilityPolicy.NONE;
+    private ScheduledExecutorService syncScheduler;
+    private final LongAdder closedFileForces = new LongAdder();
+    private volatile int mappedSyncEntries = 0;
+    private volatile long mappedSyncMillis = 0;
+    private volatile long maxFileSize = 0;
+    private volatile RollInterval rollInterval = RollInterval.NEVER;
+    private volatile long nextRollTime = Long.MAX_VALUE;
+    private volatile boolean rollOnRestart = true;
+    private volatile boolean compressRolledFiles = false;
+    private String lastLogFileDate;
+    private int logFileIndex;
+    private volatile long maxTotalLogBytes = 0;
+    private volatile int maxLogFiles = 0;
+    private final LogArchiver archiver = new LogArchiver();
+    private final StackTraceCache stackTraces = new StackTraceCache();
+    private volatile int fileGeneration;
+    private final ConsoleSink console = new ConsoleSink();
+    private volatile LogSink[] sinks = {console, new FileSink(), new MixpanelSink()};
+    private boolean async;
+    private int asyncCapacity = 8192;
+    private WaitStrategy asyncWaitStrategy = WaitStrategy.PARK;
+    private volatile OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+    private volatile int overflowSeverity = 2;
+    private volatile boolean isDebug;
+    private volatile boolean isVerbose;
+    private volatile int verboseLevel = 0;
+    private volatile boolean smallLog;
+    private volatile boolean consoleExceptions;
+    private volatile boolean projectName;
+    private volatile boolean garbageFree;
+    private volatile boolean collapseRepeats;
+    private volatile boolean shuttingDown;
+    private final Map<Integer, RepeatedEntry> lastEntries = new ConcurrentHashMap<>();
+    private ScheduledExecutorService repeatScheduler;
+
+    static final TemplateRegistry templates = new TemplateRegistry();
+
+    static
+    {
+        templates.put(LogLevel.VERBOSE.name(), new LogTemplate(LogColor.WHITE, "", "VER", false, true, 0, false, false, false, false, "LOG", "JavaLogger", 0));
+        templates.put(LogLevel.VVERBOSE.name(), new LogTemplate(LogColor.WHITE, "", "VER", false, true, 1, false, false, false, false, "LOG", "JavaLogger", 0));
+        templates.put(LogLevel.VVVERBOSE.name(), new LogTemplate(LogColor.WHITE, "", "VER", false, true, 2, false, false, false, false, "LOG", "JavaLogger", 0));
+        templates.put(LogLevel.INFO.name(), new LogTemplate(LogColor.WHITE_BRIGHT, "", "INF", true, false, 0, true, false, false, false, "LOG", "JavaLogger", 1));
+        templates.put(LogLevel.WARNING.name(), new LogTemplate(LogColor.YELLOW_BRIGHT, "", "WRN", true, false, 0, false, false, true, false, "LOG", "JavaLogger", 2));
+        templates.put(LogLevel.ERROR.name(), new LogTemplate(LogColor.RED_BRIGHT, "", "ERR", true, false, 0, false, false, true, false, "LOG", "JavaLogger", 3));
+        templates.put(LogLevel.SPECIAL.name(), new LogTemplate(LogColor.GREEN, "", "SPE", false, false, 0, false, false, false, false, "LOG", "JavaLogger", 1));
+        templates.put(LogLevel.RESPONSE.name(), new LogTemplate(LogColor.BLUE, "", "RES", false, false, 0, false, false, false, false, "LOG", "JavaLogger", 1));
+        templates.put(LogLevel.QUESTION.name(), new LogTemplate(LogColor.CYAN_BRIGHT, "", "QUE", false, false, 0, false, false, false, false, "LOG", "JavaLogger", 1));
+        templates.put(LogLevel.CLEAN_INFO.name(), new LogTemplate(LogColor.WHITE_BRIGHT, "", "INF", true, false, 0, true, true, false, false, "LOG", "JavaLogger", 1));
+        templates.put(LogLevel.CLEAN_SPECIAL.name(), new LogTemplate(LogColor.GREEN, "", "SPE", false, false, 0, false, true, false, false, "LOG", "JavaLogger", 1));
+        templates.put(LogLevel.CLEAN_RESPONSE.name(), new LogTemplate(LogColor.BLUE, "", "RES", false, false, 0, false, true, false, false, "LOG", "JavaLogger", 1));
+        templates.put(LogLevel.CLEAN_QUESTION.name(), new LogTemplate(LogColor.CYAN_BRIGHT, "", "QUE", false, false, 0, false, true, false, false, "LOG", "JavaLogger", 1));
+    }
 
     private Logger()
     {
         logFolder = new File(System.getenv("PROGRAMDATA") + File.separator + "JavaLogger");
-        currentLogFile = new File(logFolder.getPath() + File.separator + getLogFileDate() + ".log");
+        currentLogFile = nextLogFile(false);
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() ->
+        {
+            shuttingDown = true;
+            reportAllRepeats();
+            setAsync(false);
+            closeAppenders();
+            MixpanelHandler.shutdown(5000);
+            closeLogFile();
+            archiver.shutdown(5000);
+        }));
     }
     /**
      * Get the {@link Logger}-singleton and create it if it does not exist yet.
@@ -56,24 +118,526 @@ public class Logger
      */
     public static Logger getInstance()
     {
-        if(instance == null)
-            instance = new Logger();
-
-        return instance;
+        return InstanceHolder.INSTANCE;
     }
     /**
      * Change the folder where log-files should be stored.
      * If a log-file already exists in the current log-folder,
      * it will be ignored for any future logging
      * and the new log-folder location will be used instead.
+     * The previous log-file is handed to the background-thread for compression and retention.
      *
      * @param logFolder The path where future log-files should be stored
      *                  (Default is "PROGRAMDATA/JavaLogger").
      */
     public void setLogFolder(File logFolder)
     {
-        this.logFolder = logFolder;
-        currentLogFile = new File(logFolder.getPath() + File.separator + getLogFileDate() + ".log");
+        synchronized(fileLock)
+        {
+            File closedFile = closeLogFile();
+            this.logFolder = logFolder;
+            lastLogFileDate = null;
+            currentLogFile = nextLogFile(!rollOnRestart);
+            archiveClosedFile(closedFile);
+        }
+    }
+    /**
+     * Change the maximum size of a single log-file.
+     * When a log-file reaches this size, a new log-file is started
+     * and the old one is handed to the background-thread, which closes it and applies compression and retention.
+     *
+     * @param bytes The maximum size of a log-file in bytes, or 0 for no limit
+     *              (Default is 0).
+     */
+    public void setMaxFileSize(long bytes)
+    {
+        maxFileSize = Math.max(0, bytes);
+    }
+    /**
+     * Change how often a new log-file is started, independent of its size.
+     *
+     * @param interval The {@link RollInterval} that should be used
+     *                 (Default is NEVER).
+     */
+    public void setRollInterval(RollInterval interval)
+    {
+        synchronized(fileLock)
+        {
+            rollInterval = interval;
+            nextRollTime = getNextRollTime(LogTimestamp.now());
+        }
+    }
+    /**
+     * Change if a new log-file is started when the log-folder is set.
+     * If this is deactivated, the newest existing log-file in the log-folder will be continued instead.
+     * This only takes effect the next time {@link #setLogFolder(File)} is called,
+     * because the {@link Logger} already chose its first log-file when it was created.
+     * To continue an existing log-file, call this method first and {@link #setLogFolder(File)} afterwards.
+     *
+     * @param startNewFile Weather or not a new log-file should be started for every program-start
+     *                     (Default is true).
+     */
+    public void setRollOnRestart(boolean startNewFile)
+    {
+        rollOnRestart = startNewFile;
+    }
+    /**
+     * Change if log-files should be compressed with gzip after a new log-file was started,
+     * either because of a rollover or because the log-folder or the {@link FileFormat} changed.
+     * The compression is done by a background-thread and does not block logging.
+     *
+     * @param compress Weather or not old log-files should be compressed
+     *                 (Default is false).
+     */
+    public void setCompressRolledFiles(boolean compress)
+    {
+        compressRolledFiles = compress;
+    }
+    /**
+     * Limit the log-files that are kept in the log-folder.
+     * Whenever a new log-file is started, the oldest log-files are deleted until both limits are met.
+     * The current log-file is never deleted.
+     *
+     * @param maxTotalBytes The maximum size of all log-files together, or 0 for no limit
+     *                      (Default is 0).
+     * @param maxFiles      The maximum number of log-files, or 0 for no limit
+     *                      (Default is 0).
+     */
+    public void setRetention(long maxTotalBytes, int maxFiles)
+    {
+        maxTotalLogBytes = Math.max(0, maxTotalBytes);
+        maxLogFiles = Math.max(0, maxFiles);
+    }
+    /**
+     * Change the size of the buffer that collects {@link LogEntry}s before they are written to the log-file.
+     * The log-file will be flushed and re-opened with the new buffer size.
+     *
+     * @param bytes The size of the buffer in bytes
+     *              (Min 512, Default is 8192).
+     * @return True if the new size was set, False if the size was too small.
+     */
+    public boolean setFileBufferSize(int bytes)
+    {
+        if(bytes < 512)
+            return false;
+
+        synchronized(fileLock)
+        {
+            closeLogFile();
+            fileBufferSize = bytes;
+        }
+        return true;
+    }
+    /**
+     * Change when buffered {@link LogEntry}s are written to the log-file.
+     * The log-file will be flushed and re-opened with the new policy.
+     *
+     * @param policy The {@link FlushPolicy} that should be used
+     *               (Default is EVERY_ENTRY).
+     */
+    public void setFlushPolicy(FlushPolicy policy)
+    {
+        synchronized(fileLock)
+        {
+            closeLogFile();
+            flushPolicy = policy;
+        }
+    }
+    /**
+     * Change the asynchronous-mode of the {@link Logger}.
+     * In asynchronous-mode, {@link #log(LogEntry)} only copies the {@link LogEntry} into the queue of each {@link Appender}
+     * that accepts it, and every {@link Appender} has its own thread that writes the {@link LogEntry}s of its queue.
+     * A slow {@link Appender} therefore does not delay the console or the log-file.
+     * If a queue is full, the {@link OverflowPolicy} decides what happens to new {@link LogEntry}s.
+     * Deactivating asynchronous-mode will process all queued {@link LogEntry}s first.
+     *
+     * @param isAsyncMode  Weather or not the {@link Logger} should work in asynchronous-mode
+     *                     (Default is false).
+     * @param capacity     How many {@link LogEntry}s can be queued for each {@link Appender}.
+     *                     This will be rounded up to a power of two (Default is 8192).
+     * @param waitStrategy How threads wait for new {@link LogEntry}s or for free space in the queue
+     *                     (Default is PARK).
+     */
+    public synchronized void setAsync(boolean isAsyncMode, int capacity, WaitStrategy waitStrategy)
+    {
+        async = isAsyncMode;
+        asyncCapacity = capacity;
+        asyncWaitStrategy = waitStrategy;
+
+        for(LogSink sink : sinks)
+        {
+            LogDispatcher old = sink.dispatcher;
+            LogDispatcher next = isAsyncMode ? createDispatcher(sink) : null;
+            if(old != null)
+                old.stop(next);
+
+            sink.dispatcher = next;
+        }
+    }
+    /**
+     * Change the asynchronous-mode of the {@link Logger}.
+     * In asynchronous-mode, {@link #log(LogEntry)} only copies the {@link LogEntry} into a queue
+     * and a separate thread for each {@link Appender} writes it to the console, the log-file, Mixpanel
+     * or the destination of the {@link Appender}.
+     *
+     * @param isAsyncMode Weather or not the {@link Logger} should work in asynchronous-mode
+     *                    (Default is false).
+     */
+    public void setAsync(boolean isAsyncMode)
+    {
+        setAsync(isAsyncMode, 8192, WaitStrategy.PARK);
+    }
+    /**
+     * Change what happens to new {@link LogEntry}s when a queue of the asynchronous-mode is full.
+     * Dropped {@link LogEntry}s are counted per {@link LogTemplate}
+     * and reported in a summary message once per second.
+     *
+     * @param policy      The {@link OverflowPolicy} that should be used
+     *                    (Default is BLOCK).
+     * @param minSeverity The lowest severity that is never dropped with DROP_BELOW_SEVERITY,
+     *                    where 0 is verbose, 1 is info, 2 is warning and 3 is error
+     *                    (Default is 2).
+     */
+    public synchronized void setOverflowPolicy(OverflowPolicy policy, int minSeverity)
+    {
+        overflowPolicy = policy;
+        overflowSeverity = minSeverity;
+        for(LogSink sink : sinks)
+        {
+            LogDispatcher asyncDispatcher = sink.dispatcher;
+            if(asyncDispatcher != null)
+                asyncDispatcher.setOverflowPolicy(policy, minSeverity);
+        }
+    }
+    /**
+     * Change what happens to new {@link LogEntry}s when a queue of the asynchronous-mode is full.
+     *
+     * @param policy The {@link OverflowPolicy} that should be used
+     *               (Default is BLOCK).
+     */
+    public void setOverflowPolicy(OverflowPolicy policy)
+    {
+        setOverflowPolicy(policy, overflowSeverity);
+    }
+    /**
+     * Get the number of {@link LogEntry}s that were dropped by the current asynchronous-mode,
+     * because a queue was full.
+     * A {@link LogEntry} that was dropped by the queues of several {@link Appender}s is counted for each of them.
+     *
+     * @return A map with the name of each {@link LogTemplate} and how many of its {@link LogEntry}s were dropped.
+     * The map is empty if the {@link Logger} is not in asynchronous-mode.
+     */
+    public Map<String, Long> getDroppedEntries()
+    {
+        Map<String, Long> dropped = new TreeMap<>();
+        for(LogSink sink : sinks)
+        {
+            LogDispatcher asyncDispatcher = sink.dispatcher;
+            if(asyncDispatcher != null)
+                asyncDispatcher.getDroppedEntries().forEach((template, count) -> dropped.merge(template, count, Long::sum));
+        }
+        return dropped;
+    }
+    /**
+     * Add an {@link Appender} that receives all visible {@link LogEntry}s,
+     * formatted like the lines of a text log-file.
+     *
+     * @param name     The name of the {@link Appender}, which is needed to change or remove it again.
+     * @param appender The {@link Appender} that should be added.
+     * @return True if the {@link Appender} was added, False if an {@link Appender} with this name already exists.
+     */
+    public boolean addAppender(String name, Appender appender)
+    {
+        return addAppender(name, appender, null, null);
+    }
+    /**
+     * Add an {@link Appender} that receives all visible {@link LogEntry}s which are accepted by the filter.
+     * In asynchronous-mode, the {@link Appender} gets its own queue and thread.
+     *
+     * @param name      The name of the {@link Appender}, which is needed to change or remove it again.
+     * @param appender  The {@link Appender} that should be added.
+     * @param filter    Decides which {@link LogEntry}s are sent to the {@link Appender}, or null to send all of them.
+     *                  The filter is checked on the thread that logs the {@link LogEntry}.
+     * @param formatter Creates the text of each {@link LogEntry}, or null to use the format of the text log-file.
+     * @return True if the {@link Appender} was added, False if an {@link Appender} with this name already exists.
+     */
+    public synchronized boolean addAppender(String name, Appender appender, Predicate<LogEntry> filter, LogFormatter formatter)
+    {
+        if(name == null || appender == null || findSink(name) != null)
+            return false;
+
+        LogSink sink = new AppenderSink(name, appender, filter, formatter);
+        if(async)
+            sink.dispatcher = createDispatcher(sink);
+
+        LogSink[] newSinks = Arrays.copyOf(sinks, sinks.length + 1);
+        newSinks[sinks.length] = sink;
+        sinks = newSinks;
+        return true;
+    }
+    /**
+     * Remove an {@link Appender}.
+     * All {@link LogEntry}s that are still queued for it are written first, and the {@link Appender} is closed.
+     * The built-in appenders "console", "file" and "mixpanel" can also be removed,
+     * but they can not be added again.
+     *
+     * @param name The name of the {@link Appender}.
+     * @return True if the {@link Appender} was removed, False if no {@link Appender} with this name exists.
+     */
+    public synchronized boolean removeAppender(String name)
+    {
+        LogSink sink = findSink(name);
+        if(sink == null)
+            return false;
+
+        List<LogSink> remaining = new ArrayList<>(Arrays.asList(sinks));
+        remaining.remove(sink);
+        sinks = remaining.toArray(new LogSink[0]);
+
+        LogDispatcher old = sink.dispatcher;
+        if(old != null)
+            old.stop(null);
+        sink.dispatcher = null;
+        closeSink(sink);
+        return true;
+    }
+    /**
+     * Change which {@link LogEntry}s are sent to an {@link Appender}.
+     * The built-in appenders only check the filter for {@link LogEntry}s they would process anyway,
+     * so "console" only sees visible {@link LogEntry}s, "file" only the ones that should be saved
+     * and "mixpanel" only the ones that should be sent to Mixpanel.
+     *
+     * @param name   The name of the {@link Appender}.
+     * @param filter Decides which {@link LogEntry}s are sent to the {@link Appender}, or null to send all of them.
+     * @return True if the filter was changed, False if no {@link Appender} with this name exists.
+     */
+    public boolean setAppenderFilter(String name, Predicate<LogEntry> filter)
+    {
+        LogSink sink = findSink(name);
+        if(sink == null)
+            return false;
+
+        sink.filter = filter;
+        return true;
+    }
+    /**
+     * Change how {@link LogEntry}s are displayed by an {@link Appender}.
+     * For the built-in appenders, the {@link LogFormatter} replaces the prefix and message
+     * of the console, the text log-file and the "message" property of Mixpanel-events.
+     * Binary and JSON log-files are not affected.
+     *
+     * @param name      The name of the {@link Appender}.
+     * @param formatter Creates the text of each {@link LogEntry}, or null to use the default format.
+     * @return True if the {@link LogFormatter} was changed, False if no {@link Appender} with this name exists.
+     */
+    public boolean setAppenderFormatter(String name, LogFormatter formatter)
+    {
+        LogSink sink = findSink(name);
+        if(sink == null)
+            return false;
+
+        sink.formatter = formatter;
+        return true;
+    }
+    /**
+     * Get the names of all {@link Appender}s, including the built-in appenders.
+     *
+     * @return A list with the names of the {@link Appender}s in the order in which they receive {@link LogEntry}s.
+     */
+    public List<String> getAppenderNames()
+    {
+        List<String> names = new ArrayList<>();
+        for(LogSink sink : sinks)
+            names.add(sink.name);
+
+        return names;
+    }
+    /**
+     * Get the current state of an {@link Appender}.
+     * The map contains the number of "queuedEntries" that wait in its asynchronous queue,
+     * the number of "appendedEntries" and "failedEntries",
+     * how many "droppedEntries" were removed because its queue was full,
+     * and the "averageLatencyNanos" and "maxLatencyNanos" it took to write a single {@link LogEntry}.
+     * For "file" the map also contains how often the log-file was "forcedWrites" to the disk by the {@link DurabilityPolicy}.
+     * For "mixpanel" this is the time to add an event to the upload-queue,
+     * the uploads are measured by {@link MixpanelHandler#getUploadMetrics()}.
+     *
+     * @param name The name of the {@link Appender}.
+     * @return A map with the name and the value of each metric,
+     * which is empty if no {@link Appender} with this name exists.
+     */
+    public Map<String, Long> getAppenderMetrics(String name)
+    {
+        LogSink sink = findSink(name);
+        return sink == null ? new HashMap<>() : sink.getMetrics();
+    }
+    /**
+     * Change how {@link LogEntry}s are written into the log-file.
+     * The current log-file will be closed and re-opened with the new mode.
+     *
+     * @param mode The {@link FileWriteMode} that should be used
+     *             (Default is BUFFERED).
+     */
+    public void setFileWriteMode(FileWriteMode mode)
+    {
+        synchronized(fileLock)
+        {
+            closeLogFile();
+            fileWriteMode = mode;
+        }
+    }
+    /**
+     * Change the format in which {@link LogEntry}s are written into the log-file.
+     * The current log-file will be closed and a new log-file with the file-extension of the new format is started.
+     * The previous log-file is handed to the background-thread for compression and retention.
+     * Binary log-files can be converted into the text format with the {@link BinaryLogDecoder}.
+     *
+     * @param format The {@link FileFormat} that should be used
+     *               (Default is TEXT).
+     */
+    public void setFileFormat(FileFormat format)
+    {
+        synchronized(fileLock)
+        {
+            if(fileFormat == format)
+                return;
+
+            File closedFile = closeLogFile();
+            fileFormat = format;
+            lastLogFileDate = null;
+            currentLogFile = nextLogFile(false);
+            archiveClosedFile(closedFile);
+        }
+    }
+    /**
+     * Change the size of the regions that are mapped into memory at once
+     * if the {@link FileWriteMode} is MEMORY_MAPPED.
+     *
+     * @param bytes The size of each mapped region in bytes
+     *              (Min 65536, Default is 4194304).
+     * @return True if the new size was set, False if the size was too small.
+     */
+    public boolean setMappedRegionSize(int bytes)
+    {
+        if(bytes < 65536)
+            return false;
+
+        synchronized(fileLock)
+        {
+            closeLogFile();
+            mappedRegionSize = bytes;
+        }
+        return true;
+    }
+    /**
+     * Change how often memory-mapped log-files are forced to the disk
+     * if the {@link FileWriteMode} is MEMORY_MAPPED.
+     * If both values are 0, writing to the disk is left to the operating system,
+     * which is the fastest option, but {@link LogEntry}s can be lost if the whole system crashes.
+     *
+     * @param everyEntries After how many {@link LogEntry}s the log-file is forced to the disk, or 0 to ignore the count
+     *                     (Default is 0).
+     * @param everyMillis  After how many milliseconds the log-file is forced to the disk with the next {@link LogEntry}, or 0 to ignore the time
+     *                     (Default is 0).
+     */
+    public void setMappedSync(int everyEntries, long everyMillis)
+    {
+        synchronized(fileLock)
+        {
+            closeLogFile();
+            mappedSyncEntries = Math.max(0, everyEntries);
+            mappedSyncMillis = Math.max(0, everyMillis);
+        }
+    }
+    /**
+     * Change when the log-file is forced from the cache of the operating system to the disk.
+     * Threads that need a force at the same time share a single one.
+     *
+     * @param policy         The {@link DurabilityPolicy} that should be used
+     *                       (Default is NONE).
+     * @param intervalMillis The time in millis between two forces if the policy is INTERVAL
+     *                       (Min 1, Default is 1000).
+     */
+    public synchronized void setDurabilityPolicy(DurabilityPolicy policy, long intervalMillis)
+    {
+        durabilityPolicy = policy;
+        LogFileWriter writer = fileWriter;
+        if(writer != null)
+            writer.setDurable(policy != DurabilityPolicy.NONE);
+
+        if(syncScheduler != null)
+        {
+            syncScheduler.shutdown();
+            syncScheduler = null;
+        }
+        if(policy == DurabilityPolicy.INTERVAL)
+        {
+            syncScheduler = Executors.newSingleThreadScheduledExecutor(runnable ->
+            {
+                Thread thread = new Thread(runnable, "JavaLogger-Sync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long delay = Math.max(1, intervalMillis);
+            syncScheduler.scheduleWithFixedDelay(this::syncLogFile, delay, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+    /**
+     * Change when the log-file is forced from the cache of the operating system to the disk.
+     *
+     * @param policy The {@link DurabilityPolicy} that should be used
+     *               (Default is NONE).
+     */
+    public void setDurabilityPolicy(DurabilityPolicy policy)
+    {
+        setDurabilityPolicy(policy, 1000);
+    }
+    /**
+     * Write all buffered {@link LogEntry}s to the log-file and flush all {@link Appender}s.
+     * For the log-file, this is only required if the {@link FlushPolicy} is not EVERY_ENTRY.
+     * Log-files that were rolled over are closed by a background-thread, this method waits until they are closed.
+     * If repeated {@link LogEntry}s are collapsed, the number of pending repetitions is logged first.
+     */
+    public void flush()
+    {
+        reportAllRepeats();
+        for(LogSink sink : sinks)
+        {
+            try
+            {
+                sink.flush();
+            } catch(IOException e)
+            {
+                logAppenderError(sink, e);
+            }
+        }
+        archiver.awaitClosedFiles();
+    }
+    void flushLogFile()
+    {
+        LogFileWriter writer = fileWriter;
+        if(writer == null)
+            return;
+
+        try
+        {
+            writer.flush();
+        } catch(IOException e)
+        {
+            logFileError(e);
+        }
+    }
+    long getFileForces()
+    {
+        LogFileWriter writer = fileWriter;
+        return closedFileForces.sum() + (writer == null ? 0 : writer.getForces());
+    }
+    void endBatch()
+    {
+        if(durabilityPolicy == DurabilityPolicy.PER_BATCH)
+            syncLogFile();
+        else
+            flushLogFile();
     }
     /**
      * Change the current debug-mode.
@@ -110,6 +674,36 @@ public class Logger
     {
         verboseLevel = level;
     }
+    /**
+     * Change the garbage-free-mode of the {@link Logger}.
+     * In garbage-free-mode, the methods of {@link LOG} re-use one {@link LogEntry} per thread
+     * instead of creating a new one for each message.
+     * Together with messages that have no or only primitive arguments,
+     * logging to the console and the log-file will not create any new objects.
+     *
+     * @param isGarbageFreeMode Weather or not the {@link Logger} should work in garbage-free-mode
+     *                          (Default is false).
+     */
+    public void setGarbageFree(boolean isGarbageFreeMode)
+    {
+        garbageFree = isGarbageFreeMode;
+    }
+    boolean isGarbageFree()
+    {
+        return garbageFree;
+    }
+    /**
+     * Change the clock that is used for the timestamps of new {@link LogEntry}s.
+     * The coarse clock is updated by a background thread about once every millisecond,
+     * which makes it cheaper to read than the system clock when many {@link LogEntry}s are created.
+     *
+     * @param useCoarseClock Weather or not the {@link Logger} should use the coarse clock
+     *                       (Default is false).
+     */
+    public void setCoarseClock(boolean useCoarseClock)
+    {
+        LogTimestamp.setCoarseClock(useCoarseClock);
+    }
     /**
      * Change the way {@link LogEntry}s are displayed.
      * Using small-logs will remove all prefixes from logging.
@@ -136,6 +730,32 @@ public class Logger
     {
         consoleExceptions = showExceptionsInConsole;
     }
+    /**
+     * Change when the console output contains color codes.
+     * With AUTO, the color codes are left out if the output is redirected into a file or another program.
+     *
+     * @param mode The {@link ConsoleColorMode} that should be used
+     *             (Default is AUTO).
+     */
+    public void setConsoleColorMode(ConsoleColorMode mode)
+    {
+        console.setColorMode(mode);
+    }
+    /**
+     * Change how long {@link LogEntry}s may be collected in the buffer of the console
+     * before they are written to the default output.
+     * In asynchronous-mode, the buffer is also written after every batch of {@link LogEntry}s.
+     * A delay reduces the cost of each console line, but the lines can appear later
+     * than output that is printed with {@link System#out} directly.
+     *
+     * @param millis The maximum time in millis a line stays in the buffer,
+     *               or 0 to write every line immediately when the {@link Logger} is not in asynchronous-mode
+     *               (Min 0, Default is 0).
+     */
+    public void setConsoleFlushDelay(long millis)
+    {
+        console.setFlushDelay(Math.max(0, millis));
+    }
     /**
      * Deactivating this variable will remove all project names from showing up in logging.
      *
@@ -146,6 +766,129 @@ public class Logger
     {
         projectName = showProjectName;
     }
+    boolean isConsoleExceptions()
+    {
+        return consoleExceptions;
+    }
+    StackTraceCache getStackTraces()
+    {
+        return stackTraces;
+    }
+    /**
+     * Change how often the stack-trace of an exception is written into the log-file.
+     * Stack-traces are recognized by the classes and frames of the exception, its causes and suppressed exceptions.
+     * If this is activated, a stack-trace is only written completely the first time it appears in a log-file,
+     * and later occurrences are written as "[trace #id seen N times]" after the exception.
+     *
+     * @param shortenRepeatedTraces Weather or not repeated stack-traces should be shortened
+     *                              (Default is true).
+     */
+    public void setStackTraceDeduplication(boolean shortenRepeatedTraces)
+    {
+        stackTraces.setDeduplicate(shortenRepeatedTraces);
+    }
+    /**
+     * Get statistics about the stack-traces that were written into log-files.
+     * The map contains the number of "cachedTraces" that are currently remembered,
+     * how many "renderedTraces" had to be created,
+     * and how many "fullTraces" and "referencedTraces" were written.
+     *
+     * @return A map with the name and the value of each metric.
+     */
+    public Map<String, Long> getStackTraceMetrics()
+    {
+        return stackTraces.getMetrics();
+    }
+    /**
+     * Get how often each remembered stack-trace was seen.
+     *
+     * @return A map with the id, the exception-class and the first frame of each stack-trace,
+     * and how many {@link LogEntry}s contained it.
+     */
+    public Map<String, Long> getStackTraceCounts()
+    {
+        return stackTraces.getCounts();
+    }
+    /**
+     * Change if identical consecutive {@link LogEntry}s should be collapsed.
+     * If this is activated, a {@link LogEntry} that has the same {@link LogTemplate}, message, arguments, error-code
+     * and exception-class as the {@link LogEntry} before it with the same {@link LogTemplate} is not processed,
+     * so {@link LogEntry}s of other {@link LogTemplate}s in between do not interrupt the repetitions.
+     * A single "Last message repeated N times" {@link LogEntry} with the same {@link LogTemplate}
+     * is logged once a different {@link LogEntry} of the {@link LogTemplate} arrives, {@link #flush()} is called,
+     * or reportMillis passed, so a storm of repetitions is reported even if nothing else is logged afterwards.
+     * Only {@link LogEntry}s that were created with a {@link LogTemplate} can be collapsed.
+     *
+     * @param collapseIdenticalEntries Weather or not identical consecutive {@link LogEntry}s should be collapsed
+     *                                 (Default is false).
+     * @param reportMillis             The time in millis after which pending repetitions are logged
+     *                                 (Min 1, Default is 1000).
+     */
+    public synchronized void setCollapseRepeats(boolean collapseIdenticalEntries, long reportMillis)
+    {
+        collapseRepeats = collapseIdenticalEntries;
+        if(repeatScheduler != null)
+        {
+            repeatScheduler.shutdown();
+            repeatScheduler = null;
+        }
+        if(!collapseIdenticalEntries)
+        {
+            reportAllRepeats();
+            return;
+        }
+
+        repeatScheduler = Executors.newSingleThreadScheduledExecutor(runnable ->
+        {
+            Thread thread = new Thread(runnable, "JavaLogger-Repeats");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long delay = Math.max(1, reportMillis);
+        repeatScheduler.scheduleWithFixedDelay(this::reportPendingRepeats, delay, delay, TimeUnit.MILLISECONDS);
+    }
+    /**
+     * Change if identical consecutive {@link LogEntry}s should be collapsed.
+     * Pending repetitions are logged at least once per second.
+     *
+     * @param collapseIdenticalEntries Weather or not identical consecutive {@link LogEntry}s should be collapsed
+     *                                 (Default is false).
+     */
+    public void setCollapseRepeats(boolean collapseIdenticalEntries)
+    {
+        setCollapseRepeats(collapseIdenticalEntries, 1000);
+    }
+    /**
+     * Get the number of {@link LogEntry}s that were suppressed by the rate limits of the {@link LogTemplate}s.
+     *
+     * @return A map with the name of each {@link LogTemplate} that has a rate limit
+     * and how many of its {@link LogEntry}s were suppressed since the rate limit was set.
+     */
+    public Map<String, Long> getRateLimitedEntries()
+    {
+        return templates.getRateLimitedEntries();
+    }
+    /**
+     * Get the number of {@link LogEntry}s that were dropped by the sampling of the {@link LogTemplate}s.
+     *
+     * @return A map with the name of each {@link LogTemplate} that is sampled
+     * and how many of its {@link LogEntry}s were dropped since the sampling was set.
+     */
+    public Map<String, Long> getSampledEntries()
+    {
+        return templates.getSampledEntries();
+    }
+    double getQueueFill()
+    {
+        double fill = 0;
+        for(LogSink sink : sinks)
+        {
+            LogDispatcher asyncDispatcher = sink.dispatcher;
+            if(asyncDispatcher != null)
+                fill = Math.max(fill, asyncDispatcher.fill());
+        }
+        return fill;
+    }
 
     /**
      * Print the {@link LogEntry} provided with the settings that are stored in the {@link LogEntry}.
@@ -156,27 +899,170 @@ public class Logger
      */
     public static void log(LogEntry log)
     {
-        String logOutput = createLogString(log);
-        boolean debugOK = !log.onlyDebug || getInstance().isDebug;
-        boolean verboseOK = !log.onlyVerbose || getInstance().isVerbose;
-        boolean verboseLevelOK = log.verboseLevel <= getInstance().verboseLevel;
+        try
+        {
+            Logger logger = getInstance();
+            boolean visible = logger.isVisible(log.onlyDebug, log.onlyVerbose, log.verboseLevel);
+            if(!visible && !log.fileEntry && !log.mixpanel)
+                return;
+
+            LogEntry target = log;
+            AdaptiveSampler sampler = templates.getSampler(log.templateId);
+            if(sampler != null && log.severity < sampler.minSeverity)
+            {
+                double rate = sampler.sample(System.nanoTime());
+                if(rate == 0)
+                    return;
+                if(rate < 1)
+                    target = log.withSampleRate(rate);
+            }
+            RateLimit limit = templates.getRateLimit(target.templateId);
+            if(limit != null)
+            {
+                long suppressed = limit.acquire(target, System.nanoTime());
+                if(suppressed < 0)
+                    return;
+                if(suppressed > 0)
+                    reportRateLimit(target, limit, suppressed);
+            }
+            if(logger.collapseRepeats && logger.collapse(target))
+                return;
+
+            logger.dispatch(target, visible);
+        } finally
+        {
+            log.recycle();
+        }
+    }
+    private void dispatch(LogEntry log, boolean visible)
+    {
+        LogSink[] targets = sinks;
+        if(targets.length > 1)
+            log.resolveSupplier();
 
-        if(debugOK && verboseOK && verboseLevelOK)
+        for(LogSink sink : targets)
         {
-            System.out.println(log.color + log.background + logOutput + LogColor.RESET);
+            if(!sink.accepts(log, visible))
+                continue;
 
-            if(log.exception != null)
+            LogDispatcher asyncDispatcher = sink.dispatcher;
+            if(asyncDispatcher != null && !asyncDispatcher.isWorkerThread())
+                asyncDispatcher.publish(log);
+            else
             {
-                if(getInstance().consoleExceptions || log.consoleException)
-                    log.exception.printStackTrace();
+                sink.process(log);
+                if(shuttingDown)
+                    sink.finishBatch();
             }
         }
+    }
+    private boolean collapse(LogEntry log)
+    {
+        if(log.templateId < 0)
+            return false;
 
-        if(log.fileEntry)
-            getInstance().addEntryToLogFile(log, logOutput);
+        Integer key = log.templateId;
+        RepeatedEntry previous = lastEntries.get(key);
+        if(previous != null && previous.matches(log) && previous.repeat())
+            return true;
+
+        RepeatedEntry next = RepeatedEntry.of(log);
+        reportRepeats(next == null ? lastEntries.remove(key) : lastEntries.put(key, next));
+        return false;
+    }
+    private void reportAllRepeats()
+    {
+        for(Integer key : lastEntries.keySet())
+            reportRepeats(lastEntries.remove(key));
+    }
+    private void reportPendingRepeats()
+    {
+        for(RepeatedEntry entry : lastEntries.values())
+            reportRepeats(entry, entry.drain());
+    }
+    private void reportRepeats(RepeatedEntry previous)
+    {
+        if(previous != null)
+            reportRepeats(previous, previous.close());
+    }
+    private void reportRepeats(RepeatedEntry previous, long count)
+    {
+        if(count == 0)
+            return;
 
-        if(log.mixpanel)
-            sendMixpanelMessage(log);
+        LogEntry note = previous.createNote(count);
+        boolean visible = isVisible(note.onlyDebug, note.onlyVerbose, note.verboseLevel);
+        if(visible || note.fileEntry || note.mixpanel)
+            dispatch(note, visible);
+    }
+    private static void reportRateLimit(LogEntry log, RateLimit limit, long suppressed)
+    {
+        String key = limit.perErrorCode ? " with the error-code " + log.errorCode : "";
+        LogEntry l = new LogEntry("Suppressed " + suppressed + " LogEntries of the template '" + log.templateName + "'" + key + " because of its rate limit")
+                .COLOR(LogColor.YELLOW_BRIGHT)
+                .LEVEL("WRN")
+                .CODE(612)
+                .SEVERITY(2)
+                .PROJECTNAME("JavaLogger");
+        log(l);
+    }
+    void addEntryToFile(LogEntry log, LogBuffers buffers, LogFormatter formatter)
+    {
+        StringBuilder text = buffers.text;
+        switch(fileFormat)
+        {
+            case BINARY:
+                MessageFormatter.formatTo(text, log);
+                addEntryToBinaryFile(log, buffers, 0);
+                break;
+            case JSON:
+                MessageFormatter.formatTo(text, log);
+                addEntryToJsonFile(log, buffers, 0);
+                break;
+            default:
+                format(log, text, formatter);
+                addEntryToLogFile(log, buffers, 0);
+        }
+    }
+    static void format(LogEntry log, StringBuilder text, LogFormatter formatter)
+    {
+        if(formatter == null)
+            appendLogString(log, text);
+        else
+            formatter.format(log, text);
+    }
+    /**
+     * Check if {@link LogEntry}s with the provided {@link LogTemplate} would be processed
+     * with the current settings of the {@link Logger}.
+     * This can be used to skip building expensive messages that would be ignored anyway.
+     *
+     * @param templateName The name of the {@link LogTemplate}.
+     * @return True if {@link LogEntry}s of this {@link LogTemplate} are printed, written to a file or sent to Mixpanel,
+     * False if they are ignored or the {@link LogTemplate} does not exist.
+     */
+    public static boolean isEnabled(String templateName)
+    {
+        return isEnabled(templates.get(templateName));
+    }
+    /**
+     * Check if {@link LogEntry}s with the provided {@link LogTemplate} would be processed
+     * with the current settings of the {@link Logger}.
+     * This can be used to skip building expensive messages that would be ignored anyway.
+     *
+     * @param templateName The enum that is used as name for the {@link LogTemplate}.
+     * @return True if {@link LogEntry}s of this {@link LogTemplate} are printed, written to a file or sent to Mixpanel,
+     * False if they are ignored or the {@link LogTemplate} does not exist.
+     */
+    public static boolean isEnabled(Enum<?> templateName)
+    {
+        return isEnabled(templates.get(templateName));
+    }
+    private static boolean isEnabled(LogTemplate t)
+    {
+        if(t == null)
+            return false;
+
+        return t.fileEntry || t.mixpanelMessage || getInstance().isVisible(t.onlyDebug, t.onlyVerbose, t.verboseLevel);
     }
     /**
      * Create a {@link LogEntry} with the specified text and {@link LogTemplate}.
@@ -215,7 +1101,20 @@ public class Logger
      */
     public static boolean log(String text, Enum<?> templateName, Exception e, int errorCode)
     {
-        return log(text, templateName.name(), e, errorCode);
+        LogEntry log;
+        try
+        {
+            log = new LogEntry(text, templateName);
+        } catch(IllegalArgumentException ignored)
+        {
+            return false;
+        }
+
+        log.EXCEPTION(e);
+        log.CODE(errorCode);
+
+        log(log);
+        return true;
     }
     /**
      * Create a {@link LogEntry} with the specified text and {@link LogTemplate}.
@@ -240,9 +1139,150 @@ public class Logger
         return log(text, template, null, 0);
     }
 
+    /**
+     * Change the severity of an existing {@link LogTemplate}.
+     * The severity decides which {@link LogEntry}s are dropped first
+     * if the asynchronous {@link Logger} can not keep up.
+     *
+     * @param templateName The name of the {@link LogTemplate}.
+     * @param severity     The new severity, where 0 is verbose, 1 is info, 2 is warning and 3 is error
+     *                     (Default is 1 for new {@link LogTemplate}s).
+     * @return True if the severity was changed, False if the {@link LogTemplate} does not exist.
+     */
+    public static boolean setTemplateSeverity(String templateName, int severity)
+    {
+        return templates.setSeverity(templateName, severity);
+    }
+    /**
+     * Change the severity of an existing {@link LogTemplate}.
+     *
+     * @param templateName The enum that is used as name for the {@link LogTemplate}.
+     * @param severity     The new severity, where 0 is verbose, 1 is info, 2 is warning and 3 is error
+     *                     (Default is 1 for new {@link LogTemplate}s).
+     * @return True if the severity was changed, False if the {@link LogTemplate} does not exist.
+     */
+    public static boolean setTemplateSeverity(Enum<?> templateName, int severity)
+    {
+        return setTemplateSeverity(templateName.name(), severity);
+    }
+    /**
+     * Limit how many {@link LogEntry}s of an existing {@link LogTemplate} are processed per second.
+     * The limit works like a token-bucket that holds up to burst tokens and is refilled with entriesPerSecond tokens per second.
+     * {@link LogEntry}s that arrive while the bucket is empty are suppressed before they are formatted,
+     * and a warning with the number of suppressed {@link LogEntry}s is logged at most once per second
+     * when {@link LogEntry}s of the {@link LogTemplate} are processed again.
+     *
+     * @param templateName     The name of the {@link LogTemplate}.
+     * @param entriesPerSecond How many {@link LogEntry}s may be processed per second on average,
+     *                         or 0 to remove the rate limit (Default is 0).
+     * @param burst            How many {@link LogEntry}s may be processed at once (Min 1).
+     * @param perErrorCode     Weather or not each error-code should get its own limit,
+     *                         instead of sharing one limit for the whole {@link LogTemplate}.
+     * @return True if the rate limit was changed, False if the {@link LogTemplate} does not exist or burst is too small.
+     */
+    public static boolean setTemplateRateLimit(String templateName, double entriesPerSecond, int burst, boolean perErrorCode)
+    {
+        if(entriesPerSecond <= 0)
+            return templates.setRateLimit(templateName, null);
+        if(burst < 1)
+            return false;
+
+        return templates.setRateLimit(templateName, new RateLimit(entriesPerSecond, burst, perErrorCode));
+    }
+    /**
+     * Limit how many {@link LogEntry}s of an existing {@link LogTemplate} are processed per second.
+     *
+     * @param templateName     The enum that is used as name for the {@link LogTemplate}.
+     * @param entriesPerSecond How many {@link LogEntry}s may be processed per second on average,
+     *                         or 0 to remove the rate limit (Default is 0).
+     * @param burst            How many {@link LogEntry}s may be processed at once (Min 1).
+     * @param perErrorCode     Weather or not each error-code should get its own limit,
+     *                         instead of sharing one limit for the whole {@link LogTemplate}.
+     * @return True if the rate limit was changed, False if the {@link LogTemplate} does not exist or burst is too small.
+     */
+    public static boolean setTemplateRateLimit(Enum<?> templateName, double entriesPerSecond, int burst, boolean perErrorCode)
+    {
+        return setTemplateRateLimit(templateName.name(), entriesPerSecond, burst, perErrorCode);
+    }
+    /**
+     * Sample the {@link LogEntry}s of an existing {@link LogTemplate} when they arrive faster than expected,
+     * which is mainly useful for the VERBOSE {@link LogTemplate}s in production.
+     * All {@link LogEntry}s are kept while the {@link LogTemplate} stays below entriesPerSecond.
+     * Above that, {@link LogEntry}s are kept randomly with a rate that brings the throughput back to entriesPerSecond.
+     * In asynchronous-mode, the rate is also reduced once a queue is half full, down to minRate once a queue is 80% full.
+     * The rate is calculated again every 100 milliseconds.
+     * Every kept {@link LogEntry} with a rate below 1 shows it as "[sampled rate]" in its prefix,
+     * as "sampleRate" in JSON log-files and Mixpanel-events and in the binary log-format,
+     * so counts can be divided by the rate to estimate the original number of {@link LogEntry}s.
+     * {@link LogEntry}s with a severity of at least minSeverity are always kept.
+     *
+     * @param templateName     The name of the {@link LogTemplate}.
+     * @param entriesPerSecond How many {@link LogEntry}s per second are kept without sampling,
+     *                         or 0 to remove the sampling (Default is 0).
+     * @param minRate          The lowest share of {@link LogEntry}s that is kept (Min 0.001, Max 1).
+     * @param minSeverity      The lowest severity that is never sampled,
+     *                         where 0 is verbose, 1 is info, 2 is warning and 3 is error.
+     * @return True if the sampling was changed, False if the {@link LogTemplate} does not exist or minRate is out of range.
+     */
+    public static boolean setTemplateSampling(String templateName, double entriesPerSecond, double minRate, int minSeverity)
+    {
+        if(entriesPerSecond <= 0)
+            return templates.setSampler(templateName, null);
+        if(minRate < 0.001 || minRate > 1)
+            return false;
+
+        return templates.setSampler(templateName, new AdaptiveSampler(entriesPerSecond, minRate, minSeverity));
+    }
+    /**
+     * Sample the {@link LogEntry}s of an existing {@link LogTemplate} when they arrive faster than expected.
+     * {@link LogEntry}s with a severity of warning or higher are always kept.
+     *
+     * @param templateName     The name of the {@link LogTemplate}.
+     * @param entriesPerSecond How many {@link LogEntry}s per second are kept without sampling,
+     *                         or 0 to remove the sampling (Default is 0).
+     * @param minRate          The lowest share of {@link LogEntry}s that is kept (Min 0.001, Max 1).
+     * @return True if the sampling was changed, False if the {@link LogTemplate} does not exist or minRate is out of range.
+     */
+    public static boolean setTemplateSampling(String templateName, double entriesPerSecond, double minRate)
+    {
+        return setTemplateSampling(templateName, entriesPerSecond, minRate, 2);
+    }
+    /**
+     * Sample the {@link LogEntry}s of an existing {@link LogTemplate} when they arrive faster than expected.
+     *
+     * @param templateName     The enum that is used as name for the {@link LogTemplate}.
+     * @param entriesPerSecond How many {@link LogEntry}s per second are kept without sampling,
+     *                         or 0 to remove the sampling (Default is 0).
+     * @param minRate          The lowest share of {@link LogEntry}s that is kept (Min 0.001, Max 1).
+     * @param minSeverity      The lowest severity that is never sampled,
+     *                         where 0 is verbose, 1 is info, 2 is warning and 3 is error.
+     * @return True if the sampling was changed, False if the {@link LogTemplate} does not exist or minRate is out of range.
+     */
+    public static boolean setTemplateSampling(Enum<?> templateName, double entriesPerSecond, double minRate, int minSeverity)
+    {
+        return setTemplateSampling(templateName.name(), entriesPerSecond, minRate, minSeverity);
+    }
+    /**
+     * Sample the {@link LogEntry}s of an existing {@link LogTemplate} when they arrive faster than expected.
+     * {@link LogEntry}s with a severity of warning or higher are always kept.
+     *
+     * @param templateName     The enum that is used as name for the {@link LogTemplate}.
+     * @param entriesPerSecond How many {@link LogEntry}s per second are kept without sampling,
+     *                         or 0 to remove the sampling (Default is 0).
+     * @param minRate          The lowest share of {@link LogEntry}s that is kept (Min 0.001, Max 1).
+     * @return True if the sampling was changed, False if the {@link LogTemplate} does not exist or minRate is out of range.
+     */
+    public static boolean setTemplateSampling(Enum<?> templateName, double entriesPerSecond, double minRate)
+    {
+        return setTemplateSampling(templateName.name(), entriesPerSecond, minRate);
+    }
+
     /**
      * Create a new {@link LogTemplate} for logging
      * that can be used to quickly create a new {@link LogEntry}.
+     * A new {@link LogTemplate} has the severity 1 (info).
+     * An existing {@link LogTemplate} that is overwritten keeps its severity,
+     * which can be changed with {@link #setTemplateSeverity(String, int)}.
      *
      * @param templateName        The name which is required to find the {@link LogTemplate} again.
      * @param colorCode           The color which will be used in the console output.
@@ -261,13 +1301,14 @@ public class Logger
      */
     public static boolean createNewTemplate(String templateName, String colorCode, String backgroundColorCode, String logLevel, boolean writeToFile, boolean onlyVerbose, int verboseLevel, boolean onlyDebug, boolean hidePrefix, boolean exceptionsInConsole, boolean mixpanelMessage, String mixpanelName, String projectName)
     {
-        boolean isNew = !templates.containsKey(templateName);
-        templates.put(templateName, new LogTemplate(colorCode, backgroundColorCode, logLevel, writeToFile, onlyVerbose, verboseLevel, onlyDebug, hidePrefix, exceptionsInConsole, mixpanelMessage, mixpanelName, projectName));
-        return isNew;
+        return templates.putKeepingSeverity(templateName, new LogTemplate(colorCode, backgroundColorCode, logLevel, writeToFile, onlyVerbose, verboseLevel, onlyDebug, hidePrefix, exceptionsInConsole, mixpanelMessage, mixpanelName, projectName, 1));
     }
     /**
      * Create a new {@link LogTemplate} for logging
      * that can be used to quickly create a new {@link LogEntry}.
+     * A new {@link LogTemplate} has the severity 1 (info).
+     * An existing {@link LogTemplate} that is overwritten keeps its severity,
+     * which can be changed with {@link #setTemplateSeverity(Enum, int)}.
      *
      * @param templateName        The enum which is required to find the {@link LogTemplate} again.
      * @param colorCode           The color which will be used in the console output.
@@ -289,67 +1330,294 @@ public class Logger
         return createNewTemplate(templateName.name(), colorCode, backgroundColorCode, logLevel, writeToFile, onlyVerbose, verboseLevel, onlyDebug, hidePrefix, exceptionsInConsole, mixpanelMessage, mixpanelName, projectName);
     }
 
-    private static String createLogString(LogEntry log)
+    private boolean isVisible(boolean onlyDebug, boolean onlyVerbose, int minVerboseLevel)
+    {
+        return (!onlyDebug || isDebug) && (!onlyVerbose || isVerbose) && minVerboseLevel <= verboseLevel;
+    }
+    private static void appendLogString(LogEntry log, StringBuilder builder)
     {
         if(log.plainText || getInstance().smallLog)
-            return log.message;
-
-        String errorCode = log.errorCode == 0 ? "[---]" : "[" + log.errorCode + "]";
-        String prefix = "[" + log.loglevel + "]";
-        String projectName = getInstance().projectName ? "[" + log.projectName + "]" : "";
+        {
+            MessageFormatter.formatTo(builder, log);
+            return;
+        }
 
-        return getLogEntryDate() + prefix + errorCode + projectName + log.message;
+        LogTimestamp.appendTo(builder, log.time);
+        builder.append('[').append(log.loglevel).append(']');
+        if(log.errorCode == 0)
+            builder.append("[---]");
+        else
+            builder.append('[').append(log.errorCode).append(']');
+        if(getInstance().projectName)
+            builder.append('[').append(log.projectName).append(']');
+        if(log.sampleRate < 1)
+            builder.append("[sampled ").append(log.sampleRate).append(']');
+        MessageFormatter.formatTo(builder, log);
     }
-    private static String getLogEntryDate()
+
+    private void addEntryToLogFile(LogEntry log, LogBuffers buffers, int outputStart)
     {
-        DateTimeFormatter dtf = DateTimeFormatter.ofPattern("yyyy/MM/dd HH:mm:ss.SSS");
-        LocalDateTime now = LocalDateTime.now();
+        try
+        {
+            StringBuilder text = buffers.text;
+            if(log.exception != null)
+                text.append(System.lineSeparator()).append("\t").append(stackTraces.render(log.exception, fileGeneration));
+            text.append(System.lineSeparator());
 
-        return "[" + dtf.format(now) + "]";
+            writeToLogFile(log, buffers.encodeForFile(outputStart, text.length()));
+        } catch(IOException e)
+        {
+            logFileError(e);
+        }
     }
+    private void addEntryToJsonFile(LogEntry log, LogBuffers buffers, int messageStart)
+    {
+        try
+        {
+            StringBuilder text = buffers.text;
+            int messageEnd = text.length();
+            String stackTrace = log.exception == null ? null : stackTraces.render(log.exception, fileGeneration);
+            JsonLineFormatter.appendTo(text, log, messageStart, messageEnd, stackTrace);
 
-    private void addEntryToLogFile(LogEntry log, String logOutput)
+            writeToLogFile(log, buffers.encodeForFile(messageEnd, text.length()));
+        } catch(IOException e)
+        {
+            logFileError(e);
+        }
+    }
+    private void writeToLogFile(LogEntry log, ByteBuffer line) throws IOException
     {
-        if(!currentLogFile.exists())
-            createLogFile();
+        LogFileWriter writer = getFileWriter();
+        if(shouldRoll(writer, line.remaining(), log.time))
+            rollLogFile(writer);
 
+        long position;
+        while((position = (writer = getFileWriter()).write(line)) < 0)
+            Thread.onSpinWait();
+
+        syncAfterWrite(log, writer, position);
+    }
+    private void addEntryToBinaryFile(LogEntry log, LogBuffers buffers, int messageStart)
+    {
         try
         {
-            List<String> fileContent = new ArrayList<>(Files.readAllLines(currentLogFile.toPath(), StandardCharsets.UTF_8));
+            ByteBuffer message = buffers.encodeForFile(messageStart, buffers.text.length());
+            String stackTrace = log.exception == null ? null : stackTraces.render(log.exception, fileGeneration);
+            int flags = (log.plainText || smallLog ? BinaryLogEncoder.FLAG_PLAIN_TEXT : 0)
+                    | (projectName ? BinaryLogEncoder.FLAG_PROJECT_NAME : 0);
+
+            LogFileWriter writer = getFileWriter();
+            if(shouldRoll(writer, message.remaining(), log.time))
+                rollLogFile(writer);
 
-            fileContent.add(logOutput);
-            if(log.exception != null) fileContent.add("\t" + Arrays.toString(log.exception.getStackTrace())
-                    .replace(", ", "\n\t")
-                    .replace("[", "")
-                    .replace("]", ""));
+            int messagePosition = message.position();
+            long position;
+            do
+            {
+                writer = getFileWriter();
+                synchronized(writer)
+                {
+                    message.position(messagePosition);
+                    position = writer.write(writer.getBinaryEncoder().encode(log, message, stackTrace, flags));
+                }
+            } while(position < 0);
 
-            Files.write(currentLogFile.toPath(), fileContent, StandardCharsets.UTF_8);
+            syncAfterWrite(log, writer, position);
         } catch(IOException e)
         {
-            LogEntry l = new LogEntry("Something went wrong when writing to the log-file")
-                    .COLOR(LogColor.RED_BRIGHT)
-                    .LEVEL("ERR")
-                    .EXCEPTION(e)
-                    .CODE(600)
-                    .FILE_ENTRY(false)
-                    .PROJECTNAME("JavaLogger");
-            Logger.log(l);
+            logFileError(e);
         }
     }
+    private void syncAfterWrite(LogEntry log, LogFileWriter writer, long position) throws IOException
+    {
+        DurabilityPolicy durability = durabilityPolicy;
+        boolean isBatchEnd = durability == DurabilityPolicy.PER_BATCH && !LogDispatcher.isDispatcherThread();
+        if(isBatchEnd || (durability == DurabilityPolicy.ERROR_SYNC && log.severity >= 3))
+            writer.syncTo(position);
+    }
+    private LogFileWriter getFileWriter() throws IOException
+    {
+        LogFileWriter writer = fileWriter;
+        if(writer != null)
+            return writer;
 
-    private static void sendMixpanelMessage(LogEntry entry)
+        synchronized(fileLock)
+        {
+            if(fileWriter == null)
+            {
+                if(!currentLogFile.exists())
+                    createLogFile();
+                int keptZeros = fileFormat == FileFormat.BINARY ? BinaryLogEncoder.MAX_TRAILING_ZEROS : 0;
+                if(fileWriteMode == FileWriteMode.MEMORY_MAPPED)
+                    fileWriter = MappedLogFileWriter.open(currentLogFile, mappedRegionSize, mappedSyncEntries, mappedSyncMillis, keptZeros);
+                else
+                    fileWriter = BufferedLogFileWriter.open(currentLogFile, fileBufferSize, flushPolicy, keptZeros);
+                fileWriter.setDurable(durabilityPolicy != DurabilityPolicy.NONE);
+                nextRollTime = getNextRollTime(LogTimestamp.now());
+            }
+            return fileWriter;
+        }
+    }
+    private void syncLogFile()
     {
-        Map<String, String> props = new HashMap<>();
+        LogFileWriter writer = fileWriter;
+        if(writer == null)
+            return;
 
-        props.put("message", createLogString(entry));
-        props.put("logLevel", entry.loglevel);
-        props.put("projectName", entry.projectName);
-        if(entry.errorCode != 0)
-            props.put("errorCode", String.valueOf(entry.errorCode));
-        if(entry.exception != null)
-            props.put("exception", Arrays.toString(entry.exception.getStackTrace()));
+        try
+        {
+            writer.sync();
+        } catch(IOException e)
+        {
+            logFileError(e);
+        }
+    }
+    private boolean shouldRoll(LogFileWriter writer, int lineLength, long time)
+    {
+        long size = writer.getSize();
+        if(size == 0)
+            return false;
+
+        long maxSize = maxFileSize;
+        return (maxSize > 0 && size + lineLength > maxSize) || time >= nextRollTime;
+    }
+    private void rollLogFile(LogFileWriter writer)
+    {
+        synchronized(fileLock)
+        {
+            if(fileWriter != writer)
+                return;
+
+            fileWriter = null;
+            fileGeneration++;
+            currentLogFile = nextLogFile(false);
+        }
+
+        archiver.archive(() -> closeWriter(writer), writer.getFile(), currentLogFile, compressRolledFiles, maxTotalLogBytes, maxLogFiles);
+    }
+    private long getNextRollTime(long now)
+    {
+        LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(now), ZoneId.systemDefault());
+        switch(rollInterval)
+        {
+            case HOURLY:
+                time = time.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+                break;
+            case DAILY:
+                time = time.truncatedTo(ChronoUnit.DAYS).plusDays(1);
+                break;
+            default:
+                return Long.MAX_VALUE;
+        }
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+    private File nextLogFile(boolean continueExisting)
+    {
+        if(continueExisting)
+        {
+            File[] existing = logFolder.listFiles((dir, name) -> name.endsWith(fileFormat.suffix));
+            if(existing != null && existing.length > 0)
+                return Collections.max(Arrays.asList(existing), Comparator.comparingLong(File::lastModified));
+        }
 
-        MixpanelHandler.addMessage(entry.mixpanelEventName, props);
+        String date = getLogFileDate();
+        if(!date.equals(lastLogFileDate))
+        {
+            lastLogFileDate = date;
+            logFileIndex = 0;
+        }
+
+        File file;
+        do
+        {
+            String suffix = logFileIndex == 0 ? fileFormat.suffix : "-" + logFileIndex + fileFormat.suffix;
+            file = new File(logFolder.getPath() + File.separator + date + suffix);
+            logFileIndex++;
+        } while(file.exists() || new File(file.getPath() + ".gz").exists());
+
+        return file;
+    }
+    private File closeLogFile()
+    {
+        LogFileWriter writer;
+        synchronized(fileLock)
+        {
+            writer = fileWriter;
+            fileWriter = null;
+            fileGeneration++;
+        }
+        if(writer == null)
+            return null;
+
+        closeWriter(writer);
+        return writer.getFile();
+    }
+    private void closeWriter(LogFileWriter writer)
+    {
+        try
+        {
+            writer.close();
+        } catch(IOException e)
+        {
+            logFileError(e);
+        }
+        closedFileForces.add(writer.getForces());
+    }
+    private void archiveClosedFile(File closedFile)
+    {
+        if(closedFile != null && !closedFile.equals(currentLogFile))
+            archiver.archive(closedFile, currentLogFile, compressRolledFiles, maxTotalLogBytes, maxLogFiles);
+    }
+    private LogSink findSink(String name)
+    {
+        for(LogSink sink : sinks)
+        {
+            if(sink.name.equals(name))
+                return sink;
+        }
+        return null;
+    }
+    private LogDispatcher createDispatcher(LogSink sink)
+    {
+        return new LogDispatcher(sink, asyncCapacity, asyncWaitStrategy, overflowPolicy, overflowSeverity);
+    }
+    private void closeAppenders()
+    {
+        for(LogSink sink : sinks)
+            closeSink(sink);
+    }
+    private void closeSink(LogSink sink)
+    {
+        try
+        {
+            sink.flush();
+            sink.close();
+        } catch(IOException e)
+        {
+            logAppenderError(sink, e);
+        }
+    }
+    private void logAppenderError(LogSink sink, IOException e)
+    {
+        LogEntry l = new LogEntry("The appender '" + sink.name + "' could not be flushed or closed")
+                .COLOR(LogColor.RED_BRIGHT)
+                .LEVEL("ERR")
+                .EXCEPTION(e)
+                .CODE(611)
+                .FILE_ENTRY(false)
+                .PROJECTNAME("JavaLogger");
+        Logger.log(l);
+    }
+    private void logFileError(IOException e)
+    {
+        LogEntry l = new LogEntry("Something went wrong when writing to the log-file")
+                .COLOR(LogColor.RED_BRIGHT)
+                .LEVEL("ERR")
+                .EXCEPTION(e)
+                .CODE(600)
+                .FILE_ENTRY(false)
+                .PROJECTNAME("JavaLogger");
+        Logger.log(l);
     }
 
     private static String getLogFileDate()
@@ -388,4 +1656,9 @@ public class Logger
             log(l);
         }
     }
+
+    private static class InstanceHolder
+    {
+        private static final Logger INSTANCE = new Logger();
+    }
 }
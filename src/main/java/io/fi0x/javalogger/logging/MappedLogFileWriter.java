@@ -0,0 +1,152 @@
+package io.fi0x.javalogger.logging;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class is used internally to append encoded lines to a log-file through a memory-mapped region.
+ * Each line is copied into the mapped memory, and the operating system writes it to the disk.
+ * When a region is full, the next region of the file is mapped.
+ * The file is larger than its content while it is open and gets truncated to the real length when it is closed.
+ * If the process stopped before that, the zero bytes at the end are removed when the file is opened again.
+ */
+class MappedLogFileWriter extends LogFileWriter
+{
+    private static final Method INVOKE_CLEANER;
+    private static final Object UNSAFE;
+
+    static
+    {
+        Method invokeCleaner = null;
+        Object unsafe = null;
+        try
+        {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch(ReflectiveOperationException | RuntimeException ignored)
+        {
+        }
+        INVOKE_CLEANER = invokeCleaner;
+        UNSAFE = unsafe;
+    }
+
+    private final FileChannel channel;
+    private final int regionSize;
+    private final int syncEntries;
+    private final long syncMillis;
+    private MappedByteBuffer region;
+    private long regionStart;
+    private int unsyncedEntries;
+    private long lastSync;
+
+    private MappedLogFileWriter(File file, FileChannel channel, int regionSize, int syncEntries, long syncMillis) throws IOException
+    {
+        super(file, channel.size());
+        this.channel = channel;
+        this.regionSize = regionSize;
+        this.syncEntries = syncEntries;
+        this.syncMillis = syncMillis;
+        lastSync = System.currentTimeMillis();
+        map(getSize());
+    }
+
+    static MappedLogFileWriter open(File file, int regionSize, int syncEntries, long syncMillis, int keptZeros) throws IOException
+    {
+        trimPadding(file, keptZeros);
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new MappedLogFileWriter(file, channel, regionSize, syncEntries, syncMillis);
+    }
+
+    @Override
+    void append(ByteBuffer line) throws IOException
+    {
+        while(line.hasRemaining())
+        {
+            if(!region.hasRemaining())
+                map(regionStart + region.capacity());
+
+            int length = Math.min(line.remaining(), region.remaining());
+            int limit = line.limit();
+            line.limit(line.position() + length);
+            region.put(line);
+            line.limit(limit);
+        }
+
+        unsyncedEntries++;
+        if(syncEntries > 0 && unsyncedEntries >= syncEntries)
+            forceRegion();
+        else if(syncMillis > 0 && System.currentTimeMillis() - lastSync >= syncMillis)
+            forceRegion();
+    }
+
+    @Override
+    void flushBuffer()
+    {
+    }
+
+    @Override
+    synchronized long forceToDisk()
+    {
+        if(region != null)
+            region.force();
+        return getSize();
+    }
+
+    @Override
+    void release(long finalSize) throws IOException
+    {
+        try
+        {
+            if(syncEntries > 0 || syncMillis > 0)
+                region.force();
+            unmap(region);
+            region = null;
+            channel.truncate(finalSize);
+        } finally
+        {
+            channel.close();
+        }
+    }
+
+    private void forceRegion()
+    {
+        region.force();
+        unsyncedEntries = 0;
+        lastSync = System.currentTimeMillis();
+    }
+
+    private void map(long start) throws IOException
+    {
+        MappedByteBuffer old = region;
+        if(old != null && (syncEntries > 0 || syncMillis > 0 || isDurable()))
+            old.force();
+
+        region = channel.map(FileChannel.MapMode.READ_WRITE, start, regionSize);
+        regionStart = start;
+
+        if(old != null)
+            unmap(old);
+    }
+
+    private static void unmap(MappedByteBuffer buffer)
+    {
+        if(buffer == null || INVOKE_CLEANER == null)
+            return;
+
+        try
+        {
+            INVOKE_CLEANER.invoke(UNSAFE, buffer);
+        } catch(ReflectiveOperationException | RuntimeException ignored)
+        {
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package io.fi0x.javalogger.logging;
+
+/**
+ * This class is used internally to build the message of a {@link LogEntry}
+ * that was created from a supplier or from a pattern with "{}" placeholders.
+ * The message is written directly into the provided {@link StringBuilder},
+ * so no intermediate Strings are created for the arguments.
+ */
+class MessageFormatter
+{
+    private static final String PLACEHOLDER = "{}";
+    private static final char ESCAPE = '\\';
+
+    private MessageFormatter()
+    {
+    }
+
+    static void formatTo(StringBuilder builder, LogEntry entry)
+    {
+        if(entry.messageSupplier != null)
+            builder.append(entry.messageSupplier.get());
+        else if(entry.messageArguments != null)
+            formatObjects(builder, entry.message, entry.messageArguments);
+        else if(entry.primitiveArguments > 0)
+            formatPrimitives(builder, entry);
+        else
+            builder.append(entry.message);
+    }
+
+    private static void formatObjects(StringBuilder builder, String pattern, Object[] arguments)
+    {
+        if(pattern == null)
+        {
+            builder.append((String) null);
+            return;
+        }
+
+        int start = 0;
+        for(Object argument : arguments)
+        {
+            start = appendUntilPlaceholder(builder, pattern, start);
+            if(start < 0)
+                return;
+
+            builder.append(argument);
+        }
+        appendRest(builder, pattern, start);
+    }
+
+    private static void formatPrimitives(StringBuilder builder, LogEntry entry)
+    {
+        String pattern = entry.message;
+        if(pattern == null)
+        {
+            builder.append((String) null);
+            return;
+        }
+
+        int start = 0;
+        for(int i = 0; i < entry.primitiveArguments; i++)
+        {
+            start = appendUntilPlaceholder(builder, pattern, start);
+            if(start < 0)
+                return;
+
+            long value = i == 0 ? entry.primitive0 : entry.primitive1;
+            if(entry.primitivesAreDouble)
+                builder.append(Double.longBitsToDouble(value));
+            else
+                builder.append(value);
+        }
+        appendRest(builder, pattern, start);
+    }
+
+    /**
+     * Append the pattern up to the next placeholder that is not escaped.
+     * A placeholder after a backslash is appended as "{}",
+     * and two backslashes before a placeholder are appended as one backslash that is followed by the argument.
+     *
+     * @return The index after the placeholder, or -1 if there is no placeholder left and the whole pattern was appended.
+     */
+    private static int appendUntilPlaceholder(StringBuilder builder, String pattern, int start)
+    {
+        int placeholder;
+        while((placeholder = pattern.indexOf(PLACEHOLDER, start)) >= 0)
+        {
+            boolean escaped = isEscaped(pattern, placeholder, start);
+            boolean escapedBackslash = escaped && isEscaped(pattern, placeholder - 1, start);
+            if(!escaped || escapedBackslash)
+            {
+                builder.append(pattern, start, escapedBackslash ? placeholder - 1 : placeholder);
+                return placeholder + PLACEHOLDER.length();
+            }
+
+            builder.append(pattern, start, placeholder - 1).append(PLACEHOLDER);
+            start = placeholder + PLACEHOLDER.length();
+        }
+        builder.append(pattern, start, pattern.length());
+        return -1;
+    }
+    private static void appendRest(StringBuilder builder, String pattern, int start)
+    {
+        while(start >= 0)
+        {
+            start = appendUntilPlaceholder(builder, pattern, start);
+            if(start >= 0)
+                builder.append(PLACEHOLDER);
+        }
+    }
+    private static boolean isEscaped(String pattern, int index, int start)
+    {
+        return index > start && pattern.charAt(index - 1) == ESCAPE;
+    }
+}
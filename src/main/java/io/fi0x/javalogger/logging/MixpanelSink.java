@@ -0,0 +1,62 @@
+package io.fi0x.javalogger.logging;
+
+import io.fi0x.javalogger.mixpanel.MixpanelEvent;
+import io.fi0x.javalogger.mixpanel.MixpanelHandler;
+
+/**
+ * This class is used internally as the built-in "mixpanel" appender.
+ * It adds all {@link LogEntry}s that should be sent to Mixpanel to the queue of the {@link MixpanelHandler},
+ * which uploads them in the background.
+ */
+class MixpanelSink extends LogSink
+{
+    MixpanelSink()
+    {
+        super(Logger.MIXPANEL_APPENDER, null, null);
+    }
+
+    @Override
+    boolean isInterested(LogEntry log, boolean visible)
+    {
+        return log.mixpanel;
+    }
+    @Override
+    void write(LogEntry log, LogBuffers buffers)
+    {
+        MixpanelEvent event = MixpanelHandler.startEvent(log.mixpanelEventName);
+        if(event == null)
+            return;
+
+        LogFields fields = log.fields;
+        for(int i = 0; fields != null && i < fields.size(); i++)
+        {
+            switch(fields.type(i))
+            {
+                case LogFields.DOUBLE:
+                    event.property(fields.name(i), fields.doubleValue(i));
+                    break;
+                case LogFields.BOOLEAN:
+                    event.property(fields.name(i), fields.booleanValue(i));
+                    break;
+                case LogFields.STRING:
+                    event.property(fields.name(i), fields.stringValue(i));
+                    break;
+                default:
+                    event.property(fields.name(i), fields.longValue(i));
+            }
+        }
+
+        StringBuilder text = buffers.text;
+        Logger.format(log, text, formatter);
+        event.property("message", text, 0, text.length())
+                .property("logLevel", log.loglevel)
+                .property("projectName", log.projectName);
+        if(log.errorCode != 0)
+            event.property("errorCode", String.valueOf(log.errorCode));
+        if(log.sampleRate < 1)
+            event.property("sampleRate", log.sampleRate);
+        if(log.exception != null)
+            event.property("exception", Logger.getInstance().getStackTraces().renderFull(log.exception));
+        event.send();
+    }
+}
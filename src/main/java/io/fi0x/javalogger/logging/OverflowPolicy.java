@@ -0,0 +1,28 @@
+package io.fi0x.javalogger.logging;
+
+/**
+ * This enum defines what happens to a {@link LogEntry}
+ * when the queue of the asynchronous {@link Logger} is full.
+ */
+public enum OverflowPolicy
+{
+    /**
+     * The logging thread waits until there is space in the queue again.
+     */
+    BLOCK,
+    /**
+     * The new {@link LogEntry} is dropped.
+     */
+    DROP_NEW,
+    /**
+     * The oldest {@link LogEntry} in the queue is dropped to make space for the new one.
+     */
+    DROP_OLDEST,
+    /**
+     * The new {@link LogEntry} is dropped if its severity is below the configured minimum.
+     * A {@link LogEntry} with a higher severity drops the oldest queued {@link LogEntry} instead,
+     * if that one is below the minimum.
+     * Otherwise it waits until there is space in the queue again.
+     */
+    DROP_BELOW_SEVERITY
+}
@@ -0,0 +1,104 @@
+package io.fi0x.javalogger.logging;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class is used internally to limit how many {@link LogEntry}s of a {@link LogTemplate} are processed per second.
+ * It works like a token-bucket, but only stores the time at which the bucket will be full again,
+ * so taking a token is a single compare-and-set and a full bucket is recognized without any write.
+ * Suppressed {@link LogEntry}s are counted in striped counters,
+ * and reported at most once per second with the next {@link LogEntry} that is allowed again.
+ * The limit can be shared by all {@link LogEntry}s of the {@link LogTemplate} or applied per error code.
+ * At most {@link #MAX_CODE_BUCKETS} error codes get their own bucket, idle buckets are removed when that is reached,
+ * and error codes that still do not fit share the bucket of the {@link LogTemplate}.
+ */
+class RateLimit
+{
+    private static final long REPORT_DELAY = 1_000_000_000L;
+    static final int MAX_CODE_BUCKETS = 1024;
+
+    private final long interval;
+    private final long burstWindow;
+    final boolean perErrorCode;
+    private final Bucket bucket = new Bucket(System.nanoTime());
+    private final Map<Integer, Bucket> codeBuckets = new ConcurrentHashMap<>();
+    private final LongAdder suppressedTotal = new LongAdder();
+
+    RateLimit(double entriesPerSecond, int burst, boolean perErrorCode)
+    {
+        interval = Math.max(1, (long) (1_000_000_000L / entriesPerSecond));
+        burstWindow = interval * burst;
+        this.perErrorCode = perErrorCode;
+    }
+
+    long getSuppressed()
+    {
+        return suppressedTotal.sum();
+    }
+
+    /**
+     * @return -1 if the {@link LogEntry} should be suppressed,
+     * otherwise the number of suppressed {@link LogEntry}s that should be reported now.
+     */
+    long acquire(LogEntry log, long now)
+    {
+        Bucket b = perErrorCode ? getCodeBucket(log.errorCode, now) : bucket;
+        while(true)
+        {
+            long fullAt = b.fullAt.get();
+            long next = Math.max(fullAt, now) + interval;
+            if(next - now > burstWindow)
+            {
+                b.suppressed.increment();
+                suppressedTotal.increment();
+                return -1;
+            }
+            if(b.fullAt.compareAndSet(fullAt, next))
+                break;
+        }
+
+        if(b.suppressed.sum() == 0)
+            return 0;
+
+        long lastReport = b.lastReport.get();
+        if(now - lastReport < REPORT_DELAY || !b.lastReport.compareAndSet(lastReport, now))
+            return 0;
+        return b.suppressed.sumThenReset();
+    }
+
+    int getCodeBuckets()
+    {
+        return codeBuckets.size();
+    }
+
+    private Bucket getCodeBucket(int code, long now)
+    {
+        Bucket b = codeBuckets.get(code);
+        if(b != null)
+            return b;
+
+        if(codeBuckets.size() >= MAX_CODE_BUCKETS)
+        {
+            codeBuckets.values().removeIf(idle -> idle.fullAt.get() <= now && idle.suppressed.sum() == 0);
+            if(codeBuckets.size() >= MAX_CODE_BUCKETS)
+                return bucket;
+        }
+        return codeBuckets.computeIfAbsent(code, c -> new Bucket(now));
+    }
+
+    private static class Bucket
+    {
+        private final AtomicLong fullAt;
+        private final AtomicLong lastReport;
+        private final LongAdder suppressed = new LongAdder();
+
+        private Bucket(long now)
+        {
+            fullAt = new AtomicLong(now);
+            lastReport = new AtomicLong(now - REPORT_DELAY);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package io.fi0x.javalogger.logging;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class is used internally to remember the last {@link LogEntry} of a {@link LogTemplate},
+ * so identical consecutive {@link LogEntry}s of that {@link LogTemplate} can be collapsed
+ * into a single "Last message repeated" line.
+ * Two {@link LogEntry}s are identical if they use the same {@link LogTemplate}, error-code, project-name,
+ * message-pattern, message-arguments and exception-class.
+ * {@link LogEntry}s with a message-supplier or additional fields are never collapsed,
+ * because comparing them would require building the message.
+ * Sampled {@link LogEntry}s are not collapsed either, because the repetitions would lose their sample-rate.
+ */
+class RepeatedEntry
+{
+    private static final long CLOSED = -1;
+
+    private final int templateId;
+    private final String templateName;
+    private final int errorCode;
+    private final String projectName;
+    private final String message;
+    private final Object[] messageArguments;
+    private final int primitiveArguments;
+    private final boolean primitivesAreDouble;
+    private final long primitive0;
+    private final long primitive1;
+    private final Class<?> exceptionClass;
+    private final AtomicLong repeats = new AtomicLong();
+
+    private RepeatedEntry(LogEntry log)
+    {
+        templateId = log.templateId;
+        templateName = log.templateName;
+        errorCode = log.errorCode;
+        projectName = log.projectName;
+        message = log.message;
+        messageArguments = log.messageArguments;
+        primitiveArguments = log.primitiveArguments;
+        primitivesAreDouble = log.primitivesAreDouble;
+        primitive0 = log.primitive0;
+        primitive1 = log.primitive1;
+        exceptionClass = log.exception == null ? null : log.exception.getClass();
+    }
+
+    static boolean isCollapsible(LogEntry log)
+    {
+        return log.templateId >= 0 && log.messageSupplier == null && (log.fields == null || log.fields.size() == 0) && log.sampleRate >= 1;
+    }
+    static RepeatedEntry of(LogEntry log)
+    {
+        return isCollapsible(log) ? new RepeatedEntry(log) : null;
+    }
+
+    boolean matches(LogEntry log)
+    {
+        return templateId == log.templateId
+                && errorCode == log.errorCode
+                && primitiveArguments == log.primitiveArguments
+                && primitivesAreDouble == log.primitivesAreDouble
+                && primitive0 == log.primitive0
+                && primitive1 == log.primitive1
+                && exceptionClass == (log.exception == null ? null : log.exception.getClass())
+                && Objects.equals(message, log.message)
+                && Objects.equals(projectName, log.projectName)
+                && Arrays.equals(messageArguments, log.messageArguments)
+                && isCollapsible(log);
+    }
+    /**
+     * @return True if the repetition was counted, False if this {@link RepeatedEntry} was already closed.
+     */
+    boolean repeat()
+    {
+        long count;
+        do
+        {
+            count = repeats.get();
+            if(count == CLOSED)
+                return false;
+        } while(!repeats.compareAndSet(count, count + 1));
+        return true;
+    }
+    /**
+     * @return The number of repetitions that were counted since the last call,
+     * while this {@link RepeatedEntry} stays open for more repetitions.
+     */
+    long drain()
+    {
+        long count;
+        do
+        {
+            count = repeats.get();
+            if(count == CLOSED || count == 0)
+                return 0;
+        } while(!repeats.compareAndSet(count, 0));
+        return count;
+    }
+    /**
+     * @return The number of repetitions that were counted before this {@link RepeatedEntry} was closed.
+     */
+    long close()
+    {
+        long count = repeats.getAndSet(CLOSED);
+        return count == CLOSED ? 0 : count;
+    }
+
+    LogEntry createNote(long count)
+    {
+        LogEntry note = new LogEntry("Last message repeated " + count + (count == 1 ? " time" : " times"), templateName);
+        note.CODE(errorCode);
+        note.PROJECTNAME(projectName);
+        return note;
+    }
+}
@@ -0,0 +1,20 @@
+package io.fi0x.javalogger.logging;
+
+/**
+ * This enum defines how often the {@link Logger} starts a new log-file, independent of its size.
+ */
+public enum RollInterval
+{
+    /**
+     * The log-file is never changed because of its age.
+     */
+    NEVER,
+    /**
+     * A new log-file is started at the beginning of every hour.
+     */
+    HOURLY,
+    /**
+     * A new log-file is started at midnight.
+     */
+    DAILY
+}
@@ -0,0 +1,255 @@
+package io.fi0x.javalogger.logging;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class is used internally to render the stack-traces of exceptions only once.
+ * Each stack-trace gets a fingerprint from the class and the frames of the exception
+ * and from the messages and frames of its causes and suppressed exceptions,
+ * but not from the message of the exception itself, so the same error with a different message is still recognized.
+ * The frames are rendered once per fingerprint and kept in a bounded cache,
+ * and only the message of the exception itself is rendered for each occurrence.
+ * A log-file only gets the full stack-trace the first time it appears in this file,
+ * later occurrences are written as a short reference with the number of times the stack-trace was seen.
+ */
+class StackTraceCache
+{
+    private static final int MAX_TRACES = 1024;
+    private static final String LINE = System.lineSeparator() + "\t";
+    private static final StackTraceElement[] NO_FRAMES = new StackTraceElement[0];
+
+    private final Map<Long, Trace> traces = new LinkedHashMap<Long, Trace>(64, 0.75f, true)
+    {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Trace> eldest)
+        {
+            return size() > MAX_TRACES;
+        }
+    };
+    private final AtomicInteger nextId = new AtomicInteger(1);
+    private final LongAdder renderedTraces = new LongAdder();
+    private final LongAdder fullTraces = new LongAdder();
+    private final LongAdder referencedTraces = new LongAdder();
+    private volatile boolean deduplicate = true;
+
+    void setDeduplicate(boolean shortenRepeatedTraces)
+    {
+        deduplicate = shortenRepeatedTraces;
+    }
+
+    String render(Throwable exception, int fileGeneration)
+    {
+        Trace trace = get(exception);
+        trace.count.increment();
+        if(deduplicate && trace.fileGeneration == fileGeneration)
+        {
+            referencedTraces.increment();
+            return exception + " [trace #" + trace.id + " seen " + trace.count.sum() + " times]";
+        }
+
+        trace.fileGeneration = fileGeneration;
+        fullTraces.increment();
+        return exception + " [trace #" + trace.id + "]" + trace.body;
+    }
+    String renderFull(Throwable exception)
+    {
+        return exception + get(exception).body;
+    }
+
+    Map<String, Long> getMetrics()
+    {
+        Map<String, Long> metrics = new LinkedHashMap<>();
+        synchronized(traces)
+        {
+            metrics.put("cachedTraces", (long) traces.size());
+        }
+        metrics.put("renderedTraces", renderedTraces.sum());
+        metrics.put("fullTraces", fullTraces.sum());
+        metrics.put("referencedTraces", referencedTraces.sum());
+        return metrics;
+    }
+    Map<String, Long> getCounts()
+    {
+        List<Trace> cached;
+        synchronized(traces)
+        {
+            cached = new ArrayList<>(traces.values());
+        }
+
+        Map<String, Long> counts = new TreeMap<>();
+        for(Trace trace : cached)
+        {
+            String name = "#" + trace.id + " " + trace.className;
+            if(trace.frames.length > 0)
+                name += " at " + trace.frames[0];
+            counts.put(name, trace.count.sum());
+        }
+        return counts;
+    }
+
+    private Trace get(Throwable exception)
+    {
+        StackTraceElement[] frames = exception.getStackTrace();
+        List<Enclosed> enclosed = Collections.emptyList();
+        if(exception.getCause() != null || exception.getSuppressed().length > 0)
+        {
+            enclosed = new ArrayList<>();
+            collectRelated(exception, frames, enclosed, Collections.newSetFromMap(new IdentityHashMap<>()));
+        }
+        long fingerprint = fingerprint(exception, frames, enclosed);
+
+        Trace trace;
+        synchronized(traces)
+        {
+            trace = traces.get(fingerprint);
+        }
+        if(trace == null || !trace.matches(exception, frames, enclosed))
+        {
+            StringBuilder body = new StringBuilder();
+            appendFrames(body, frames, NO_FRAMES);
+            for(Enclosed related : enclosed)
+            {
+                if(related.frames == null)
+                    body.append(LINE).append(related.caption).append("[CIRCULAR REFERENCE: ").append(related.text).append(']');
+                else
+                {
+                    body.append(LINE).append(related.caption).append(related.text);
+                    appendFrames(body, related.frames, related.enclosingFrames);
+                }
+            }
+
+            trace = new Trace(nextId.getAndIncrement(), exception.getClass().getName(), frames, enclosed.toArray(new Enclosed[0]), body.toString());
+            renderedTraces.increment();
+            synchronized(traces)
+            {
+                traces.put(fingerprint, trace);
+            }
+        }
+        return trace;
+    }
+
+    private static long fingerprint(Throwable exception, StackTraceElement[] frames, List<Enclosed> enclosed)
+    {
+        long hash = mix(1, exception.getClass().getName().hashCode());
+        hash = fingerprintFrames(hash, frames);
+        for(Enclosed related : enclosed)
+        {
+            hash = mix(hash, related.caption.hashCode());
+            hash = mix(hash, related.text.hashCode());
+            hash = related.frames == null ? mix(hash, 'R') : fingerprintFrames(hash, related.frames);
+        }
+        return hash;
+    }
+    private static long fingerprintFrames(long hash, StackTraceElement[] frames)
+    {
+        hash = mix(hash, frames.length);
+        for(StackTraceElement frame : frames)
+            hash = mix(hash, frame.hashCode());
+        return hash;
+    }
+    private static long mix(long hash, int value)
+    {
+        return (hash ^ value) * 0x9E3779B97F4A7C15L;
+    }
+
+    private static void collectRelated(Throwable exception, StackTraceElement[] frames, List<Enclosed> enclosed, Set<Throwable> seen)
+    {
+        seen.add(exception);
+        for(Throwable suppressed : exception.getSuppressed())
+            collectEnclosed(suppressed, frames, "Suppressed: ", enclosed, seen);
+
+        Throwable cause = exception.getCause();
+        if(cause != null)
+            collectEnclosed(cause, frames, "Caused by: ", enclosed, seen);
+    }
+    private static void collectEnclosed(Throwable exception, StackTraceElement[] enclosingFrames, String caption, List<Enclosed> enclosed, Set<Throwable> seen)
+    {
+        if(seen.contains(exception))
+        {
+            enclosed.add(new Enclosed(caption, exception.toString(), null, enclosingFrames));
+            return;
+        }
+
+        StackTraceElement[] frames = exception.getStackTrace();
+        enclosed.add(new Enclosed(caption, exception.toString(), frames, enclosingFrames));
+        collectRelated(exception, frames, enclosed, seen);
+    }
+    private static void appendFrames(StringBuilder builder, StackTraceElement[] frames, StackTraceElement[] enclosingFrames)
+    {
+        int last = frames.length - 1;
+        int enclosingLast = enclosingFrames.length - 1;
+        while(last >= 0 && enclosingLast >= 0 && frames[last].equals(enclosingFrames[enclosingLast]))
+        {
+            last--;
+            enclosingLast--;
+        }
+
+        for(int i = 0; i <= last; i++)
+            builder.append(LINE).append(frames[i]);
+
+        int common = frames.length - 1 - last;
+        if(common > 0)
+            builder.append(LINE).append("... ").append(common).append(" more");
+    }
+
+    private static class Trace
+    {
+        private final int id;
+        private final String className;
+        private final StackTraceElement[] frames;
+        private final Enclosed[] enclosed;
+        private final String body;
+        private final LongAdder count = new LongAdder();
+        private volatile int fileGeneration = -1;
+
+        private Trace(int id, String className, StackTraceElement[] frames, Enclosed[] enclosed, String body)
+        {
+            this.id = id;
+            this.className = className;
+            this.frames = frames;
+            this.enclosed = enclosed;
+            this.body = body;
+        }
+
+        private boolean matches(Throwable exception, StackTraceElement[] otherFrames, List<Enclosed> otherEnclosed)
+        {
+            if(!className.equals(exception.getClass().getName()) || !Arrays.equals(frames, otherFrames) || enclosed.length != otherEnclosed.size())
+                return false;
+
+            for(int i = 0; i < enclosed.length; i++)
+            {
+                if(!enclosed[i].matches(otherEnclosed.get(i)))
+                    return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * A cause or suppressed exception, with the frames of the exception that encloses it.
+     * The frames are null if the exception was already rendered before, because the causes contain a circle.
+     */
+    private static class Enclosed
+    {
+        private final String caption;
+        private final String text;
+        private final StackTraceElement[] frames;
+        private final StackTraceElement[] enclosingFrames;
+
+        private Enclosed(String caption, String text, StackTraceElement[] frames, StackTraceElement[] enclosingFrames)
+        {
+            this.caption = caption;
+            this.text = text;
+            this.frames = frames;
+            this.enclosingFrames = enclosingFrames;
+        }
+
+        private boolean matches(Enclosed other)
+        {
+            return caption.equals(other.caption) && text.equals(other.text)
+                    && Arrays.equals(frames, other.frames) && Arrays.equals(enclosingFrames, other.enclosingFrames);
+        }
+    }
+}
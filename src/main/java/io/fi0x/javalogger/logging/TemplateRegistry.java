@@ -0,0 +1,155 @@
+package io.fi0x.javalogger.logging;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * This class is used internally to store all {@link LogTemplate}s.
+ * Each {@link LogTemplate} gets an id, and the {@link LogTemplate}s of the {@link LogLevel} enum
+ * can be found directly by their ordinal.
+ * Changes create a new snapshot of all {@link LogTemplate}s,
+ * so threads can look up {@link LogTemplate}s without any locks while other threads add new ones.
+ * The {@link RateLimit}s and {@link AdaptiveSampler}s are stored by the id of their {@link LogTemplate} in the same way.
+ */
+class TemplateRegistry
+{
+    private static final LogLevel[] LEVELS = LogLevel.values();
+
+    private volatile Snapshot snapshot = new Snapshot(Collections.emptyMap(), new LogTemplate[0], new LogTemplate[LEVELS.length]);
+    private volatile RateLimit[] rateLimits = new RateLimit[0];
+    private volatile AdaptiveSampler[] samplers = new AdaptiveSampler[0];
+
+    LogTemplate get(String templateName)
+    {
+        return snapshot.byName.get(templateName);
+    }
+    LogTemplate get(Enum<?> templateName)
+    {
+        if(templateName instanceof LogLevel)
+        {
+            LogTemplate template = snapshot.byLevel[templateName.ordinal()];
+            if(template != null)
+                return template;
+        }
+        return get(templateName.name());
+    }
+    LogTemplate get(int id)
+    {
+        LogTemplate[] byId = snapshot.byId;
+        return id >= 0 && id < byId.length ? byId[id] : null;
+    }
+
+    RateLimit getRateLimit(int id)
+    {
+        RateLimit[] limits = rateLimits;
+        return id >= 0 && id < limits.length ? limits[id] : null;
+    }
+    Map<String, Long> getRateLimitedEntries()
+    {
+        Map<String, Long> suppressed = new TreeMap<>();
+        for(Map.Entry<String, LogTemplate> entry : snapshot.byName.entrySet())
+        {
+            RateLimit limit = getRateLimit(entry.getValue().id);
+            if(limit != null)
+                suppressed.put(entry.getKey(), limit.getSuppressed());
+        }
+        return suppressed;
+    }
+    AdaptiveSampler getSampler(int id)
+    {
+        AdaptiveSampler[] active = samplers;
+        return id >= 0 && id < active.length ? active[id] : null;
+    }
+    Map<String, Long> getSampledEntries()
+    {
+        Map<String, Long> sampledOut = new TreeMap<>();
+        for(Map.Entry<String, LogTemplate> entry : snapshot.byName.entrySet())
+        {
+            AdaptiveSampler sampler = getSampler(entry.getValue().id);
+            if(sampler != null)
+                sampledOut.put(entry.getKey(), sampler.getSampledOut());
+        }
+        return sampledOut;
+    }
+
+    synchronized boolean put(String templateName, LogTemplate template)
+    {
+        Snapshot old = snapshot;
+        Map<String, LogTemplate> byName = new HashMap<>(old.byName);
+        LogTemplate previous = byName.put(templateName, template);
+        LogTemplate[] byId;
+        if(previous == null)
+        {
+            template.id = old.byId.length;
+            byId = Arrays.copyOf(old.byId, old.byId.length + 1);
+        } else
+        {
+            template.id = previous.id;
+            byId = old.byId.clone();
+        }
+        byId[template.id] = template;
+
+        LogTemplate[] byLevel = old.byLevel.clone();
+        for(LogLevel level : LEVELS)
+        {
+            if(level.name().equals(templateName))
+                byLevel[level.ordinal()] = template;
+        }
+
+        snapshot = new Snapshot(byName, byId, byLevel);
+        return previous == null;
+    }
+    synchronized boolean putKeepingSeverity(String templateName, LogTemplate template)
+    {
+        LogTemplate previous = get(templateName);
+        return put(templateName, previous == null ? template : template.withSeverity(previous.severity));
+    }
+    synchronized boolean setSeverity(String templateName, int severity)
+    {
+        LogTemplate template = get(templateName);
+        if(template == null)
+            return false;
+
+        put(templateName, template.withSeverity(severity));
+        return true;
+    }
+    synchronized boolean setRateLimit(String templateName, RateLimit limit)
+    {
+        LogTemplate template = get(templateName);
+        if(template == null)
+            return false;
+
+        RateLimit[] limits = Arrays.copyOf(rateLimits, Math.max(rateLimits.length, template.id + 1));
+        limits[template.id] = limit;
+        rateLimits = limits;
+        return true;
+    }
+    synchronized boolean setSampler(String templateName, AdaptiveSampler sampler)
+    {
+        LogTemplate template = get(templateName);
+        if(template == null)
+            return false;
+
+        AdaptiveSampler[] active = Arrays.copyOf(samplers, Math.max(samplers.length, template.id + 1));
+        active[template.id] = sampler;
+        samplers = active;
+        return true;
+    }
+
+    private static class Snapshot
+    {
+        private final Map<String, LogTemplate> byName;
+        private final LogTemplate[] byId;
+        private final LogTemplate[] byLevel;
+
+        private Snapshot(Map<String, LogTemplate> byName, LogTemplate[] byId, LogTemplate[] byLevel)
+        {
+            this.byName = byName;
+            this.byId = byId;
+            this.byLevel = byLevel;
+        }
+    }
+}
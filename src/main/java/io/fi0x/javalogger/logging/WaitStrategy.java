@@ -0,0 +1,39 @@
+package io.fi0x.javalogger.logging;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This enum defines how threads wait while the asynchronous {@link Logger} has nothing to do,
+ * or while the queue of the asynchronous {@link Logger} is full.
+ */
+public enum WaitStrategy
+{
+    /**
+     * The thread keeps spinning on the CPU.
+     * This has the lowest latency, but uses a full CPU core while waiting.
+     */
+    SPIN,
+    /**
+     * The thread spins for a short time and then gives its CPU time to other threads.
+     */
+    YIELD,
+    /**
+     * The thread spins and yields for a short time and then sleeps until it checks again.
+     * This uses the least CPU time, but adds up to one millisecond of latency.
+     */
+    PARK;
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 200;
+    private static final long PARK_NANOS = 1_000_000;
+
+    void idle(int attempt)
+    {
+        if(this == SPIN || attempt < SPIN_TRIES)
+            Thread.onSpinWait();
+        else if(this == YIELD || attempt < YIELD_TRIES)
+            Thread.yield();
+        else
+            LockSupport.parkNanos(PARK_NANOS);
+    }
+}
@@ -0,0 +1,258 @@
+package io.fi0x.javalogger.mixpanel;
+
+import io.fi0x.javalogger.internal.JsonStrings;
+import io.fi0x.javalogger.logging.LogColor;
+import io.fi0x.javalogger.logging.LogEntry;
+import io.fi0x.javalogger.logging.Logger;
+
+import java.util.Arrays;
+
+/**
+ * This class can be used to build a Mixpanel event without creating a map for its properties.
+ * The properties are written directly as JSON into a buffer that each thread reuses,
+ * and the event is added to the upload-queue with {@link #send()}.
+ * A {@link MixpanelEvent} can be obtained with {@link MixpanelHandler#startEvent(String)}
+ * and must not be used anymore after it was sent.
+ * Each property name is only sent once: if a property is added twice, its first value is used,
+ * and properties with the name of a default property, "distinct_id", "token" or "mp_lib" are replaced
+ * by the default property, the distinct ID, the project-token and the name of the library.
+ */
+public final class MixpanelEvent
+{
+    private static final ThreadLocal<MixpanelEvent> events = ThreadLocal.withInitial(MixpanelEvent::new);
+
+    private final StringBuilder json = new StringBuilder(512);
+    private byte[] bytes = new byte[1024];
+    private String[] names = new String[16];
+    private MixpanelHandler.DefaultProperties defaults;
+    private int propertyCount;
+    private String reservedName;
+    private long time;
+    private boolean inUse;
+
+    private MixpanelEvent()
+    {
+    }
+
+    static MixpanelEvent start(String eventName)
+    {
+        MixpanelEvent event = events.get();
+        if(event.inUse)
+            event = new MixpanelEvent();
+
+        event.inUse = true;
+        event.defaults = MixpanelHandler.getDefaultProperties();
+        event.time = System.currentTimeMillis();
+        event.propertyCount = 0;
+        event.reservedName = null;
+        event.json.setLength(0);
+        event.json.append("{\"event\":");
+        JsonStrings.append(event.json, eventName, 0, eventName.length());
+        event.json.append(",\"properties\":{");
+        return event;
+    }
+
+    /**
+     * Add a property with a text to this event.
+     *
+     * @param name  The name of the property that will be visible on Mixpanel.
+     * @param value The value of the property.
+     * @return The current {@link MixpanelEvent} to be used further.
+     */
+    public MixpanelEvent property(String name, CharSequence value)
+    {
+        return value == null ? property(name, null, 0, 0) : property(name, value, 0, value.length());
+    }
+    /**
+     * Add a property with a part of a text to this event.
+     *
+     * @param name  The name of the property that will be visible on Mixpanel.
+     * @param value The text that contains the value of the property.
+     * @param start The index of the first character of the value.
+     * @param end   The index after the last character of the value.
+     * @return The current {@link MixpanelEvent} to be used further.
+     */
+    public MixpanelEvent property(String name, CharSequence value, int start, int end)
+    {
+        if(startProperty(name))
+        {
+            if(value == null)
+                json.append("null");
+            else
+            {
+                try
+                {
+                    JsonStrings.append(json, value, start, end);
+                } catch(RuntimeException e)
+                {
+                    release();
+                    throw e;
+                }
+            }
+        }
+        return this;
+    }
+    /**
+     * Add a property with a number to this event.
+     *
+     * @param name  The name of the property that will be visible on Mixpanel.
+     * @param value The value of the property.
+     * @return The current {@link MixpanelEvent} to be used further.
+     */
+    public MixpanelEvent property(String name, long value)
+    {
+        if(startProperty(name))
+            json.append(value);
+        return this;
+    }
+    /**
+     * Add a property with a decimal number to this event.
+     * Values that are not a number or infinite are sent as text.
+     *
+     * @param name  The name of the property that will be visible on Mixpanel.
+     * @param value The value of the property.
+     * @return The current {@link MixpanelEvent} to be used further.
+     */
+    public MixpanelEvent property(String name, double value)
+    {
+        if(startProperty(name))
+        {
+            if(Double.isNaN(value) || Double.isInfinite(value))
+                json.append('"').append(value).append('"');
+            else
+                json.append(value);
+        }
+        return this;
+    }
+    /**
+     * Add a property with a boolean to this event.
+     *
+     * @param name  The name of the property that will be visible on Mixpanel.
+     * @param value The value of the property.
+     * @return The current {@link MixpanelEvent} to be used further.
+     */
+    public MixpanelEvent property(String name, boolean value)
+    {
+        if(startProperty(name))
+            json.append(value);
+        return this;
+    }
+
+    /**
+     * Add this event to the Mixpanel delivery queue.
+     * The default properties, the distinct ID and the project-token are added automatically.
+     *
+     * @return True if the event was added to the queue,
+     * False if one of its properties has a name that Mixpanel uses itself.
+     */
+    public boolean send()
+    {
+        try
+        {
+            if(reservedName != null)
+            {
+                LogEntry l = new LogEntry("Could not add Mixpanel-event to queue. Property '" + reservedName + "' is a property mixpanel uses itself")
+                        .COLOR(LogColor.RED_BRIGHT)
+                        .LEVEL("ERR")
+                        .CODE(602)
+                        .FILE_ENTRY(false)
+                        .PROJECTNAME("JavaLogger");
+                Logger.log(l);
+                return false;
+            }
+
+            if(propertyCount > 0)
+                json.append(',');
+            json.append("\"time\":").append(time);
+            json.append(defaults.json);
+            json.append(MixpanelHandler.getIdentityJson());
+            json.append("}}");
+
+            MixpanelHandler.enqueue(encode());
+            return true;
+        } finally
+        {
+            release();
+        }
+    }
+
+    private boolean startProperty(String name)
+    {
+        try
+        {
+            if(MixpanelHandler.isReservedProperty(name))
+            {
+                if(reservedName == null)
+                    reservedName = name;
+                return false;
+            }
+            if(MixpanelHandler.isIdentityProperty(name) || defaults.names.contains(name) || isAdded(name))
+                return false;
+        } catch(RuntimeException e)
+        {
+            release();
+            throw e;
+        }
+
+        if(propertyCount == names.length)
+            names = Arrays.copyOf(names, propertyCount * 2);
+        names[propertyCount] = name;
+        if(propertyCount++ > 0)
+            json.append(',');
+        JsonStrings.append(json, name, 0, name.length());
+        json.append(':');
+        return true;
+    }
+    private boolean isAdded(String name)
+    {
+        for(int i = 0; i < propertyCount; i++)
+        {
+            if(names[i].equals(name))
+                return true;
+        }
+        return false;
+    }
+    /**
+     * Allow the thread to reuse this {@link MixpanelEvent}, after it was sent or could not be completed.
+     */
+    void release()
+    {
+        Arrays.fill(names, 0, propertyCount, null);
+        inUse = false;
+    }
+
+    private byte[] encode()
+    {
+        int length = 0;
+        int count = json.length();
+        for(int i = 0; i < count; i++)
+        {
+            if(bytes.length - length < 4)
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+
+            char c = json.charAt(i);
+            if(c < 0x80)
+                bytes[length++] = (byte) c;
+            else if(c < 0x800)
+            {
+                bytes[length++] = (byte) (0xC0 | (c >> 6));
+                bytes[length++] = (byte) (0x80 | (c & 0x3F));
+            } else if(Character.isHighSurrogate(c) && i + 1 < count && Character.isLowSurrogate(json.charAt(i + 1)))
+            {
+                int codePoint = Character.toCodePoint(c, json.charAt(++i));
+                bytes[length++] = (byte) (0xF0 | (codePoint >> 18));
+                bytes[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                bytes[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                bytes[length++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if(Character.isSurrogate(c))
+                bytes[length++] = '?';
+            else
+            {
+                bytes[length++] = (byte) (0xE0 | (c >> 12));
+                bytes[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                bytes[length++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return Arrays.copyOf(bytes, length);
+    }
+}
@@ -1,33 +1,32 @@
 package io.fi0x.javalogger.mixpanel;
 
-import com.mixpanel.mixpanelapi.ClientDelivery;
-import com.mixpanel.mixpanelapi.MessageBuilder;
-import com.mixpanel.mixpanelapi.MixpanelAPI;
+import io.fi0x.javalogger.internal.JsonStrings;
 import io.fi0x.javalogger.logging.LogEntry;
 import io.fi0x.javalogger.logging.Logger;
 import io.fi0x.javalogger.logging.LogColor;
-import org.json.JSONException;
-import org.json.JSONObject;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This class simplifies the use of the mixpanel-api. It handles communication with mixpanel and only requires setup once.
  * After setup, mixpanel-event can be sent easily to the website.
+ * Messages can be added from any thread. They are uploaded by a background-thread in batches of 50 messages,
+ * or after the delay if a batch is not full.
  */
 public class MixpanelHandler
 {
-    private static Thread uploader = null;
-    private static long updateDelay = 5000;
+    private static final MixpanelUploader uploader = new MixpanelUploader(5000);
 
-    private static MessageBuilder builder;
-    private static ClientDelivery delivery;
+    private static volatile String projectToken = null;
+    private static volatile String userID = null;
+    private static volatile String identityJson = "";
 
-    private static String projectToken = null;
-    private static String userID = null;
-
-    private static final Map<String, String> defaultProperties = new HashMap<>();
+    private static final Map<String, String> defaultProperties = new LinkedHashMap<>();
+    private static volatile DefaultProperties defaultPropertiesSnapshot = new DefaultProperties(Collections.emptySet(), "");
+    private static final Map<String, Boolean> checkedPropertyNames = new ConcurrentHashMap<>();
 
     private MixpanelHandler()
     {
@@ -41,13 +40,18 @@ public class MixpanelHandler
      */
     public static boolean sendMessages()
     {
-        if(delivery == null)
-            return false;
-
-        if(uploader != null)
-            uploader.interrupt();
-
-        return sendDelivery() == null;
+        return uploader.flushNow();
+    }
+    /**
+     * Send all collected messages to Mixpanel and stop the background-thread.
+     * This is done automatically by the {@link Logger} when the application exits.
+     * Messages that are added afterwards will start a new background-thread.
+     *
+     * @param timeoutMillis How long to wait for the remaining messages to be sent.
+     */
+    public static void shutdown(long timeoutMillis)
+    {
+        uploader.shutdown(timeoutMillis);
     }
 
     /**
@@ -61,6 +65,36 @@ public class MixpanelHandler
      * @return True if the message was successfully added to the queue, False if some information was missing.
      */
     public static boolean addMessage(String eventName, Map<String, String> properties)
+    {
+        MixpanelEvent event = startEvent(eventName);
+        if(event == null)
+            return false;
+
+        try
+        {
+            if(properties != null)
+            {
+                for(Map.Entry<String, String> property : properties.entrySet())
+                    event.property(property.getKey(), property.getValue());
+            }
+            return event.send();
+        } finally
+        {
+            event.release();
+        }
+    }
+    /**
+     * Start a new Mixpanel event, which can be added to the Mixpanel delivery queue
+     * with {@link MixpanelEvent#send()} after its properties were added.
+     * This is faster than {@link #addMessage(String, Map)}, because no map has to be created for the properties.
+     * Starting an event requires the uniqueID and projectToken to be set.
+     *
+     * @param eventName The name of the event. This will also be visible on Mixpanel.
+     *                  This must not be null.
+     * @return The {@link MixpanelEvent} that should be filled with properties,
+     * or null if some information was missing.
+     */
+    public static MixpanelEvent startEvent(String eventName)
     {
         if(eventName == null || userID == null || projectToken == null)
         {
@@ -71,67 +105,93 @@ public class MixpanelHandler
                     .FILE_ENTRY(false)
                     .PROJECTNAME("JavaLogger");
             Logger.log(l);
-            return false;
+            return null;
         }
 
-        if(properties == null)
-            properties = new HashMap<>();
+        return MixpanelEvent.start(eventName);
+    }
 
-        for(String prop : properties.keySet())
-        {
-            if(MIXPANEL_PROPERTIES.contains(prop.toLowerCase(Locale.ROOT)))
-            {
-                LogEntry l = new LogEntry("Could not add Mixpanel-event to queue. Property '" + prop + "' is a property mixpanel uses itself")
-                        .COLOR(LogColor.RED_BRIGHT)
-                        .LEVEL("ERR")
-                        .CODE(602)
-                        .FILE_ENTRY(false)
-                        .PROJECTNAME("JavaLogger");
-                Logger.log(l);
-                return false;
-            }
-        }
+    /**
+     * Properties that are added with this method will be appended to all future messages that are sent to Mixpanel.
+     * This is useful for version information and other things that do not change on runtime.
+     * A default property replaces the property with the same name of each message.
+     *
+     * @param propertyName  The name of the property that will be visible on Mixpanel.
+     * @param propertyValue The value of the property.
+     * @return True if the property was added, False if a property with this name already exists
+     * or the name is used by Mixpanel itself.
+     */
+    public static synchronized boolean addDefaultProperty(String propertyName, String propertyValue)
+    {
+        if(isReservedProperty(propertyName) || IDENTITY_PROPERTIES.contains(propertyName) || defaultProperties.containsKey(propertyName))
+            return false;
 
-        properties.putAll(defaultProperties);
+        defaultProperties.put(propertyName, propertyValue);
 
-        JSONObject props = new JSONObject();
-        for(Map.Entry<String, String> property : properties.entrySet())
+        StringBuilder json = new StringBuilder();
+        for(Map.Entry<String, String> property : defaultProperties.entrySet())
         {
-            try
-            {
-                props.put(property.getKey(), property.getValue());
-            } catch(JSONException ignored)
-            {
-            }
+            json.append(',');
+            JsonStrings.append(json, property.getKey(), 0, property.getKey().length());
+            json.append(':');
+            if(property.getValue() == null)
+                json.append("null");
+            else
+                JsonStrings.append(json, property.getValue(), 0, property.getValue().length());
         }
-
-        if(delivery == null)
-            delivery = new ClientDelivery();
-
-        delivery.addMessage(getBuilder().event(userID, eventName, props));
-        startUploaderThread();
+        defaultPropertiesSnapshot = new DefaultProperties(new HashSet<>(defaultProperties.keySet()), json.toString());
         return true;
     }
-
     /**
-     * Properties that are added with this method will be appended to all future messages that are sent to Mixpanel.
-     * This is useful for version information and other things that do not change on runtime.
+     * Change the URL to which Mixpanel messages are uploaded.
+     * This can be used to send messages to a local collector instead of Mixpanel.
      *
-     * @param propertyName  The name of the property that will be visible on Mixpanel.
-     * @param propertyValue The value of the property.
-     * @return True if the property was added, False if a property with this name already exists.
+     * @param url The URL of the endpoint that receives the messages
+     *            (Default is "https://api.mixpanel.com/track").
+     * @return True if the URL was set, False if it is not a valid http- or https-URL.
      */
-    public static boolean addDefaultProperty(String propertyName, String propertyValue)
+    public static boolean setEndpoint(String url)
     {
-        if(defaultProperties.containsKey(propertyName))
+        if(url == null || !(url.startsWith("http://") || url.startsWith("https://")))
             return false;
 
-        if(MIXPANEL_PROPERTIES.contains(propertyName.toLowerCase(Locale.ROOT)))
+        try
+        {
+            uploader.setEndpoint(url);
+            return true;
+        } catch(IllegalArgumentException e)
+        {
+            return false;
+        }
+    }
+    /**
+     * Change how many batches of Mixpanel messages can be uploaded at the same time.
+     * More uploads at the same time help if a lot of messages are created,
+     * but each upload uses its own connection.
+     *
+     * @param concurrentUploads The number of batches that can be uploaded at the same time
+     *                          (Min 1, Max 16, Default is 1).
+     * @return True if the number was set, False if it was outside the allowed range.
+     */
+    public static boolean setUploadWorkers(int concurrentUploads)
+    {
+        if(concurrentUploads < 1 || concurrentUploads > 16)
             return false;
 
-        defaultProperties.put(propertyName, propertyValue);
+        uploader.setWorkers(concurrentUploads);
         return true;
     }
+    /**
+     * Set weather the uploads to Mixpanel should be compressed with gzip.
+     * Only enable this if the endpoint accepts a body with the "Content-Encoding: gzip" header.
+     *
+     * @param compressUploads If the body of each upload should be compressed
+     *                        (Default is false).
+     */
+    public static void setCompressUploads(boolean compressUploads)
+    {
+        uploader.setCompress(compressUploads);
+    }
     /**
      * Set the minimum millisecond delay between each mixpanel delivery.
      *
@@ -143,10 +203,79 @@ public class MixpanelHandler
         if(minMillisBetweenMessages < 500)
             return false;
 
-        updateDelay = minMillisBetweenMessages;
+        uploader.setDelay(minMillisBetweenMessages);
         return true;
     }
 
+    /**
+     * Get the current state of the Mixpanel uploads.
+     * The map contains the number of "queuedMessages" that wait for an upload in memory,
+     * the number of "spooledMessages" that wait for an upload on the disk,
+     * the number of "inFlightBatches" that are uploaded right now,
+     * the number of "deliveredBatches" and "failedBatches",
+     * how many "retries" were made for failed batches,
+     * how many "droppedMessages" were removed because the queue in memory was full,
+     * the "circuitState" (0 is closed, 1 is half-open and 2 is open)
+     * and the "retryDelayMillis" until the next upload is attempted after a failure.
+     *
+     * @return A map with the name and the value of each metric.
+     */
+    public static Map<String, Long> getUploadMetrics()
+    {
+        return uploader.getMetrics();
+    }
+    /**
+     * Check if uploads to Mixpanel are paused, because several uploads failed in a row.
+     * While the circuit is open, only a single upload is attempted after each waiting time,
+     * and the time between these attempts grows up to 5 minutes.
+     *
+     * @return True if uploads are paused, False if messages are uploaded normally.
+     */
+    public static boolean isCircuitOpen()
+    {
+        return uploader.isCircuitOpen();
+    }
+    /**
+     * Store all future Mixpanel messages in a folder until Mixpanel accepted them.
+     * Messages that could not be uploaded, because Mixpanel was not reachable or the application stopped,
+     * stay in this folder and are uploaded later, even after a restart.
+     * Messages that are already stored in the folder are uploaded in the background.
+     *
+     * @param spoolFolder The folder in which the messages are stored, or null to only keep them in memory
+     *                    (Default is null).
+     * @param maxBytes    The maximum size of all stored messages in bytes.
+     *                    If this size is reached, the oldest messages are deleted
+     *                    (Min 65536).
+     * @return True if the folder is used, False if the size was too small or the folder could not be used.
+     */
+    public static boolean setSpoolFolder(File spoolFolder, long maxBytes)
+    {
+        if(spoolFolder == null)
+        {
+            uploader.setSpool(null);
+            return true;
+        }
+        if(maxBytes < 65536)
+            return false;
+
+        try
+        {
+            uploader.setSpool(MixpanelSpool.open(spoolFolder, maxBytes));
+            return true;
+        } catch(IOException e)
+        {
+            LogEntry l = new LogEntry("Could not open the Mixpanel spool-folder: " + spoolFolder)
+                    .COLOR(LogColor.RED_BRIGHT)
+                    .LEVEL("ERR")
+                    .CODE(609)
+                    .EXCEPTION(e)
+                    .FILE_ENTRY(false)
+                    .PROJECTNAME("JavaLogger");
+            Logger.log(l);
+            return false;
+        }
+    }
+
     /**
      * Set the project-token that can be obtained from Mixpanel.
      * This is required to successfully send messages to Mixpanel.
@@ -156,6 +285,7 @@ public class MixpanelHandler
     public static void setProjectToken(String mixpanelProjectToken)
     {
         projectToken = mixpanelProjectToken;
+        updateIdentityJson();
     }
     /**
      * Set a distinct ID for all Mixpanel messages sent from this application-instance.
@@ -166,72 +296,70 @@ public class MixpanelHandler
     public static void setUniqueUserID(String distinctMixpanelID)
     {
         userID = distinctMixpanelID;
+        updateIdentityJson();
     }
 
-    private static MessageBuilder getBuilder()
+    static DefaultProperties getDefaultProperties()
     {
-        if(builder == null)
-            builder = new MessageBuilder(projectToken);
-        return builder;
+        return defaultPropertiesSnapshot;
     }
+    static String getIdentityJson()
+    {
+        return identityJson;
+    }
+    static boolean isReservedProperty(String propertyName)
+    {
+        Boolean reserved = checkedPropertyNames.get(propertyName);
+        if(reserved != null)
+            return reserved;
 
-    private static void startUploaderThread()
+        reserved = MIXPANEL_PROPERTIES.contains(propertyName.toLowerCase(Locale.ROOT));
+        if(checkedPropertyNames.size() < 4096)
+            checkedPropertyNames.put(propertyName, reserved);
+        return reserved;
+    }
+    static boolean isIdentityProperty(String propertyName)
     {
-        if(uploader == null)
-        {
-            uploader = new Thread(() ->
-            {
-                try
-                {
-                    Thread.sleep(updateDelay);
-                } catch(InterruptedException e)
-                {
-                    uploader = null;
-                    return;
-                }
-
-                IOException e = sendDelivery();
-                if(e != null)
-                {
-                    LogEntry l = new LogEntry("Could not upload a Mixpanel delivery")
-                            .COLOR(LogColor.RED_BRIGHT)
-                            .LEVEL("ERR")
-                            .CODE(603)
-                            .EXCEPTION(e)
-                            .FILE_ENTRY(false)
-                            .PROJECTNAME("JavaLogger");
-                    Logger.log(l);
-                }
-
-                uploader = null;
-            });
-        }
+        return IDENTITY_PROPERTIES.contains(propertyName);
+    }
+    static void enqueue(byte[] event)
+    {
+        uploader.add(event);
+    }
 
-        if(!uploader.isAlive())
-            uploader.start();
+    private static synchronized void updateIdentityJson()
+    {
+        StringBuilder json = new StringBuilder(",\"distinct_id\":");
+        String id = userID == null ? "" : userID;
+        String token = projectToken == null ? "" : projectToken;
+        JsonStrings.append(json, id, 0, id.length());
+        json.append(",\"mp_lib\":\"jdk\",\"token\":");
+        JsonStrings.append(json, token, 0, token.length());
+        identityJson = json.toString();
     }
 
-    private static IOException sendDelivery()
+    private static final Set<String> MIXPANEL_PROPERTIES = new HashSet<>(Arrays.asList(
+            "api endpoint",
+            "api timestamp",
+            "distinct id",
+            "insert id",
+            "mixpanel library",
+            "time",
+            "time processed"));
+    private static final Set<String> IDENTITY_PROPERTIES = new HashSet<>(Arrays.asList(
+            "distinct_id",
+            "mp_lib",
+            "token"));
+
+    static class DefaultProperties
     {
-        try
-        {
-            new MixpanelAPI().deliver(delivery);
-        } catch(IOException e)
+        final Set<String> names;
+        final String json;
+
+        private DefaultProperties(Set<String> names, String json)
         {
-            return e;
+            this.names = names;
+            this.json = json;
         }
-
-        delivery = null;
-        return null;
-    }
-    private static final ArrayList<String> MIXPANEL_PROPERTIES = new ArrayList<>()
-    {{
-        add("api endpoint");
-        add("api timestamp");
-        add("distinct id");
-        add("insert id");
-        add("mixpanel library");
-        add("time");
-        add("time processed");
-    }};
+    }
 }
@@ -0,0 +1,128 @@
+package io.fi0x.javalogger.mixpanel;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * This class is used internally to upload batches of Mixpanel messages over HTTP.
+ * All uploads share one {@link HttpClient}, which keeps its connections open and reuses them,
+ * and several batches can be uploaded at the same time.
+ * The request has the same format as the requests of the mixpanel-api,
+ * but the events are already serialized and the body can be compressed with gzip.
+ * Compression is only used if it is enabled, because the gzip-body depends on the endpoint accepting it.
+ */
+class MixpanelSender
+{
+    static final String DEFAULT_ENDPOINT = "https://api.mixpanel.com/track";
+    private static final byte[] DATA_PREFIX = "data=".getBytes(StandardCharsets.US_ASCII);
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(2))
+            .build();
+    private volatile URI endpoint = withoutIp(DEFAULT_ENDPOINT);
+    private volatile boolean compress;
+
+    void setEndpoint(String url)
+    {
+        endpoint = withoutIp(url);
+    }
+    void setCompress(boolean compressBody)
+    {
+        compress = compressBody;
+    }
+
+    CompletableFuture<Void> send(List<byte[]> messages)
+    {
+        try
+        {
+            HttpRequest.Builder request = HttpRequest.newBuilder(endpoint)
+                    .timeout(Duration.ofSeconds(10))
+                    .header("Content-Type", "application/x-www-form-urlencoded;charset=utf8");
+
+            byte[] body = encode(messages);
+            if(compress)
+            {
+                body = gzip(body);
+                request.header("Content-Encoding", "gzip");
+            }
+
+            return client.sendAsync(request.POST(HttpRequest.BodyPublishers.ofByteArray(body)).build(), HttpResponse.BodyHandlers.ofString())
+                    .thenApply(response ->
+                    {
+                        if(response.statusCode() / 100 != 2 || "0".equals(response.body().trim()))
+                            throw new CompletionException(new IOException("Mixpanel rejected the delivery with status " + response.statusCode() + ": " + response.body()));
+                        return null;
+                    });
+        } catch(RuntimeException e)
+        {
+            CompletableFuture<Void> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
+    private static byte[] encode(List<byte[]> messages)
+    {
+        int length = 2 + messages.size();
+        for(byte[] message : messages)
+            length += message.length;
+
+        byte[] events = new byte[length];
+        int position = 0;
+        events[position++] = '[';
+        for(byte[] message : messages)
+        {
+            if(position > 1)
+                events[position++] = ',';
+            System.arraycopy(message, 0, events, position, message.length);
+            position += message.length;
+        }
+        events[position++] = ']';
+
+        byte[] data = Base64.getEncoder().encode(Arrays.copyOf(events, position));
+        byte[] body = new byte[DATA_PREFIX.length + data.length * 3];
+        System.arraycopy(DATA_PREFIX, 0, body, 0, DATA_PREFIX.length);
+        position = DATA_PREFIX.length;
+        for(byte b : data)
+        {
+            if(b == '+' || b == '/' || b == '=')
+            {
+                body[position++] = '%';
+                body[position++] = (byte) HEX[(b >> 4) & 0xF];
+                body[position++] = (byte) HEX[b & 0xF];
+            } else
+                body[position++] = b;
+        }
+        return Arrays.copyOf(body, position);
+    }
+    private static byte[] gzip(byte[] body)
+    {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 2 + 64);
+        try(GZIPOutputStream out = new GZIPOutputStream(compressed))
+        {
+            out.write(body);
+        } catch(IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+    private static URI withoutIp(String url)
+    {
+        return URI.create(url + (url.contains("?") ? "&" : "?") + "ip=0");
+    }
+}
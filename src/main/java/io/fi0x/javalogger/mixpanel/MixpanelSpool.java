@@ -0,0 +1,347 @@
+package io.fi0x.javalogger.mixpanel;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * This class is used internally to store Mixpanel messages on the disk until they were uploaded.
+ * Messages are appended as lines of JSON to segment-files, and a new segment-file is started when the current one is full.
+ * The position up to which all messages were uploaded is saved in a separate file,
+ * so messages that were not acknowledged are uploaded again after a restart.
+ * If the spool gets larger than its limit, the oldest segment-files are deleted.
+ * The number of messages in each segment-file is kept in memory,
+ * so neither appending nor deleting a segment-file has to read it again.
+ * The files are never forced to the disk, so the messages survive a crash of the application,
+ * but a crash of the operating-system or a power-loss can lose the latest messages,
+ * or upload messages again whose acknowledgement was not written yet.
+ */
+class MixpanelSpool
+{
+    private static final String SEGMENT_SUFFIX = ".spool";
+    private static final String ACK_FILE = "acknowledged";
+    private static final int READ_CHUNK = 65536;
+    private static final byte[] NEWLINE = {'\n'};
+
+    private final File folder;
+    private final long maxBytes;
+    private final long segmentSize;
+    private final TreeMap<Long, Long> segmentMessages = new TreeMap<>();
+    private FileChannel writeChannel;
+    private long writeSegment;
+    private long ackSegment;
+    private long ackOffset;
+    private long ackMessages;
+    private long pendingMessages;
+    private long totalBytes;
+    private long droppedMessages;
+
+    private MixpanelSpool(File folder, long maxBytes)
+    {
+        this.folder = folder;
+        this.maxBytes = maxBytes;
+        segmentSize = Math.max(16384, Math.min(4 * 1024 * 1024, maxBytes / 8));
+    }
+
+    static MixpanelSpool open(File folder, long maxBytes) throws IOException
+    {
+        Files.createDirectories(folder.toPath());
+        MixpanelSpool spool = new MixpanelSpool(folder, maxBytes);
+        spool.load();
+        return spool;
+    }
+
+    synchronized void append(byte[] message) throws IOException
+    {
+        if(writeChannel.size() >= segmentSize)
+            startSegment(writeSegment + 1);
+
+        ByteBuffer[] line = {ByteBuffer.wrap(message), ByteBuffer.wrap(NEWLINE)};
+        totalBytes += message.length + NEWLINE.length;
+        while(line[1].hasRemaining())
+            writeChannel.write(line);
+        segmentMessages.merge(writeSegment, 1L, Long::sum);
+        pendingMessages++;
+
+        enforceLimit();
+    }
+
+    synchronized Batch read(int maxMessages, Batch previous) throws IOException
+    {
+        List<byte[]> messages = new ArrayList<>();
+        long segment = previous == null ? ackSegment : previous.segment;
+        long offset = previous == null ? ackOffset : previous.offset;
+        long segmentCount = previous == null ? ackMessages : previous.segmentMessages;
+        while(messages.size() < maxMessages)
+        {
+            File file = segmentFile(segment);
+            long size = file.exists() ? file.length() : 0;
+            if(offset >= size)
+            {
+                if(segment >= writeSegment)
+                    break;
+                segment++;
+                offset = 0;
+                segmentCount = 0;
+                continue;
+            }
+
+            int chunk = (int) Math.min(size - offset, READ_CHUNK);
+            int parsed = 0;
+            while(parsed == 0)
+            {
+                byte[] bytes = readBytes(file, offset, chunk);
+                int start = 0;
+                for(int i = 0; i < bytes.length && messages.size() < maxMessages; i++)
+                {
+                    if(bytes[i] != '\n')
+                        continue;
+
+                    messages.add(Arrays.copyOfRange(bytes, start, i));
+                    start = i + 1;
+                    parsed++;
+                    segmentCount++;
+                }
+                offset += start;
+
+                if(parsed == 0 && chunk < size - offset)
+                    chunk = (int) Math.min(size - offset, chunk * 2L);
+                else
+                    break;
+            }
+
+            if(parsed == 0)
+            {
+                if(segment >= writeSegment)
+                    break;
+                offset = size;
+            }
+        }
+        return new Batch(messages, segment, offset, segmentCount);
+    }
+
+    synchronized void acknowledge(Batch batch) throws IOException
+    {
+        if(batch.segment < ackSegment || (batch.segment == ackSegment && batch.offset <= ackOffset))
+            return;
+
+        long acknowledged = batch.segmentMessages - ackMessages;
+        for(long segment = ackSegment; segment < batch.segment; segment++)
+        {
+            acknowledged += segmentMessages.getOrDefault(segment, 0L);
+            deleteSegment(segment);
+        }
+        ackSegment = batch.segment;
+        ackOffset = batch.offset;
+        ackMessages = batch.segmentMessages;
+        pendingMessages -= acknowledged;
+        saveAcknowledged();
+    }
+
+    synchronized long getAndResetDroppedMessages()
+    {
+        long dropped = droppedMessages;
+        droppedMessages = 0;
+        return dropped;
+    }
+
+    synchronized boolean hasPendingMessages()
+    {
+        return pendingMessages > 0;
+    }
+
+    synchronized long getPendingMessages()
+    {
+        return pendingMessages;
+    }
+
+    synchronized void close() throws IOException
+    {
+        writeChannel.close();
+    }
+
+    private void load() throws IOException
+    {
+        long first = Long.MAX_VALUE;
+        long last = -1;
+        File[] segments = folder.listFiles((dir, name) -> name.endsWith(SEGMENT_SUFFIX));
+        if(segments != null)
+        {
+            for(File segment : segments)
+            {
+                long index = segmentIndex(segment);
+                if(index < 0)
+                    continue;
+                first = Math.min(first, index);
+                last = Math.max(last, index);
+                totalBytes += segment.length();
+                segmentMessages.put(index, countMessages(segment, segment.length()));
+            }
+        }
+
+        ackSegment = last < 0 ? 0 : first;
+        ackOffset = 0;
+        File ack = new File(folder, ACK_FILE);
+        if(ack.exists())
+        {
+            String[] parts = new String(Files.readAllBytes(ack.toPath()), StandardCharsets.UTF_8).trim().split(" ");
+            try
+            {
+                long segment = Long.parseLong(parts[0]);
+                if(segment >= ackSegment)
+                {
+                    ackSegment = segment;
+                    ackOffset = Long.parseLong(parts[1]);
+                }
+            } catch(NumberFormatException | ArrayIndexOutOfBoundsException ignored)
+            {
+            }
+        }
+
+        boolean changed = false;
+        for(long segment : new ArrayList<>(segmentMessages.headMap(ackSegment).keySet()))
+            deleteSegment(segment);
+        while(ackSegment <= last && segmentFile(ackSegment).length() <= ackOffset)
+        {
+            deleteSegment(ackSegment);
+            ackSegment++;
+            ackOffset = 0;
+            changed = true;
+        }
+        if(changed)
+            saveAcknowledged();
+
+        ackMessages = countMessages(segmentFile(ackSegment), ackOffset);
+        for(long messages : segmentMessages.values())
+            pendingMessages += messages;
+        pendingMessages -= ackMessages;
+
+        startSegment(Math.max(last + 1, ackSegment));
+    }
+
+    private void startSegment(long index) throws IOException
+    {
+        if(writeChannel != null)
+            writeChannel.close();
+
+        writeSegment = index;
+        segmentMessages.putIfAbsent(index, 0L);
+        writeChannel = FileChannel.open(segmentFile(index).toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private void enforceLimit() throws IOException
+    {
+        boolean changed = false;
+        while(totalBytes > maxBytes && ackSegment < writeSegment)
+        {
+            long dropped = segmentMessages.getOrDefault(ackSegment, 0L) - ackMessages;
+            droppedMessages += dropped;
+            pendingMessages -= dropped;
+            deleteSegment(ackSegment);
+            ackSegment++;
+            ackOffset = 0;
+            ackMessages = 0;
+            changed = true;
+        }
+        if(changed)
+            saveAcknowledged();
+    }
+
+    private static long countMessages(File file, long end) throws IOException
+    {
+        if(!file.exists())
+            return 0;
+
+        long count = 0;
+        ByteBuffer bytes = ByteBuffer.allocate(READ_CHUNK);
+        try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+        {
+            long position = 0;
+            while(position < end)
+            {
+                bytes.clear();
+                bytes.limit((int) Math.min(READ_CHUNK, end - position));
+                int read = channel.read(bytes, position);
+                if(read < 0)
+                    break;
+                for(int i = 0; i < read; i++)
+                {
+                    if(bytes.get(i) == '\n')
+                        count++;
+                }
+                position += read;
+            }
+        }
+        return count;
+    }
+
+    private static byte[] readBytes(File file, long offset, int length) throws IOException
+    {
+        ByteBuffer bytes = ByteBuffer.allocate(length);
+        try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+        {
+            while(bytes.hasRemaining())
+            {
+                if(channel.read(bytes, offset + bytes.position()) < 0)
+                    break;
+            }
+        }
+        return bytes.position() == length ? bytes.array() : Arrays.copyOf(bytes.array(), bytes.position());
+    }
+    private void deleteSegment(long segment) throws IOException
+    {
+        File file = segmentFile(segment);
+        long length = file.length();
+        segmentMessages.remove(segment);
+        if(Files.deleteIfExists(file.toPath()))
+            totalBytes -= length;
+    }
+
+    private void saveAcknowledged() throws IOException
+    {
+        File temporary = new File(folder, ACK_FILE + ".tmp");
+        Files.write(temporary.toPath(), (ackSegment + " " + ackOffset).getBytes(StandardCharsets.UTF_8));
+        Files.move(temporary.toPath(), new File(folder, ACK_FILE).toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private File segmentFile(long index)
+    {
+        return new File(folder, String.format("%016d", index) + SEGMENT_SUFFIX);
+    }
+    private static long segmentIndex(File segment)
+    {
+        String name = segment.getName();
+        try
+        {
+            return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+        } catch(NumberFormatException e)
+        {
+            return -1;
+        }
+    }
+
+    static class Batch
+    {
+        final List<byte[]> messages;
+        private final long segment;
+        private final long offset;
+        private final long segmentMessages;
+
+        private Batch(List<byte[]> messages, long segment, long offset, long segmentMessages)
+        {
+            this.messages = messages;
+            this.segment = segment;
+            this.offset = offset;
+            this.segmentMessages = segmentMessages;
+        }
+    }
+}
@@ -0,0 +1,407 @@
+package io.fi0x.javalogger.mixpanel;
+
+import io.fi0x.javalogger.logging.LogColor;
+import io.fi0x.javalogger.logging.LogEntry;
+import io.fi0x.javalogger.logging.Logger;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class is used internally to collect Mixpanel messages and upload them in batches.
+ * Any thread can add messages to a lock-free queue,
+ * and a single background-thread takes them out of the queue and hands them to the {@link MixpanelSender}.
+ * A batch is sent as soon as it is full, and all remaining messages are sent after a delay.
+ * Up to the configured number of batches are uploaded at the same time.
+ * The background-thread is only started when the first message is added.
+ * If a {@link MixpanelSpool} is set, messages are written to the disk instead of the queue
+ * and are only removed from the disk after Mixpanel accepted them.
+ * Messages that could not be written to the spool are kept in the queue instead.
+ * The queue holds at most {@link #MAX_QUEUED_MESSAGES}, the size of the spool is only limited by its own limit.
+ * Failed uploads are retried later according to the {@link UploadCircuitBreaker},
+ * without blocking the background-thread while it waits.
+ */
+class MixpanelUploader
+{
+    static final int BATCH_SIZE = 50;
+    static final int MAX_QUEUED_MESSAGES = 10000;
+
+    private final ConcurrentLinkedQueue<byte[]> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicBoolean batchFlushRequested = new AtomicBoolean();
+    private final MixpanelSender sender = new MixpanelSender();
+    private final UploadCircuitBreaker breaker = new UploadCircuitBreaker();
+    private final AtomicInteger inFlightBatches = new AtomicInteger();
+    private final LongAdder deliveredBatches = new LongAdder();
+    private final LongAdder failedBatches = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder droppedMessages = new LongAdder();
+    private volatile MixpanelSpool spool;
+    private final List<List<byte[]>> retryBatches = new ArrayList<>();
+    private volatile int workers = 1;
+    private ScheduledFuture<?> retryFlush;
+    private volatile ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> delayedFlush;
+    private long delayMillis;
+
+    MixpanelUploader(long delayMillis)
+    {
+        this.delayMillis = delayMillis;
+    }
+
+    void add(byte[] message)
+    {
+        MixpanelSpool currentSpool = spool;
+        long pending;
+        if(currentSpool != null && appendToSpool(currentSpool, message))
+            pending = currentSpool.getPendingMessages();
+        else
+        {
+            queue.offer(message);
+            pending = queued.incrementAndGet();
+            if(pending > MAX_QUEUED_MESSAGES && queue.poll() != null)
+            {
+                pending = queued.decrementAndGet();
+                droppedMessages.increment();
+            }
+        }
+
+        ScheduledExecutorService executor = scheduler;
+        if(executor == null)
+            executor = start();
+
+        if(pending >= BATCH_SIZE && !breaker.isWaiting(System.currentTimeMillis())
+                && batchFlushRequested.compareAndSet(false, true))
+        {
+            try
+            {
+                executor.execute(() ->
+                {
+                    batchFlushRequested.set(false);
+                    flush(false);
+                });
+            } catch(RejectedExecutionException e)
+            {
+                batchFlushRequested.set(false);
+            }
+        }
+    }
+
+    boolean flushNow()
+    {
+        ScheduledExecutorService executor = scheduler;
+        MixpanelSpool currentSpool = spool;
+        if(executor == null || (queued.get() <= 0 && (currentSpool == null || !currentSpool.hasPendingMessages())))
+            return false;
+
+        try
+        {
+            return executor.submit(() -> flush(true)).get();
+        } catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch(ExecutionException | RejectedExecutionException e)
+        {
+            return false;
+        }
+    }
+
+    Map<String, Long> getMetrics()
+    {
+        Map<String, Long> metrics = new HashMap<>();
+        MixpanelSpool currentSpool = spool;
+        metrics.put("queuedMessages", (long) queued.get());
+        metrics.put("spooledMessages", currentSpool == null ? 0 : currentSpool.getPendingMessages());
+        metrics.put("inFlightBatches", (long) inFlightBatches.get());
+        metrics.put("deliveredBatches", deliveredBatches.sum());
+        metrics.put("failedBatches", failedBatches.sum());
+        metrics.put("retries", retries.sum());
+        metrics.put("droppedMessages", droppedMessages.sum());
+        metrics.put("circuitState", (long) breaker.getState());
+        metrics.put("retryDelayMillis", breaker.getDelay(System.currentTimeMillis()));
+        return metrics;
+    }
+    void setWorkers(int concurrentUploads)
+    {
+        workers = concurrentUploads;
+    }
+    void setEndpoint(String url)
+    {
+        sender.setEndpoint(url);
+    }
+    void setCompress(boolean compressUploads)
+    {
+        sender.setCompress(compressUploads);
+    }
+    boolean isCircuitOpen()
+    {
+        return breaker.getState() == UploadCircuitBreaker.OPEN;
+    }
+
+    void setSpool(MixpanelSpool newSpool)
+    {
+        MixpanelSpool old;
+        synchronized(this)
+        {
+            old = spool;
+            spool = newSpool;
+        }
+        if(old != null)
+        {
+            try
+            {
+                old.close();
+            } catch(IOException e)
+            {
+                logError("Could not close the Mixpanel spool", 609, e);
+            }
+        }
+        if(newSpool != null && newSpool.hasPendingMessages() && scheduler == null)
+            start();
+    }
+
+    synchronized void setDelay(long millis)
+    {
+        delayMillis = millis;
+        if(scheduler != null)
+            scheduleDelayedFlush();
+    }
+
+    void shutdown(long timeoutMillis)
+    {
+        ScheduledExecutorService executor;
+        synchronized(this)
+        {
+            executor = scheduler;
+            scheduler = null;
+        }
+        if(executor == null)
+            return;
+
+        try
+        {
+            executor.execute(() -> flush(true));
+        } catch(RejectedExecutionException ignored)
+        {
+        }
+        executor.shutdown();
+        try
+        {
+            executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private synchronized ScheduledExecutorService start()
+    {
+        if(scheduler == null)
+        {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable ->
+            {
+                Thread thread = new Thread(runnable, "JavaLogger-Mixpanel");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduleDelayedFlush();
+        }
+        return scheduler;
+    }
+    private void scheduleDelayedFlush()
+    {
+        if(delayedFlush != null)
+            delayedFlush.cancel(false);
+        delayedFlush = scheduler.scheduleWithFixedDelay(() -> flush(true), delayMillis, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private boolean appendToSpool(MixpanelSpool currentSpool, byte[] message)
+    {
+        try
+        {
+            currentSpool.append(message);
+        } catch(IOException e)
+        {
+            logError("Could not write a Mixpanel message to the spool", 609, e);
+            return false;
+        }
+
+        long dropped = currentSpool.getAndResetDroppedMessages();
+        if(dropped > 0)
+            logError("The Mixpanel spool is full, " + dropped + " of the oldest messages were deleted", 608, null);
+        return true;
+    }
+
+    private boolean flush(boolean includePartialBatch)
+    {
+        if(breaker.isWaiting(System.currentTimeMillis()))
+        {
+            scheduleRetry();
+            return false;
+        }
+
+        MixpanelSpool currentSpool = spool;
+        if(currentSpool != null && !flushSpool(currentSpool))
+            return false;
+
+        while(true)
+        {
+            List<List<byte[]>> round = new ArrayList<>(retryBatches);
+            retryBatches.clear();
+            List<byte[]> batch;
+            while(round.size() < workers && (batch = pollBatch(includePartialBatch)) != null)
+                round.add(batch);
+            if(round.isEmpty())
+                return true;
+
+            boolean[] delivered = deliver(round);
+            for(int i = 0; i < round.size(); i++)
+            {
+                if(!delivered[i])
+                    retryBatches.add(round.get(i));
+            }
+            if(!retryBatches.isEmpty())
+            {
+                scheduleRetry();
+                return false;
+            }
+        }
+    }
+    private List<byte[]> pollBatch(boolean includePartialBatch)
+    {
+        int available = queued.get();
+        if(available < BATCH_SIZE && !(includePartialBatch && available > 0))
+            return null;
+
+        List<byte[]> batch = new ArrayList<>(BATCH_SIZE);
+        byte[] message;
+        while(batch.size() < BATCH_SIZE && (message = queue.poll()) != null)
+            batch.add(message);
+        if(batch.isEmpty())
+            return null;
+
+        queued.addAndGet(-batch.size());
+        return batch;
+    }
+    private boolean flushSpool(MixpanelSpool currentSpool)
+    {
+        try
+        {
+            while(true)
+            {
+                List<MixpanelSpool.Batch> round = new ArrayList<>();
+                List<List<byte[]>> messages = new ArrayList<>();
+                MixpanelSpool.Batch batch = null;
+                while(round.size() < workers && !(batch = currentSpool.read(BATCH_SIZE, batch)).messages.isEmpty())
+                {
+                    round.add(batch);
+                    messages.add(batch.messages);
+                }
+                if(round.isEmpty())
+                    return true;
+
+                boolean[] delivered = deliver(messages);
+                int acknowledged = 0;
+                while(acknowledged < round.size() && delivered[acknowledged])
+                    acknowledged++;
+                if(acknowledged > 0)
+                    currentSpool.acknowledge(round.get(acknowledged - 1));
+                if(acknowledged < round.size())
+                {
+                    scheduleRetry();
+                    return false;
+                }
+            }
+        } catch(IOException e)
+        {
+            logError("Could not read Mixpanel messages from the spool", 609, e);
+            return false;
+        }
+    }
+    private boolean[] deliver(List<List<byte[]>> batches)
+    {
+        boolean[] delivered = new boolean[batches.size()];
+        if(breaker.isWaiting(System.currentTimeMillis()))
+            return delivered;
+
+        breaker.beforeAttempt();
+        boolean isRetry = breaker.isRetrying();
+        int attempts = breaker.getState() == UploadCircuitBreaker.HALF_OPEN ? 1 : batches.size();
+
+        List<CompletableFuture<Void>> uploads = new ArrayList<>(attempts);
+        for(int i = 0; i < attempts; i++)
+        {
+            if(isRetry)
+                retries.increment();
+            inFlightBatches.incrementAndGet();
+            uploads.add(sender.send(batches.get(i)).whenComplete((result, e) -> inFlightBatches.decrementAndGet()));
+        }
+
+        Throwable failure = null;
+        for(int i = 0; i < attempts; i++)
+        {
+            try
+            {
+                uploads.get(i).get();
+                delivered[i] = true;
+                deliveredBatches.increment();
+            } catch(ExecutionException e)
+            {
+                failure = e.getCause();
+                failedBatches.increment();
+            } catch(InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                failure = e;
+                failedBatches.increment();
+            }
+        }
+
+        if(failure == null)
+        {
+            breaker.onSuccess();
+            return delivered;
+        }
+
+        long now = System.currentTimeMillis();
+        boolean opened = breaker.onFailure(now);
+        Exception cause = failure instanceof Exception ? (Exception) failure : new ExecutionException(failure);
+        if(!isRetry)
+            logError("Could not upload a Mixpanel delivery, it will be retried in " + breaker.getDelay(now) + "ms", 603, cause);
+        if(opened)
+            logError("Mixpanel is not reachable, uploads are paused until it is available again", 610, cause);
+        return delivered;
+    }
+    private void scheduleRetry()
+    {
+        ScheduledExecutorService executor = scheduler;
+        if(executor == null || (retryFlush != null && !retryFlush.isDone()))
+            return;
+
+        try
+        {
+            retryFlush = executor.schedule(() -> flush(true), breaker.getDelay(System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        } catch(RejectedExecutionException ignored)
+        {
+        }
+    }
+
+    private static void logError(String message, int code, Exception e)
+    {
+        LogEntry l = new LogEntry(message)
+                .COLOR(LogColor.RED_BRIGHT)
+                .LEVEL("ERR")
+                .CODE(code)
+                .EXCEPTION(e)
+                .FILE_ENTRY(false)
+                .PROJECTNAME("JavaLogger");
+        Logger.log(l);
+    }
+}
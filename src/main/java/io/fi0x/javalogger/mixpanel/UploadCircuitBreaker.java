@@ -0,0 +1,82 @@
+package io.fi0x.javalogger.mixpanel;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * This class is used internally to decide when the {@link MixpanelUploader} may try to upload again
+ * after an upload failed.
+ * Each failure doubles the waiting time, with a random part so many applications do not retry at the same time.
+ * After several failures in a row the circuit is opened, and only a single upload is tried after each waiting time.
+ * The first successful upload closes the circuit again.
+ * The time is always passed in by the caller, and the random part can be replaced, so the states can be tested.
+ */
+class UploadCircuitBreaker
+{
+    static final int CLOSED = 0;
+    static final int HALF_OPEN = 1;
+    static final int OPEN = 2;
+
+    static final int FAILURE_THRESHOLD = 5;
+    static final long BASE_DELAY = 1000;
+    static final long MAX_DELAY = 5 * 60 * 1000;
+
+    private final LongUnaryOperator jitter;
+
+    private volatile int state = CLOSED;
+    private volatile long nextAttempt;
+    private int consecutiveFailures;
+
+    UploadCircuitBreaker()
+    {
+        this(delay -> delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1));
+    }
+    /**
+     * @param jitter Calculates the waiting time from the doubled delay.
+     */
+    UploadCircuitBreaker(LongUnaryOperator jitter)
+    {
+        this.jitter = jitter;
+    }
+
+    boolean isWaiting(long now)
+    {
+        return now < nextAttempt;
+    }
+    int getState()
+    {
+        return state;
+    }
+    synchronized boolean isRetrying()
+    {
+        return consecutiveFailures > 0;
+    }
+    long getDelay(long now)
+    {
+        return Math.max(0, nextAttempt - now);
+    }
+
+    synchronized void beforeAttempt()
+    {
+        if(state == OPEN)
+            state = HALF_OPEN;
+    }
+    synchronized void onSuccess()
+    {
+        consecutiveFailures = 0;
+        nextAttempt = 0;
+        state = CLOSED;
+    }
+    synchronized boolean onFailure(long now)
+    {
+        consecutiveFailures++;
+        long delay = Math.min(MAX_DELAY, BASE_DELAY << Math.min(consecutiveFailures - 1, 20));
+        delay = jitter.applyAsLong(delay);
+        nextAttempt = now + delay;
+
+        int previous = state;
+        if(previous == HALF_OPEN || consecutiveFailures >= FAILURE_THRESHOLD)
+            state = OPEN;
+        return previous == CLOSED && state == OPEN;
+    }
+}
@@ -0,0 +1,81 @@
+package io.fi0x.javalogger.logging;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The sampler gets the time as an argument, so its rate can be checked for a fixed throughput.
+ * Through the {@link Logger}, a {@link LogTemplate} without prefix is only sent to an {@link Appender}
+ * that collects the {@link LogEntry}s it receives.
+ */
+class AdaptiveSamplerTest
+{
+    private static final String TEMPLATE = "SAMPLED";
+    private static final long WINDOW = 100_000_000L;
+
+    private final List<LogEntry> received = new ArrayList<>();
+
+    @BeforeEach
+    void setUp()
+    {
+        Logger.createNewTemplate(TEMPLATE, LogColor.WHITE, "", "SMP", false, false, 0, false, true, false, false, "LOG", "JavaLogger");
+        Logger.getInstance().setAppenderFilter("console", log -> !TEMPLATE.equals(log.templateName));
+        Logger.getInstance().addAppender("sampled", (entry, text) -> received.add(entry), log -> TEMPLATE.equals(log.templateName), null);
+    }
+    @AfterEach
+    void tearDown()
+    {
+        Logger.setTemplateSampling(TEMPLATE, 0, 1);
+        Logger.getInstance().removeAppender("sampled");
+        Logger.getInstance().setAppenderFilter("console", null);
+    }
+
+    @Test
+    void lowersTheRateWhenTheThroughputIsTooHigh()
+    {
+        AdaptiveSampler sampler = new AdaptiveSampler(100, 0.001, 2);
+        long now = System.nanoTime() + WINDOW;
+        for(int i = 0; i < 5; i++)
+            assertEquals(1, sampler.sample(now));
+        assertEquals(1, sampler.sample(now + WINDOW));
+        assertEquals(1, sampler.getRate());
+
+        for(int i = 0; i < 1000; i++)
+            sampler.sample(now + WINDOW + 1);
+        sampler.sample(now + 2 * WINDOW + 1);
+        assertEquals(0.01, sampler.getRate(), 0.0005);
+        assertTrue(sampler.getSampledOut() > 0);
+    }
+    @Test
+    void keepsEntriesAtTheSeverityFloorAndLeavesTheCallersEntryUnchanged() throws InterruptedException
+    {
+        Logger.setTemplateSampling(TEMPLATE, 10, 0.001, 2);
+        LogEntry verbose = new LogEntry("verbose", TEMPLATE).SEVERITY(0);
+        LogEntry warning = new LogEntry("warning", TEMPLATE).SEVERITY(2);
+
+        int logged = 0;
+        long end = System.nanoTime() + 3 * WINDOW;
+        while(System.nanoTime() < end)
+        {
+            Logger.log(verbose);
+            Logger.log(warning);
+            logged++;
+            assertEquals(1, verbose.sampleRate, "the rate was written into the entry of the caller");
+            if(logged % 1000 == 0)
+                Thread.sleep(1);
+        }
+
+        long warnings = received.stream().filter(entry -> entry.severity == 2).count();
+        long kept = received.stream().filter(entry -> entry.severity == 0).count();
+        assertEquals(logged, warnings, "entries at the severity floor were sampled");
+        assertTrue(kept < logged, "no entry below the severity floor was sampled");
+        assertTrue(received.stream().anyMatch(entry -> entry.severity == 0 && entry.sampleRate < 1), "kept entries do not carry their rate");
+        assertTrue(received.stream().filter(entry -> entry.severity == 2).allMatch(entry -> entry.sampleRate == 1));
+    }
+}
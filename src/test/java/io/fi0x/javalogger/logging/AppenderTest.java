@@ -0,0 +1,168 @@
+package io.fi0x.javalogger.logging;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Registers {@link Appender}s that collect the texts they receive and count how often they are flushed and closed.
+ * The {@link LogTemplate} of the test is hidden from the console, so it only reaches the {@link Appender}s.
+ */
+class AppenderTest
+{
+    private static final String TEMPLATE = "APPENDER_TEST";
+
+    private final CollectingAppender collector = new CollectingAppender();
+
+    @BeforeEach
+    void setUp()
+    {
+        Logger.createNewTemplate(TEMPLATE, LogColor.WHITE, "", "APP", false, false, 0, false, true, false, false, "LOG", "JavaLogger");
+        Logger.getInstance().setAppenderFilter("console", log -> !TEMPLATE.equals(log.getTemplateName()));
+    }
+    @AfterEach
+    void tearDown()
+    {
+        Logger.getInstance().setAsync(false);
+        Logger.getInstance().removeAppender("collector");
+        Logger.getInstance().removeAppender("failing");
+        Logger.getInstance().setAppenderFilter("console", null);
+    }
+
+    @Test
+    void registersEachNameOnce()
+    {
+        assertTrue(Logger.getInstance().addAppender("collector", collector, AppenderTest::isTestEntry, null));
+        assertFalse(Logger.getInstance().addAppender("collector", new CollectingAppender()));
+        assertFalse(Logger.getInstance().addAppender("file", new CollectingAppender()));
+        assertFalse(Logger.getInstance().addAppender(null, new CollectingAppender()));
+        assertFalse(Logger.getInstance().addAppender("other", null));
+
+        List<String> names = Logger.getInstance().getAppenderNames();
+        assertEquals(List.of("console", "file", "mixpanel"), names.subList(0, 3));
+        assertEquals("collector", names.get(names.size() - 1));
+
+        log("first");
+        assertEquals(List.of("first"), collector.copyTexts());
+    }
+    @Test
+    void onlyReceivesEntriesThatPassTheFilter()
+    {
+        Logger.getInstance().addAppender("collector", collector, log -> isTestEntry(log) && log.getErrorCode() != 7, null);
+        log("accepted");
+        Logger.log(new LogEntry("rejected", TEMPLATE).CODE(7));
+        LOG.VERBOSE("hidden entries are never sent to appenders");
+        assertEquals(List.of("accepted"), collector.copyTexts());
+
+        assertFalse(Logger.getInstance().setAppenderFilter("missing", null));
+        assertTrue(Logger.getInstance().setAppenderFilter("collector", log -> isTestEntry(log) && log.getErrorCode() == 7));
+        log("rejected now");
+        Logger.log(new LogEntry("accepted now", TEMPLATE).CODE(7));
+        assertEquals(List.of("accepted", "accepted now"), collector.copyTexts());
+    }
+    @Test
+    void usesTheFormatterOfTheAppender()
+    {
+        Logger.getInstance().addAppender("collector", collector, AppenderTest::isTestEntry, (entry, output) -> output.append('<').append(entry.getText()).append('>'));
+        log("formatted");
+        assertTrue(Logger.getInstance().setAppenderFormatter("collector", (entry, output) -> output.append(entry.getLogLevel())));
+        log("level");
+        assertEquals(List.of("<formatted>", "APP"), collector.copyTexts());
+    }
+    @Test
+    void countsAppendedAndFailedEntries()
+    {
+        Logger.getInstance().addAppender("collector", collector, AppenderTest::isTestEntry, null);
+        Logger.getInstance().addAppender("failing", (entry, text) ->
+        {
+            throw new IOException("unavailable");
+        }, log -> isTestEntry(log) && log.getErrorCode() == 0, null);
+        Logger.getInstance().setAppenderFilter("console", log -> !isTestEntry(log) && log.getErrorCode() != 611);
+
+        for(int i = 0; i < 3; i++)
+            log("entry " + i);
+
+        Map<String, Long> collected = Logger.getInstance().getAppenderMetrics("collector");
+        assertEquals(3, collected.get("appendedEntries"));
+        assertEquals(0, collected.get("failedEntries"));
+        assertEquals(0, collected.get("droppedEntries"));
+        assertEquals(0, collected.get("queuedEntries"));
+        assertTrue(collected.get("maxLatencyNanos") >= collected.get("averageLatencyNanos"));
+
+        Map<String, Long> failed = Logger.getInstance().getAppenderMetrics("failing");
+        assertEquals(0, failed.get("appendedEntries"));
+        assertEquals(3, failed.get("failedEntries"));
+        assertTrue(Logger.getInstance().getAppenderMetrics("missing").isEmpty());
+    }
+    @Test
+    void removingAnAsynchronousAppenderWritesItsQueueAndClosesIt()
+    {
+        Logger.getInstance().setAsync(true);
+        Logger.getInstance().addAppender("collector", collector, AppenderTest::isTestEntry, null);
+        for(int i = 0; i < 100; i++)
+            log("queued " + i);
+
+        assertTrue(Logger.getInstance().removeAppender("collector"));
+        assertFalse(Logger.getInstance().removeAppender("collector"));
+        assertFalse(Logger.getInstance().getAppenderNames().contains("collector"));
+
+        List<String> texts = collector.copyTexts();
+        assertEquals(100, texts.size());
+        assertEquals("queued 99", texts.get(99));
+        assertEquals(1, collector.threads.size(), "all entries have to be appended by the same thread: " + collector.threads);
+        assertTrue(collector.threads.get(0).startsWith("JavaLogger-Async-collector"), collector.threads.toString());
+        assertTrue(collector.flushes >= 1);
+        assertEquals(1, collector.closes);
+
+        log("after removal");
+        assertEquals(100, collector.copyTexts().size());
+    }
+
+    private static void log(String message)
+    {
+        Logger.log(new LogEntry(message, TEMPLATE));
+    }
+    private static boolean isTestEntry(LogEntry log)
+    {
+        return TEMPLATE.equals(log.getTemplateName());
+    }
+
+    private static class CollectingAppender implements Appender
+    {
+        private final List<String> texts = new ArrayList<>();
+        private final List<String> threads = new ArrayList<>();
+        private volatile int flushes;
+        private volatile int closes;
+
+        @Override
+        public synchronized void append(LogEntry entry, CharSequence text)
+        {
+            texts.add(text.toString());
+            String thread = Thread.currentThread().getName();
+            if(!threads.contains(thread))
+                threads.add(thread);
+        }
+        @Override
+        public synchronized void flush()
+        {
+            flushes++;
+        }
+        @Override
+        public synchronized void close()
+        {
+            closes++;
+        }
+
+        private synchronized List<String> copyTexts()
+        {
+            return new ArrayList<>(texts);
+        }
+    }
+}
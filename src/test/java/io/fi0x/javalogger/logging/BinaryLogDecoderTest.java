@@ -0,0 +1,97 @@
+package io.fi0x.javalogger.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link LogEntry}s are encoded with a {@link BinaryLogEncoder} and decoded again,
+ * so every field has to appear in the text format exactly as the text log-file would show it.
+ */
+class BinaryLogDecoderTest
+{
+    private static final long TIME = 1_700_000_000_123L;
+    private static final String NL = System.lineSeparator();
+
+    @Test
+    void decodesEveryFieldOfTheEncodedEntries() throws IOException
+    {
+        BinaryLogEncoder encoder = new BinaryLogEncoder();
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+
+        ByteBuffer first = encoder.encode(entry("ready", "INF", 0, "Alpha", TIME), utf8("ready"), null, BinaryLogEncoder.FLAG_PROJECT_NAME);
+        assertEquals(BinaryLogEncoder.RECORD_DICTIONARY, first.get(BinaryLogEncoder.HEADER.length));
+        write(file, first);
+
+        String unicode = "Größe überschritten – 日本語 🚀";
+        write(file, encoder.encode(entry(unicode, "ERR", 42, "Alpha", TIME - 3), utf8(unicode), "java.io.IOException: disk full", BinaryLogEncoder.FLAG_PROJECT_NAME));
+        write(file, encoder.encode(entry("plain", "INF", 0, "Beta", TIME + 1500), utf8("plain"), null, BinaryLogEncoder.FLAG_PLAIN_TEXT));
+
+        LogEntry sampled = entry("sampled", "INF", -7, "Alpha", TIME + 1501);
+        sampled.sampleRate = 0.25;
+        ByteBuffer reused = encoder.encode(sampled, utf8("sampled"), null, BinaryLogEncoder.FLAG_PROJECT_NAME);
+        assertEquals(BinaryLogEncoder.RECORD_ENTRY, reused.get(0), "the level and the project name were not taken from the dictionary");
+        write(file, reused);
+
+        StringWriter text = new StringWriter();
+        assertEquals(4, BinaryLogDecoder.decode(new ByteArrayInputStream(file.toByteArray()), text));
+        assertEquals(timestamp(TIME) + "[INF][---][Alpha]ready" + NL
+                + timestamp(TIME - 3) + "[ERR][42][Alpha]" + unicode + NL + "\tjava.io.IOException: disk full" + NL
+                + "plain" + NL
+                + timestamp(TIME + 1501) + "[INF][-7][Alpha][sampled 0.25]sampled" + NL, text.toString());
+    }
+
+    /**
+     * Short messages with a project name are more than 3 times smaller than the text format,
+     * longer messages shrink less, because only the prefix is saved.
+     */
+    @Test
+    void isSmallerThanTheTextFormat() throws IOException
+    {
+        assertTrue(compressionRatio("Tick ") >= 3);
+        assertTrue(compressionRatio("Processed request in 42 ms for id ") >= 1.8);
+    }
+
+    private static double compressionRatio(String message) throws IOException
+    {
+        BinaryLogEncoder encoder = new BinaryLogEncoder();
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        for(int i = 0; i < 1000; i++)
+        {
+            String text = message + (1000 + i);
+            write(file, encoder.encode(entry(text, "INF", 0, "JavaLogger", TIME + i), utf8(text), null, BinaryLogEncoder.FLAG_PROJECT_NAME));
+        }
+
+        StringWriter text = new StringWriter();
+        BinaryLogDecoder.decode(new ByteArrayInputStream(file.toByteArray()), text);
+        return text.toString().getBytes(StandardCharsets.UTF_8).length / (double) file.size();
+    }
+
+    private static LogEntry entry(String message, String level, int code, String project, long time)
+    {
+        LogEntry entry = new LogEntry(message).LEVEL(level).CODE(code).PROJECTNAME(project);
+        entry.time = time;
+        return entry;
+    }
+    private static ByteBuffer utf8(String text)
+    {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+    private static void write(ByteArrayOutputStream out, ByteBuffer record)
+    {
+        out.write(record.array(), record.arrayOffset() + record.position(), record.remaining());
+    }
+    private static String timestamp(long millis)
+    {
+        StringBuilder builder = new StringBuilder();
+        LogTimestamp.appendTo(builder, millis);
+        return builder.toString();
+    }
+}
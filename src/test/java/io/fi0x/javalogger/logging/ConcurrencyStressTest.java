@@ -0,0 +1,182 @@
+package io.fi0x.javalogger.logging;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.BitSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Many threads log into the same log-file while the asynchronous-mode is switched on and off,
+ * so {@link LogEntry}s are published while their {@link LogDispatcher} is stopped and replaced.
+ * Every message carries a unique number, and the log-file has to contain each of them exactly once.
+ * INFO is only printed in debug-mode, so the {@link LogEntry}s are only written to the log-file.
+ * The order of the {@link LogEntry}s of each thread is checked with an {@link Appender}
+ * that only receives a {@link LogTemplate} which is neither printed nor saved.
+ */
+class ConcurrencyStressTest
+{
+    private static final int THREADS = 8;
+    private static final int ENTRIES_PER_THREAD = 50_000;
+    private static final int ORDERED_ENTRIES_PER_THREAD = 20_000;
+    private static final String ORDER = "STRESS_ORDER";
+    private static final Pattern MESSAGE = Pattern.compile("stress (\\d+)$");
+
+    @TempDir
+    File logFolder;
+
+    @BeforeEach
+    void setUp()
+    {
+        Logger.getInstance().setDebug(false);
+        Logger.getInstance().setLogFolder(logFolder);
+    }
+    @AfterEach
+    void tearDown()
+    {
+        Logger.getInstance().setAsync(false);
+        Logger.getInstance().removeAppender("order");
+        Logger.getInstance().setAppenderFilter("console", null);
+        Logger.getInstance().setLogFolder(logFolder);
+    }
+
+    @Test
+    void noEntryIsLostWhileTheAsynchronousModeChanges() throws Exception
+    {
+        Logger logger = Logger.getInstance();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] producers = new Thread[THREADS];
+        for(int t = 0; t < THREADS; t++)
+        {
+            int first = t * ENTRIES_PER_THREAD;
+            producers[t] = new Thread(() ->
+            {
+                awaitQuietly(start);
+                for(int i = 0; i < ENTRIES_PER_THREAD; i++)
+                    LOG.INFOF("stress {}", first + i);
+            });
+            producers[t].start();
+        }
+
+        AtomicBoolean producing = new AtomicBoolean(true);
+        Thread toggler = new Thread(() ->
+        {
+            boolean async = false;
+            while(producing.get())
+            {
+                async = !async;
+                logger.setAsync(async, 64, WaitStrategy.YIELD);
+            }
+        });
+        toggler.start();
+        start.countDown();
+
+        for(Thread producer : producers)
+            producer.join();
+        producing.set(false);
+        toggler.join();
+        logger.setAsync(false);
+        logger.flush();
+
+        BitSet seen = new BitSet(THREADS * ENTRIES_PER_THREAD);
+        int lines = 0;
+        for(File file : logFolder.listFiles())
+        {
+            for(String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8))
+            {
+                Matcher matcher = MESSAGE.matcher(line);
+                if(!matcher.find())
+                    continue;
+
+                lines++;
+                int number = Integer.parseInt(matcher.group(1));
+                assertEquals(false, seen.get(number), "entry " + number + " was written twice");
+                seen.set(number);
+            }
+        }
+        assertEquals(THREADS * ENTRIES_PER_THREAD, lines, "lines in the log-file");
+        assertEquals(THREADS * ENTRIES_PER_THREAD, seen.cardinality(), "different entries in the log-file");
+    }
+    @Test
+    void entriesOfEachThreadStayInOrderWhileTheAsynchronousModeChanges() throws Exception
+    {
+        Logger logger = Logger.getInstance();
+        Logger.createNewTemplate(ORDER, LogColor.WHITE, "", "ORD", false, false, 0, false, true, false, false, "LOG", "JavaLogger");
+        logger.setAppenderFilter("console", log -> !ORDER.equals(log.templateName));
+
+        int[] last = new int[THREADS];
+        AtomicInteger received = new AtomicInteger();
+        StringBuilder outOfOrder = new StringBuilder();
+        logger.addAppender("order", (entry, text) ->
+        {
+            String[] parts = text.toString().split(" ");
+            int thread = Integer.parseInt(parts[0]);
+            int number = Integer.parseInt(parts[1]);
+            synchronized(last)
+            {
+                if(number != last[thread] + 1 && outOfOrder.length() == 0)
+                    outOfOrder.append("thread ").append(thread).append(": ").append(number).append(" after ").append(last[thread]);
+                last[thread] = number;
+            }
+            received.incrementAndGet();
+        }, log -> ORDER.equals(log.templateName), null);
+
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] producers = new Thread[THREADS];
+        for(int t = 0; t < THREADS; t++)
+        {
+            int thread = t;
+            producers[t] = new Thread(() ->
+            {
+                awaitQuietly(start);
+                for(int i = 1; i <= ORDERED_ENTRIES_PER_THREAD; i++)
+                    Logger.log(new LogEntry(thread + " " + i, ORDER));
+            });
+            producers[t].start();
+        }
+
+        AtomicBoolean producing = new AtomicBoolean(true);
+        Thread toggler = new Thread(() ->
+        {
+            boolean async = false;
+            while(producing.get())
+            {
+                async = !async;
+                logger.setAsync(async, 64, WaitStrategy.YIELD);
+            }
+        });
+        toggler.start();
+        start.countDown();
+
+        for(Thread producer : producers)
+            producer.join();
+        producing.set(false);
+        toggler.join();
+        logger.setAsync(false);
+
+        assertEquals("", outOfOrder.toString());
+        assertEquals(THREADS * ORDERED_ENTRIES_PER_THREAD, received.get());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch)
+    {
+        try
+        {
+            latch.await();
+        } catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package io.fi0x.javalogger.logging;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The tests run in a forked JVM whose output is read through a pipe,
+ * so AUTO has to leave out the colors, on every Java version.
+ * The decision of AUTO for a terminal is checked with every combination of "NO_COLOR" and "TERM".
+ */
+class ConsoleColorModeTest
+{
+    @Test
+    void autoLeavesOutColorsWhenTheOutputIsRedirected()
+    {
+        assertFalse(ConsoleColorMode.isTerminal(System.console()));
+        assertFalse(ConsoleColorMode.AUTO.isColored());
+    }
+    @Test
+    void fixedModesIgnoreTheTerminal()
+    {
+        assertTrue(ConsoleColorMode.ALWAYS.isColored());
+        assertFalse(ConsoleColorMode.NEVER.isColored());
+        assertFalse(ConsoleColorMode.isTerminal(null));
+    }
+    @Test
+    void autoUsesColorsOnlyInATerminalThatSupportsThem()
+    {
+        assertTrue(ConsoleColorMode.AUTO.isColored(null, "xterm-256color", true));
+        assertTrue(ConsoleColorMode.AUTO.isColored(null, null, true));
+        assertFalse(ConsoleColorMode.AUTO.isColored(null, "xterm-256color", false));
+        assertFalse(ConsoleColorMode.AUTO.isColored("1", "xterm-256color", true));
+        assertFalse(ConsoleColorMode.AUTO.isColored("", "xterm-256color", true));
+        assertFalse(ConsoleColorMode.AUTO.isColored(null, "dumb", true));
+
+        assertTrue(ConsoleColorMode.ALWAYS.isColored("1", "dumb", false));
+        assertFalse(ConsoleColorMode.NEVER.isColored(null, "xterm-256color", true));
+    }
+}
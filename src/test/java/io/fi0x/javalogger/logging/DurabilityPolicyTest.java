@@ -0,0 +1,104 @@
+package io.fi0x.javalogger.logging;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Counts how often the log-file is forced to the disk with the "forcedWrites" metric of the "file" appender.
+ * INFO is only printed in debug-mode, so the {@link LogEntry}s are only written to the log-file.
+ * In asynchronous-mode, a {@link LogFormatter} of the "file" appender waits until all {@link LogEntry}s are queued,
+ * so they are written in a single batch.
+ */
+class DurabilityPolicyTest
+{
+    private static final int ENTRIES = 2000;
+
+    @TempDir
+    File logFolder;
+
+    private long forcesBefore;
+
+    @BeforeEach
+    void setUp()
+    {
+        Logger.getInstance().setDebug(false);
+        Logger.getInstance().setLogFolder(logFolder);
+        forcesBefore = forces();
+    }
+    @AfterEach
+    void tearDown()
+    {
+        Logger.getInstance().setAsync(false);
+        Logger.getInstance().setAppenderFormatter("file", null);
+        Logger.getInstance().setDurabilityPolicy(DurabilityPolicy.NONE);
+        Logger.getInstance().setLogFolder(logFolder);
+    }
+
+    @Test
+    void errorSyncOnlyForcesSevereEntries()
+    {
+        Logger.getInstance().setDurabilityPolicy(DurabilityPolicy.ERROR_SYNC);
+        for(int i = 0; i < 10; i++)
+            Logger.log(new LogEntry("info " + i, LogLevel.INFO).SEVERITY(i % 3));
+        assertEquals(0, forces() - forcesBefore);
+
+        Logger.log(new LogEntry("error", LogLevel.INFO).SEVERITY(3));
+        assertEquals(1, forces() - forcesBefore);
+        Logger.log(new LogEntry("fatal", LogLevel.INFO).SEVERITY(4));
+        Logger.log(new LogEntry("info", LogLevel.INFO));
+        assertEquals(2, forces() - forcesBefore);
+    }
+    @Test
+    void perBatchForcesEachSynchronousEntry()
+    {
+        Logger.getInstance().setDurabilityPolicy(DurabilityPolicy.PER_BATCH);
+        for(int i = 0; i < 10; i++)
+            LOG.INFOF("synchronous {}", i);
+        assertEquals(10, forces() - forcesBefore);
+    }
+    @Test
+    void perBatchForcesOncePerAsynchronousBatch()
+    {
+        Logger.getInstance().setDurabilityPolicy(DurabilityPolicy.PER_BATCH);
+        LOG.INFO("open the log-file");
+        forcesBefore = forces();
+        long appendedBefore = Logger.getInstance().getAppenderMetrics("file").get("appendedEntries");
+
+        CountDownLatch queued = new CountDownLatch(1);
+        Logger.getInstance().setAppenderFormatter("file", (entry, output) ->
+        {
+            awaitQuietly(queued);
+            output.append(entry.getText());
+        });
+        Logger.getInstance().setAsync(true);
+        for(int i = 0; i < ENTRIES; i++)
+            LOG.INFOF("asynchronous {}", i);
+        queued.countDown();
+        Logger.getInstance().setAsync(false);
+
+        assertEquals(ENTRIES, Logger.getInstance().getAppenderMetrics("file").get("appendedEntries") - appendedBefore);
+        assertEquals(1, forces() - forcesBefore);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch)
+    {
+        try
+        {
+            latch.await();
+        } catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+    private static long forces()
+    {
+        return Logger.getInstance().getAppenderMetrics("file").get("forcedWrites");
+    }
+}
@@ -0,0 +1,68 @@
+package io.fi0x.javalogger.logging;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Measures the bytes that the current thread allocates per {@link LOG} call with
+ * {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)}.
+ * INFO is only printed in debug-mode, so the {@link LogEntry}s are only written to the log-file.
+ */
+class GarbageFreeTest
+{
+    private static final int WARMUP = 50_000;
+    private static final int MEASURED = 100_000;
+
+    private final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @TempDir
+    File logFolder;
+
+    @BeforeEach
+    void setUp()
+    {
+        Logger.getInstance().setDebug(false);
+        Logger.getInstance().setLogFolder(logFolder);
+    }
+    @AfterEach
+    void tearDown()
+    {
+        Logger.getInstance().setGarbageFree(false);
+        Logger.getInstance().setLogFolder(logFolder);
+    }
+
+    @Test
+    void steadyStateLoggingDoesNotAllocate()
+    {
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "The JVM cannot measure the allocated memory of a thread");
+
+        Logger.getInstance().setGarbageFree(false);
+        double regular = bytesPerCall();
+        Logger.getInstance().setGarbageFree(true);
+        double garbageFree = bytesPerCall();
+
+        assertTrue(garbageFree < 1, "garbage-free mode allocated " + garbageFree + " bytes per call");
+        assertTrue(regular > 100 * Math.max(garbageFree, 0.01), "regular mode allocated only " + regular + " bytes per call");
+    }
+
+    private double bytesPerCall()
+    {
+        long thread = Thread.currentThread().getId();
+        for(int i = 0; i < WARMUP; i++)
+            LOG.INFOF("Processed request {} in {} ms", i, 42);
+
+        long before = threads.getThreadAllocatedBytes(thread);
+        for(int i = 0; i < MEASURED; i++)
+            LOG.INFOF("Processed request {} in {} ms", i, 42);
+        long after = threads.getThreadAllocatedBytes(thread);
+        return (after - before) / (double) MEASURED;
+    }
+}
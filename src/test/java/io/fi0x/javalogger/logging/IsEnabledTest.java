@@ -0,0 +1,83 @@
+package io.fi0x.javalogger.logging;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link Logger#isEnabled(String)} and {@link Logger#isEnabled(Enum)} have to follow the debug-mode,
+ * the verbose-mode and the verbose-level, unless the {@link LogTemplate} is written to the log-file or sent to Mixpanel.
+ */
+class IsEnabledTest
+{
+    private enum Custom
+    {
+        ENABLED_DEBUG
+    }
+
+    @BeforeEach
+    void setUp()
+    {
+        Logger.getInstance().setDebug(false);
+        Logger.getInstance().setVerbose(false);
+        Logger.getInstance().setVerboseLevel(0);
+    }
+    @AfterEach
+    void tearDown()
+    {
+        Logger.getInstance().setDebug(false);
+        Logger.getInstance().setVerbose(false);
+        Logger.getInstance().setVerboseLevel(0);
+    }
+
+    @Test
+    void unknownTemplatesAreNotEnabled()
+    {
+        assertFalse(Logger.isEnabled("ENABLED_MISSING"));
+        assertFalse(Logger.isEnabled(Thread.State.NEW));
+    }
+    @Test
+    void debugTemplatesAreOnlyEnabledInDebugMode()
+    {
+        Logger.createNewTemplate(Custom.ENABLED_DEBUG, LogColor.WHITE, "", "DBG", false, false, 0, true, false, false, false, "LOG", "JavaLogger");
+        assertFalse(Logger.isEnabled(Custom.ENABLED_DEBUG));
+        assertFalse(Logger.isEnabled("ENABLED_DEBUG"));
+
+        Logger.getInstance().setDebug(true);
+        assertTrue(Logger.isEnabled(Custom.ENABLED_DEBUG));
+        assertTrue(Logger.isEnabled("ENABLED_DEBUG"));
+    }
+    @Test
+    void verboseTemplatesFollowTheVerboseLevel()
+    {
+        assertFalse(Logger.isEnabled(LogLevel.VERBOSE));
+        assertFalse(Logger.isEnabled(LogLevel.VVERBOSE));
+
+        Logger.getInstance().setVerbose(true);
+        assertTrue(Logger.isEnabled(LogLevel.VERBOSE));
+        assertFalse(Logger.isEnabled(LogLevel.VVERBOSE));
+        assertFalse(Logger.isEnabled("VVVERBOSE"));
+
+        Logger.getInstance().setVerboseLevel(2);
+        assertTrue(Logger.isEnabled(LogLevel.VVERBOSE));
+        assertTrue(Logger.isEnabled("VVVERBOSE"));
+
+        Logger.getInstance().setVerbose(false);
+        assertFalse(Logger.isEnabled(LogLevel.VVVERBOSE));
+    }
+    @Test
+    void hiddenTemplatesAreEnabledIfTheyAreSavedOrSent()
+    {
+        Logger.createNewTemplate("ENABLED_FILE", LogColor.WHITE, "", "FIL", true, true, 3, true, false, false, false, "LOG", "JavaLogger");
+        Logger.createNewTemplate("ENABLED_MIXPANEL", LogColor.WHITE, "", "MIX", false, true, 3, true, false, false, true, "LOG", "JavaLogger");
+        Logger.createNewTemplate("ENABLED_NOWHERE", LogColor.WHITE, "", "NON", false, true, 3, true, false, false, false, "LOG", "JavaLogger");
+
+        assertTrue(Logger.isEnabled(LogLevel.INFO));
+        assertTrue(Logger.isEnabled("ENABLED_FILE"));
+        assertTrue(Logger.isEnabled("ENABLED_MIXPANEL"));
+        assertFalse(Logger.isEnabled("ENABLED_NOWHERE"));
+    }
+}
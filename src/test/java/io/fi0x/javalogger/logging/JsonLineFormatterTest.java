@@ -0,0 +1,240 @@
+package io.fi0x.javalogger.logging;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link LogEntry}s are written into a log-file with the JSON {@link FileFormat} and every line is parsed again,
+ * so the message, the prefix information, the structured fields, the stack-trace and the sample-rate
+ * have to be read back exactly as they were logged.
+ * INFO is only printed in debug-mode, so the {@link LogEntry}s are only written to the log-file.
+ */
+class JsonLineFormatterTest
+{
+    @TempDir
+    File logFolder;
+
+    @BeforeEach
+    void setUp()
+    {
+        Logger.getInstance().setDebug(false);
+        Logger.getInstance().setLogFolder(logFolder);
+        Logger.getInstance().setFileFormat(FileFormat.JSON);
+    }
+    @AfterEach
+    void tearDown()
+    {
+        Logger.getInstance().setFileFormat(FileFormat.TEXT);
+        Logger.getInstance().setLogFolder(logFolder);
+    }
+
+    @Test
+    void writesEveryPartOfTheEntriesAsJson() throws IOException
+    {
+        String message = "quote \" backslash \\ slash / line\nbreak\r tab\t bell\u0007 – 日本語 🚀";
+        LogEntry escaped = new LogEntry(message, LogLevel.INFO)
+                .CODE(42)
+                .PROJECTNAME("Json \"Project\"")
+                .FIELD("count", 3L)
+                .FIELD("ratio", 0.5)
+                .FIELD("missing", Double.NaN)
+                .FIELD("ok", true)
+                .FIELD("user", "a\"b\\c")
+                .FIELD("nothing", (String) null);
+        LogEntry failed = new LogEntry("failed", LogLevel.INFO).EXCEPTION(new IOException("disk \"full\""));
+        LogEntry sampled = new LogEntry("sampled", LogLevel.INFO);
+        sampled.sampleRate = 0.25;
+        long[] times = {escaped.getTime(), failed.getTime(), sampled.getTime()};
+
+        Logger.log(escaped);
+        Logger.log(failed);
+        Logger.log(sampled);
+        Logger.getInstance().flush();
+
+        List<Map<String, Object>> lines = readLines();
+        assertEquals(3, lines.size());
+
+        Map<String, Object> first = lines.get(0);
+        assertEquals(List.of("time", "level", "code", "project", "template", "message", "fields"), new ArrayList<>(first.keySet()));
+        assertEquals(times[0], first.get("time"));
+        assertEquals("INF", first.get("level"));
+        assertEquals(42L, first.get("code"));
+        assertEquals("Json \"Project\"", first.get("project"));
+        assertEquals("INFO", first.get("template"));
+        assertEquals(message, first.get("message"));
+
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("count", 3L);
+        fields.put("ratio", 0.5);
+        fields.put("missing", "NaN");
+        fields.put("ok", true);
+        fields.put("user", "a\"b\\c");
+        fields.put("nothing", null);
+        assertEquals(fields, first.get("fields"));
+
+        Map<String, Object> second = lines.get(1);
+        assertEquals(times[1], second.get("time"));
+        assertFalse(second.containsKey("code"));
+        assertFalse(second.containsKey("fields"));
+        assertEquals("failed", second.get("message"));
+        String exception = (String) second.get("exception");
+        assertTrue(exception.startsWith("java.io.IOException: disk \"full\" [trace #"), exception);
+        assertTrue(exception.contains(System.lineSeparator() + "\t" + JsonLineFormatterTest.class.getName() + "."), exception);
+
+        Map<String, Object> third = lines.get(2);
+        assertEquals(times[2], third.get("time"));
+        assertEquals(0.25, third.get("sampleRate"));
+        assertEquals("sampled", third.get("message"));
+        assertFalse(lines.get(0).containsKey("sampleRate"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> readLines() throws IOException
+    {
+        List<Map<String, Object>> lines = new ArrayList<>();
+        for(File file : logFolder.listFiles((folder, name) -> name.endsWith(".jsonl")))
+        {
+            for(String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8))
+                lines.add((Map<String, Object>) new JsonReader(line).readDocument());
+        }
+        return lines;
+    }
+
+    /**
+     * A minimal JSON parser that keeps the order of the keys.
+     * Integers are read as {@link Long}s and all other numbers as {@link Double}s.
+     */
+    private static class JsonReader
+    {
+        private final String text;
+        private int position;
+
+        private JsonReader(String text)
+        {
+            this.text = text;
+        }
+
+        private Object readDocument()
+        {
+            Object value = readValue();
+            assertEquals(text.length(), position, "unexpected characters after the JSON value in " + text);
+            return value;
+        }
+        private Object readValue()
+        {
+            char c = text.charAt(position);
+            switch(c)
+            {
+                case '{':
+                    return readObject();
+                case '"':
+                    return readString();
+                case 't':
+                    return readLiteral("true", true);
+                case 'f':
+                    return readLiteral("false", false);
+                case 'n':
+                    return readLiteral("null", null);
+                default:
+                    return readNumber();
+            }
+        }
+        private Map<String, Object> readObject()
+        {
+            Map<String, Object> object = new LinkedHashMap<>();
+            expect('{');
+            if(text.charAt(position) == '}')
+            {
+                position++;
+                return object;
+            }
+            do
+            {
+                String key = readString();
+                expect(':');
+                assertFalse(object.containsKey(key), "duplicate key " + key);
+                object.put(key, readValue());
+            } while(text.charAt(position++) == ',');
+            assertEquals('}', text.charAt(position - 1), "unterminated object in " + text);
+            return object;
+        }
+        private String readString()
+        {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while(true)
+            {
+                char c = text.charAt(position++);
+                if(c == '"')
+                    return value.toString();
+                assertTrue(c >= 0x20, "unescaped control-character in " + text);
+                if(c != '\\')
+                {
+                    value.append(c);
+                    continue;
+                }
+
+                char escape = text.charAt(position++);
+                switch(escape)
+                {
+                    case 'n':
+                        value.append('\n');
+                        break;
+                    case 'r':
+                        value.append('\r');
+                        break;
+                    case 't':
+                        value.append('\t');
+                        break;
+                    case 'b':
+                        value.append('\b');
+                        break;
+                    case 'f':
+                        value.append('\f');
+                        break;
+                    case 'u':
+                        value.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                        position += 4;
+                        break;
+                    default:
+                        value.append(escape);
+                }
+            }
+        }
+        private Object readNumber()
+        {
+            int start = position;
+            while(position < text.length() && "+-0123456789.eE".indexOf(text.charAt(position)) >= 0)
+                position++;
+
+            String number = text.substring(start, position);
+            assertFalse(number.isEmpty(), "expected a value at " + start + " in " + text);
+            if(number.contains(".") || number.contains("e") || number.contains("E"))
+                return Double.parseDouble(number);
+            return Long.parseLong(number);
+        }
+        private Object readLiteral(String literal, Object value)
+        {
+            assertTrue(text.startsWith(literal, position), "expected " + literal + " at " + position + " in " + text);
+            position += literal.length();
+            return value;
+        }
+        private void expect(char c)
+        {
+            assertEquals(c, text.charAt(position++), "unexpected character in " + text);
+        }
+    }
+}
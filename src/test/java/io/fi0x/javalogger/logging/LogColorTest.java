@@ -0,0 +1,60 @@
+package io.fi0x.javalogger.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The precomputed color codes of {@link LogColor} have to be the same as the codes that are built from their parts,
+ * and the console bytes of a color code have to be looked up instead of being encoded again.
+ */
+class LogColorTest
+{
+    @Test
+    void everyCombinationMatchesItsParts()
+    {
+        int[] designs = {0, 1, 3, 4, 7, 9};
+        for(LogColor.Color color : LogColor.Color.values())
+        {
+            for(LogColor.Design design : LogColor.Design.values())
+            {
+                int colorNumber = 30 + color.ordinal();
+                String style = designs[design.ordinal()] + ";";
+                assertEquals("\033[" + style + colorNumber + "m", LogColor.get(color, design, false, true));
+                assertEquals("\033[" + style + (colorNumber + 60) + "m", LogColor.get(color, design, true, true));
+                assertEquals("\033[" + colorNumber + "m", LogColor.get(color, design, false, false));
+                assertEquals("\033[" + (colorNumber + 60) + "m", LogColor.get(color, design, true, false));
+                assertEquals(LogColor.get(color, design, false, true), LogColor.get(color, design));
+            }
+        }
+    }
+    @Test
+    void constantsMatchTheTable()
+    {
+        assertEquals(LogColor.RED, LogColor.get(LogColor.Color.RED));
+        assertEquals(LogColor.WHITE_BRIGHT, LogColor.get(LogColor.Color.WHITE, LogColor.Design.NORMAL, true));
+        assertEquals(LogColor.BLACK_BRIGHT, LogColor.get(LogColor.Color.BLACK, LogColor.Design.NORMAL, true, true));
+    }
+    @Test
+    void encodesColorCodesOnce()
+    {
+        String underlined = LogColor.get(LogColor.Color.GREEN, LogColor.Design.UNDERLINED);
+        assertSame(LogColor.encode(underlined), LogColor.encode(underlined));
+        assertSame(LogColor.encode(LogColor.RESET), LogColor.encode(LogColor.RESET));
+        assertArrayEquals(underlined.getBytes(StandardCharsets.US_ASCII), LogColor.encode(underlined));
+
+        String custom = "\033[38;5;208m";
+        assertArrayEquals(custom.getBytes(StandardCharsets.US_ASCII), LogColor.encode(custom));
+        assertEquals(0, LogColor.encode(null).length);
+        assertEquals(0, LogColor.encode("").length);
+    }
+    @Test
+    void templatesPrecomputeTheirConsolePrefix()
+    {
+        LogTemplate template = new LogTemplate(LogColor.RED_BRIGHT, LogColor.WHITE_BACKGROUND, "ERR", false, false, 0, false, false, false, false, "LOG", "JavaLogger", 3);
+        assertArrayEquals((LogColor.RED_BRIGHT + LogColor.WHITE_BACKGROUND).getBytes(StandardCharsets.US_ASCII), template.consolePrefix);
+        assertArrayEquals(template.consolePrefix, template.withSeverity(4).consolePrefix);
+    }
+}
@@ -0,0 +1,204 @@
+package io.fi0x.javalogger.logging;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The {@link Logger} has to start a new log-file when the current one is too large or too old,
+ * and the {@link LogArchiver} has to compress rolled log-files and delete only the oldest ones.
+ * INFO is only printed in debug-mode, so the {@link LogEntry}s are only written to the log-file.
+ */
+class LogRotationTest
+{
+    private static final long HOUR = 3_600_000L;
+
+    @TempDir
+    File logFolder;
+
+    @BeforeEach
+    void setUp()
+    {
+        Logger.getInstance().setDebug(false);
+        Logger.getInstance().setLogFolder(logFolder);
+    }
+    @AfterEach
+    void tearDown()
+    {
+        Logger.getInstance().setMaxFileSize(0);
+        Logger.getInstance().setRollInterval(RollInterval.NEVER);
+        Logger.getInstance().setCompressRolledFiles(false);
+        Logger.getInstance().setRetention(0, 0);
+        Logger.getInstance().setFileFormat(FileFormat.TEXT);
+        Logger.getInstance().setLogFolder(logFolder);
+    }
+
+    @Test
+    void rollsWhenTheLogFileIsFull() throws IOException
+    {
+        Logger.getInstance().setMaxFileSize(300);
+        for(int i = 0; i < 20; i++)
+            LOG.INFOF("rolled by size {}", i);
+        Logger.getInstance().flush();
+
+        File[] files = logFiles();
+        assertTrue(files.length > 1, "no new log-file was started");
+        List<String> lines = new ArrayList<>();
+        for(File file : files)
+        {
+            assertTrue(file.length() <= 300, file + " has " + file.length() + " bytes");
+            lines.addAll(Files.readAllLines(file.toPath(), StandardCharsets.UTF_8));
+        }
+        for(int i = 0; i < 20; i++)
+        {
+            String message = "rolled by size " + i;
+            assertEquals(1, lines.stream().filter(line -> line.endsWith(message)).count(), message);
+        }
+    }
+    @Test
+    void rollsWhenTheIntervalEnds()
+    {
+        Logger.getInstance().setRollInterval(RollInterval.HOURLY);
+        Logger.log(new LogEntry("this hour", LogLevel.INFO));
+        Logger.log(new LogEntry("still this hour", LogLevel.INFO));
+        Logger.getInstance().flush();
+        assertEquals(1, logFiles().length);
+
+        LogEntry nextHour = new LogEntry("next hour", LogLevel.INFO);
+        nextHour.time += HOUR;
+        Logger.log(nextHour);
+        Logger.getInstance().flush();
+        assertEquals(2, logFiles().length);
+    }
+
+    @Test
+    void rolledLogFilesAreClosedAndCompressedInTheBackground() throws IOException
+    {
+        Logger.getInstance().setCompressRolledFiles(true);
+        Logger.getInstance().setMaxFileSize(300);
+        for(int i = 0; i < 20; i++)
+            LOG.INFOF("compressed after rolling {}", i);
+        Logger.getInstance().flush();
+
+        File[] archives = logFolder.listFiles((dir, name) -> name.endsWith(".log.gz"));
+        assertNotNull(archives);
+        assertTrue(archives.length > 0, "no rolled log-file was compressed");
+        List<String> lines = new ArrayList<>();
+        for(File archive : archives)
+            lines.addAll(readCompressed(archive));
+        for(File file : logFiles())
+            lines.addAll(Files.readAllLines(file.toPath(), StandardCharsets.UTF_8));
+        assertEquals(1, logFiles().length, "only the current log-file should be uncompressed");
+        for(int i = 0; i < 20; i++)
+        {
+            String message = "compressed after rolling " + i;
+            assertEquals(1, lines.stream().filter(line -> line.endsWith(message)).count(), message);
+        }
+    }
+    @Test
+    void logFilesLeftByAFormatOrFolderChangeAreArchived() throws IOException, InterruptedException
+    {
+        Logger.getInstance().setCompressRolledFiles(true);
+        LOG.INFO("written as text");
+        File textFile = logFiles()[0];
+        Logger.getInstance().setFileFormat(FileFormat.JSON);
+        assertTrue(readCompressed(awaitArchive(textFile)).get(0).endsWith("written as text"));
+
+        LOG.INFO("written as json");
+        File[] jsonFiles = logFolder.listFiles((dir, name) -> name.endsWith(".jsonl"));
+        assertNotNull(jsonFiles);
+        assertEquals(1, jsonFiles.length);
+        Logger.getInstance().setLogFolder(new File(logFolder, "moved"));
+        assertTrue(readCompressed(awaitArchive(jsonFiles[0])).get(0).contains("written as json"));
+    }
+    @Test
+    void compressedLogFilesContainTheOriginalFile() throws IOException
+    {
+        File rolled = new File(logFolder, "rolled.log");
+        byte[] content = "first line\nsecond line with ünïcödé\n".repeat(1000).getBytes(StandardCharsets.UTF_8);
+        Files.write(rolled.toPath(), content);
+
+        LogArchiver archiver = new LogArchiver();
+        archiver.archive(rolled, new File(logFolder, "current.log"), true, 0, 0);
+        archiver.shutdown(5000);
+
+        File archive = new File(logFolder, "rolled.log.gz");
+        assertFalse(rolled.exists(), "the uncompressed log-file was not deleted");
+        assertTrue(archive.exists(), "the log-file was not compressed");
+        assertTrue(archive.length() < content.length);
+        try(InputStream in = new GZIPInputStream(Files.newInputStream(archive.toPath())))
+        {
+            assertArrayEquals(content, in.readAllBytes());
+        }
+    }
+    @Test
+    void retentionDeletesOnlyTheOldestLogFiles() throws IOException
+    {
+        long now = System.currentTimeMillis();
+        List<File> files = new ArrayList<>();
+        for(int i = 0; i < 5; i++)
+        {
+            File file = new File(logFolder, "old-" + i + (i % 2 == 0 ? ".log" : ".log.gz"));
+            Files.write(file.toPath(), new byte[100]);
+            assertTrue(file.setLastModified(now - (10 - i) * HOUR));
+            files.add(file);
+        }
+        File current = new File(logFolder, "current.log");
+        Files.write(current.toPath(), new byte[100]);
+        assertTrue(current.setLastModified(now - 20 * HOUR));
+        File other = new File(logFolder, "notes.txt");
+        Files.write(other.toPath(), new byte[100]);
+        assertTrue(other.setLastModified(now - 20 * HOUR));
+
+        LogArchiver archiver = new LogArchiver();
+        archiver.archive(files.get(4), current, false, 0, 4);
+        archiver.archive(files.get(4), current, false, 350, 0);
+        archiver.shutdown(5000);
+
+        assertFalse(files.get(0).exists());
+        assertFalse(files.get(1).exists());
+        assertFalse(files.get(2).exists());
+        assertTrue(files.get(3).exists());
+        assertTrue(files.get(4).exists());
+        assertTrue(current.exists(), "the current log-file was deleted");
+        assertTrue(other.exists(), "a file that is not a log-file was deleted");
+    }
+
+    private static File awaitArchive(File file) throws InterruptedException
+    {
+        File archive = new File(file.getPath() + ".gz");
+        long deadline = System.currentTimeMillis() + 5000;
+        while(file.exists() && System.currentTimeMillis() < deadline)
+            Thread.sleep(10);
+        assertFalse(file.exists(), "the log-file was not compressed: " + file);
+        assertTrue(archive.exists(), "the log-file was not compressed: " + file);
+        return archive;
+    }
+    private static List<String> readCompressed(File archive) throws IOException
+    {
+        try(InputStream in = new GZIPInputStream(Files.newInputStream(archive.toPath())))
+        {
+            return Arrays.asList(new String(in.readAllBytes(), StandardCharsets.UTF_8).split(System.lineSeparator()));
+        }
+    }
+    private File[] logFiles()
+    {
+        File[] files = logFolder.listFiles((dir, name) -> name.endsWith(".log"));
+        assertNotNull(files);
+        Arrays.sort(files);
+        return files;
+    }
+}
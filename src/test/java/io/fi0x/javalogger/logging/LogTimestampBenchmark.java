@@ -0,0 +1,55 @@
+package io.fi0x.javalogger.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Microbenchmark against the previous method, which created a {@link DateTimeFormatter}
+ * and a {@link LocalDateTime} for every {@link LogEntry}.
+ * Both variants run several rounds to warm up, then the fastest round of each is reported.
+ * It only runs with the "benchmark" profile, because the times depend on the machine.
+ */
+class LogTimestampBenchmark
+{
+    private static final int ITERATIONS = 200_000;
+
+    @Test
+    void compareWithAFormatterPerEntry()
+    {
+        long base = System.currentTimeMillis();
+        long previous = Long.MAX_VALUE;
+        long cached = Long.MAX_VALUE;
+        long sink = 0;
+        for(int round = 0; round < 5; round++)
+        {
+            long start = System.nanoTime();
+            for(int i = 0; i < ITERATIONS; i++)
+                sink += formatterMethod(base + i).length();
+            previous = Math.min(previous, System.nanoTime() - start);
+
+            StringBuilder builder = new StringBuilder(32);
+            start = System.nanoTime();
+            for(int i = 0; i < ITERATIONS; i++)
+            {
+                builder.setLength(0);
+                LogTimestamp.appendTo(builder, base + i);
+                sink += builder.length();
+            }
+            cached = Math.min(cached, System.nanoTime() - start);
+        }
+
+        System.out.printf("LogTimestamp: previous method %d ns, cached renderer %d ns per timestamp (%d)%n",
+                previous / ITERATIONS, cached / ITERATIONS, sink);
+    }
+
+    private static String formatterMethod(long millis)
+    {
+        DateTimeFormatter dtf = DateTimeFormatter.ofPattern("yyyy/MM/dd HH:mm:ss.SSS");
+        LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+        return "[" + dtf.format(time) + "]";
+    }
+}
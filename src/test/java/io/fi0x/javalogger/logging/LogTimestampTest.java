@@ -0,0 +1,56 @@
+package io.fi0x.javalogger.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogTimestampTest
+{
+    @Test
+    void rendersTheSameTextAsTheFormatter()
+    {
+        long start = System.currentTimeMillis();
+        long[] samples = {0, 999, 1000, 1001, start, start + 1, start + 999, start + 86_400_000L, 1_700_000_000_123L, -1};
+        StringBuilder builder = new StringBuilder();
+        for(long millis : samples)
+        {
+            builder.setLength(0);
+            LogTimestamp.appendTo(builder, millis);
+            assertEquals(formatterMethod(millis), builder.toString(), "millis=" + millis);
+        }
+    }
+
+    @Test
+    void reusesThePrefixWithinTheSameSecond()
+    {
+        long second = 1_700_000_000_000L;
+        StringBuilder first = new StringBuilder();
+        LogTimestamp.appendTo(first, second + 5);
+        char[] prefix = LogTimestamp.getCachedSecond();
+
+        StringBuilder sameSecond = new StringBuilder();
+        LogTimestamp.appendTo(sameSecond, second + 999);
+        assertSame(prefix, LogTimestamp.getCachedSecond());
+        assertEquals(first.substring(0, prefix.length), sameSecond.substring(0, prefix.length));
+        assertEquals("005]", first.substring(prefix.length));
+        assertEquals("999]", sameSecond.substring(prefix.length));
+
+        StringBuilder nextSecond = new StringBuilder();
+        LogTimestamp.appendTo(nextSecond, second + 1000);
+        assertNotSame(prefix, LogTimestamp.getCachedSecond());
+        assertNotEquals(first.substring(0, prefix.length), nextSecond.substring(0, prefix.length));
+        assertEquals("000]", nextSecond.substring(prefix.length));
+    }
+
+    private static String formatterMethod(long millis)
+    {
+        DateTimeFormatter dtf = DateTimeFormatter.ofPattern("yyyy/MM/dd HH:mm:ss.SSS");
+        LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+        return "[" + dtf.format(time) + "]";
+    }
+}
@@ -0,0 +1,58 @@
+package io.fi0x.javalogger.logging;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Benchmark of the same lines through the memory-mapped writer and the buffered writer.
+ * With the default {@link FlushPolicy} EVERY_ENTRY the buffered writer needs one write per line,
+ * which the memory-mapped writer replaces with a memory copy.
+ * It only runs with the "benchmark" profile, because the times depend on the machine and its file-system.
+ */
+class MappedLogFileWriterBenchmark
+{
+    private static final int LINES = 200_000;
+
+    @TempDir
+    File folder;
+
+    @Test
+    void compareWriters() throws IOException
+    {
+        long mapped = Long.MAX_VALUE;
+        long everyEntry = Long.MAX_VALUE;
+        long bufferFull = Long.MAX_VALUE;
+        for(int round = 0; round < 3; round++)
+        {
+            mapped = Math.min(mapped, benchmark(MappedLogFileWriter.open(new File(folder, "mapped" + round + ".log"), 4 * 1024 * 1024, 0, 0, 0)));
+            everyEntry = Math.min(everyEntry, benchmark(BufferedLogFileWriter.open(new File(folder, "every" + round + ".log"), 64 * 1024, FlushPolicy.EVERY_ENTRY, 0)));
+            bufferFull = Math.min(bufferFull, benchmark(BufferedLogFileWriter.open(new File(folder, "full" + round + ".log"), 64 * 1024, FlushPolicy.BUFFER_FULL, 0)));
+        }
+
+        System.out.printf("Log-file writers: memory-mapped %d ns, buffered EVERY_ENTRY %d ns, buffered BUFFER_FULL %d ns per line%n",
+                mapped / LINES, everyEntry / LINES, bufferFull / LINES);
+    }
+
+    private static long benchmark(LogFileWriter writer) throws IOException
+    {
+        byte[] bytes = "[2026/01/01 12:00:00.000][INF][---]Processed request 123456 in 42 ms for client 10.0.0.1\n".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer line = ByteBuffer.wrap(bytes);
+        long start = System.nanoTime();
+        for(int i = 0; i < LINES; i++)
+        {
+            line.clear();
+            writer.write(line);
+        }
+        writer.close();
+        long elapsed = System.nanoTime() - start;
+        assertEquals((long) bytes.length * LINES, writer.getFile().length());
+        return elapsed;
+    }
+}
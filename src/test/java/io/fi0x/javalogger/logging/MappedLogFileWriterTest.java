@@ -0,0 +1,88 @@
+package io.fi0x.javalogger.logging;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedLogFileWriterTest
+{
+    private static final int REGION_SIZE = 64 * 1024;
+
+    @TempDir
+    File folder;
+
+    /**
+     * A writer that is never closed leaves the rest of its mapped region as zero bytes,
+     * like a process that was killed. The next writer has to continue directly after the last line.
+     */
+    @Test
+    void continuesAfterTheLastLineOfAnUnclosedFile() throws IOException
+    {
+        File file = new File(folder, "crash.log");
+        MappedLogFileWriter crashed = MappedLogFileWriter.open(file, REGION_SIZE, 0, 0, 0);
+        crashed.write(line("first\n"));
+        crashed.write(line("second\n"));
+        assertEquals(REGION_SIZE, file.length(), "size of the unclosed file");
+
+        MappedLogFileWriter mapped = MappedLogFileWriter.open(file, REGION_SIZE, 0, 0, 0);
+        mapped.write(line("third\n"));
+        mapped.close();
+        assertEquals("first\nsecond\nthird\n", read(file));
+
+        MappedLogFileWriter crashedAgain = MappedLogFileWriter.open(file, REGION_SIZE, 0, 0, 0);
+        crashedAgain.write(line("fourth\n"));
+        BufferedLogFileWriter buffered = BufferedLogFileWriter.open(file, 1024, FlushPolicy.EVERY_ENTRY, 0);
+        buffered.write(line("fifth\n"));
+        buffered.close();
+        assertEquals("first\nsecond\nthird\nfourth\nfifth\n", read(file));
+    }
+
+    /**
+     * Binary records can end with zero bytes, for example a dictionary record for an empty project name
+     * or an entry record with an empty message, so they must survive the trimming.
+     */
+    @Test
+    void keepsBinaryRecordsThatEndWithZeroBytes() throws IOException
+    {
+        File file = new File(folder, "crash.jlog");
+        MappedLogFileWriter crashed = MappedLogFileWriter.open(file, REGION_SIZE, 0, 0, BinaryLogEncoder.MAX_TRAILING_ZEROS);
+        BinaryLogEncoder encoder = new BinaryLogEncoder();
+        crashed.write(encoder.encode(entry("before the crash"), line("before the crash"), null, 0));
+        crashed.write(encoder.encode(entry(""), line(""), null, 0));
+
+        MappedLogFileWriter reopened = MappedLogFileWriter.open(file, REGION_SIZE, 0, 0, BinaryLogEncoder.MAX_TRAILING_ZEROS);
+        encoder = new BinaryLogEncoder();
+        reopened.write(encoder.encode(entry("after the crash"), line("after the crash"), null, 0));
+        reopened.close();
+
+        StringWriter text = new StringWriter();
+        assertEquals(3, BinaryLogDecoder.decode(file, text));
+        String[] lines = text.toString().split(System.lineSeparator());
+        assertTrue(lines[0].endsWith("before the crash"), lines[0]);
+        assertTrue(lines[1].endsWith("[---]"), lines[1]);
+        assertTrue(lines[2].endsWith("after the crash"), lines[2]);
+        assertTrue(file.length() < REGION_SIZE, "the padding was not removed");
+    }
+
+    private static LogEntry entry(String message)
+    {
+        return new LogEntry(message).PROJECTNAME("");
+    }
+    private static ByteBuffer line(String text)
+    {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+    private static String read(File file) throws IOException
+    {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+}
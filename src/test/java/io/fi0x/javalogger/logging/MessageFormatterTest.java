@@ -0,0 +1,126 @@
+package io.fi0x.javalogger.logging;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks how the patterns of the "F" methods of {@link LOG} are filled,
+ * and that the messages of the "F" and "_LAZY" methods are only created
+ * if the {@link LogEntry} is printed, saved or sent.
+ */
+class MessageFormatterTest
+{
+    @TempDir
+    File logFolder;
+
+    @BeforeEach
+    void setUp()
+    {
+        Logger.getInstance().setDebug(false);
+        Logger.getInstance().setVerbose(false);
+        Logger.getInstance().setLogFolder(logFolder);
+    }
+    @AfterEach
+    void tearDown()
+    {
+        Logger.getInstance().setLogFolder(logFolder);
+    }
+
+    @Test
+    void replacesThePlaceholdersInOrder()
+    {
+        assertEquals("a 1 b two c", format("a {} b {} c", 1, "two"));
+        assertEquals("12", format("{}{}", 1, 2));
+        assertEquals("null and [x]", format("{} and {}", null, new StringBuilder("[x]")));
+        assertEquals("no placeholders", format("no placeholders", 1));
+        assertEquals("", format("", 1));
+        assertEquals("null", format(null, 1));
+    }
+    @Test
+    void keepsPlaceholdersWithoutArgumentsAndIgnoresAdditionalArguments()
+    {
+        assertEquals("1 and {}", format("{} and {}", 1));
+        assertEquals("{} and {}", format("{} and {}"));
+        assertEquals("1 only", format("{} only", 1, 2, 3));
+        assertEquals("{ } and {1}", format("{ } and {{}}", 1));
+    }
+    @Test
+    void escapedPlaceholdersAreNotReplaced()
+    {
+        assertEquals("literal {} and 1", format("literal \\{} and {}", 1));
+        assertEquals("1 {} 2", format("{} \\{} {}", 1, 2));
+        assertEquals("path\\1", format("path\\\\{}", 1));
+        assertEquals("{} without arguments", format("\\{} without arguments"));
+        assertEquals("a\\{} rest", format("a\\\\{} rest"));
+        assertEquals("back\\slash 1", format("back\\slash {}", 1));
+    }
+    @Test
+    void formatsPrimitiveArguments()
+    {
+        assertEquals("count 42", formatLongs("count {}", 42));
+        assertEquals("-1 of 9223372036854775807", formatLongs("{} of {}", -1, Long.MAX_VALUE));
+        assertEquals("only 1", formatLongs("only {}", 1, 2));
+        assertEquals("3 and {}", formatLongs("{} and {}", 3));
+        assertEquals("{} and 5", formatLongs("\\{} and {}", 5));
+        assertEquals("ratio 0.25", formatDouble("ratio {}", 0.25));
+        assertEquals("NaN", formatDouble("{}", Double.NaN));
+    }
+    @Test
+    void createsMessagesOnlyForEntriesThatAreUsed()
+    {
+        AtomicInteger supplied = new AtomicInteger();
+        AtomicInteger printed = new AtomicInteger();
+        Supplier<String> message = () -> "lazy " + supplied.incrementAndGet();
+        Object argument = new Object()
+        {
+            @Override
+            public String toString()
+            {
+                return "argument " + printed.incrementAndGet();
+            }
+        };
+
+        LOG.VERBOSE_LAZY(message);
+        LOG.VERBOSE_LAZY(message, "Project");
+        LOG.VERBOSEF("hidden {}", argument);
+        assertEquals(0, supplied.get());
+        assertEquals(0, printed.get());
+
+        LOG.INFO_LAZY(message);
+        LOG.INFOF("saved {}", argument);
+        assertEquals(1, supplied.get(), "INFO is saved in the log-file, so the message has to be created once");
+        assertEquals(1, printed.get(), "INFO is saved in the log-file, so the argument has to be printed once");
+    }
+
+    private static String format(String pattern, Object... arguments)
+    {
+        LogEntry entry = new LogEntry(pattern, LogLevel.INFO);
+        entry.messageArguments = arguments;
+        return entry.getText();
+    }
+    private static String formatLongs(String pattern, long... arguments)
+    {
+        LogEntry entry = new LogEntry(pattern, LogLevel.INFO);
+        entry.primitiveArguments = arguments.length;
+        entry.primitive0 = arguments[0];
+        if(arguments.length > 1)
+            entry.primitive1 = arguments[1];
+        return entry.getText();
+    }
+    private static String formatDouble(String pattern, double argument)
+    {
+        LogEntry entry = new LogEntry(pattern, LogLevel.INFO);
+        entry.primitiveArguments = 1;
+        entry.primitivesAreDouble = true;
+        entry.primitive0 = Double.doubleToRawLongBits(argument);
+        return entry.getText();
+    }
+}
@@ -0,0 +1,196 @@
+package io.fi0x.javalogger.logging;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fills the queue of an {@link Appender} with a capacity of 4 under each {@link OverflowPolicy}.
+ * The {@link Appender} blocks when it is flushed after the first {@link LogEntry} until the test releases it,
+ * so every following {@link LogEntry} stays in the queue.
+ * The {@link LogTemplate} is neither printed nor saved, only the dropped-entries summary (code 605) is collected as well.
+ */
+class OverflowPolicyTest
+{
+    private static final String OVERFLOW = "OVERFLOW";
+
+    @TempDir
+    File logFolder;
+
+    private final List<String> lines = new ArrayList<>();
+    private final List<String> reports = new ArrayList<>();
+    private final CountDownLatch blocked = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp()
+    {
+        Logger.getInstance().setLogFolder(logFolder);
+        Logger.createNewTemplate(OVERFLOW, LogColor.WHITE, "", "OVF", false, false, 0, false, true, false, false, "LOG", "JavaLogger");
+        Logger.getInstance().setAppenderFilter("console", log -> !isCollected(log));
+        Logger.getInstance().addAppender("overflow", new Appender()
+        {
+            @Override
+            public void append(LogEntry entry, CharSequence text)
+            {
+                synchronized(lines)
+                {
+                    (entry.getErrorCode() == 605 ? reports : lines).add(entry.getText());
+                }
+            }
+            @Override
+            public void flush()
+            {
+                blocked.countDown();
+                awaitQuietly(release);
+            }
+        }, OverflowPolicyTest::isCollected, null);
+    }
+    @AfterEach
+    void tearDown()
+    {
+        release.countDown();
+        Logger.getInstance().setAsync(false);
+        Logger.getInstance().setOverflowPolicy(OverflowPolicy.BLOCK, 2);
+        Logger.getInstance().removeAppender("overflow");
+        Logger.getInstance().setAppenderFilter("console", null);
+        Logger.getInstance().setLogFolder(logFolder);
+    }
+
+    @Test
+    void blockWaitsForSpace() throws InterruptedException
+    {
+        fillQueue(OverflowPolicy.BLOCK);
+        Thread producer = new Thread(() -> log("5", 1));
+        producer.start();
+        producer.join(200);
+        assertTrue(producer.isAlive(), "the producer should wait for space in the queue");
+
+        release.countDown();
+        producer.join();
+        assertEquals(List.of("0", "1", "2", "3", "4", "5"), stop());
+        assertReported(0);
+    }
+    @Test
+    void dropNewKeepsTheQueuedEntries()
+    {
+        fillQueue(OverflowPolicy.DROP_NEW);
+        log("5", 1);
+        log("6", 3);
+
+        assertEquals(Map.of(OVERFLOW, 2L), Logger.getInstance().getDroppedEntries());
+        assertEquals(List.of("0", "1", "2", "3", "4"), stop());
+        assertReported(2);
+    }
+    @Test
+    void dropOldestKeepsTheNewEntries()
+    {
+        fillQueue(OverflowPolicy.DROP_OLDEST);
+        log("5", 1);
+        log("6", 1);
+
+        assertEquals(Map.of(OVERFLOW, 2L), Logger.getInstance().getDroppedEntries());
+        assertEquals(List.of("0", "3", "4", "5", "6"), stop());
+        assertReported(2);
+    }
+    @Test
+    void dropBelowSeverityReplacesQueuedEntriesWithLowSeverity()
+    {
+        fillQueue(OverflowPolicy.DROP_BELOW_SEVERITY);
+        log("5", 1);
+        log("6", 2);
+        log("7", 3);
+
+        assertEquals(Map.of(OVERFLOW, 3L), Logger.getInstance().getDroppedEntries());
+        assertEquals(List.of("0", "3", "4", "6", "7"), stop());
+        assertReported(3);
+    }
+    @Test
+    void dropBelowSeverityWaitsIfOnlySevereEntriesAreQueued() throws InterruptedException
+    {
+        Logger.getInstance().setOverflowPolicy(OverflowPolicy.DROP_BELOW_SEVERITY, 2);
+        startBlocked();
+        for(int i = 1; i <= 4; i++)
+            log(String.valueOf(i), 3);
+
+        Thread producer = new Thread(() -> log("5", 3));
+        producer.start();
+        producer.join(200);
+        assertTrue(producer.isAlive(), "the producer should wait for space in the queue");
+
+        release.countDown();
+        producer.join();
+        assertEquals(List.of("0", "1", "2", "3", "4", "5"), stop());
+        assertReported(0);
+    }
+
+    private void fillQueue(OverflowPolicy policy)
+    {
+        Logger.getInstance().setOverflowPolicy(policy, 2);
+        startBlocked();
+        for(int i = 1; i <= 4; i++)
+            log(String.valueOf(i), 1);
+    }
+    private void startBlocked()
+    {
+        Logger.getInstance().setAsync(true, 4, WaitStrategy.PARK);
+        log("0", 1);
+        try
+        {
+            assertTrue(blocked.await(5, TimeUnit.SECONDS), "the appender did not receive the first entry");
+        } catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+    private List<String> stop()
+    {
+        release.countDown();
+        Logger.getInstance().setAsync(false);
+        synchronized(lines)
+        {
+            return new ArrayList<>(lines);
+        }
+    }
+
+    private void assertReported(int dropped)
+    {
+        synchronized(lines)
+        {
+            if(dropped == 0)
+                assertEquals(List.of(), reports);
+            else
+                assertEquals(List.of("Dropped " + dropped + " LogEntries because the asynchronous queue of the appender 'overflow' was full: " + OVERFLOW + "=" + dropped), reports);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch)
+    {
+        try
+        {
+            latch.await();
+        } catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+    private static void log(String message, int severity)
+    {
+        Logger.log(new LogEntry(message, OVERFLOW).SEVERITY(severity));
+    }
+    private static boolean isCollected(LogEntry log)
+    {
+        return OVERFLOW.equals(log.getTemplateName()) || log.getErrorCode() == 605;
+    }
+}
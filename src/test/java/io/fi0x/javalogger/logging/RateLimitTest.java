@@ -0,0 +1,56 @@
+package io.fi0x.javalogger.logging;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The token-bucket gets the time as an argument, so the limit and the refill are checked with fixed times.
+ * The times start one minute after the {@link RateLimit} was created, so its bucket is full.
+ */
+class RateLimitTest
+{
+    private static final long INTERVAL = 100_000_000L;
+
+    @Test
+    void suppressesEntriesAboveTheBurstAndReportsThemAfterTheRefill()
+    {
+        RateLimit limit = new RateLimit(10, 3, false);
+        long now = System.nanoTime() + 60_000_000_000L;
+        LogEntry log = new LogEntry("limited");
+
+        for(int i = 0; i < 3; i++)
+            assertEquals(0, limit.acquire(log, now), "entry " + i + " of the burst");
+        assertEquals(-1, limit.acquire(log, now));
+        assertEquals(-1, limit.acquire(log, now + INTERVAL / 2));
+        assertEquals(2, limit.getSuppressed());
+
+        assertEquals(2, limit.acquire(log, now + INTERVAL));
+        assertEquals(-1, limit.acquire(log, now + INTERVAL));
+        assertEquals(0, limit.acquire(log, now + 2 * INTERVAL));
+        assertEquals(3, limit.getSuppressed());
+    }
+    @Test
+    void errorCodesHaveTheirOwnLimit()
+    {
+        RateLimit limit = new RateLimit(10, 1, true);
+        long now = System.nanoTime() + 60_000_000_000L;
+
+        assertEquals(0, limit.acquire(new LogEntry("first").CODE(1), now));
+        assertEquals(-1, limit.acquire(new LogEntry("first").CODE(1), now));
+        assertEquals(0, limit.acquire(new LogEntry("second").CODE(2), now));
+    }
+    @Test
+    void theNumberOfErrorCodeBucketsIsBounded()
+    {
+        RateLimit limit = new RateLimit(10, 1, true);
+        long now = System.nanoTime() + 60_000_000_000L;
+
+        for(int code = 0; code < RateLimit.MAX_CODE_BUCKETS + 100; code++)
+            limit.acquire(new LogEntry("code").CODE(code), now);
+        assertEquals(RateLimit.MAX_CODE_BUCKETS, limit.getCodeBuckets());
+
+        limit.acquire(new LogEntry("code").CODE(-1), now + 60_000_000_000L);
+        assertEquals(1, limit.getCodeBuckets());
+    }
+}
@@ -0,0 +1,120 @@
+package io.fi0x.javalogger.logging;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two {@link LogTemplate}s without prefix are only sent to an {@link Appender} that collects the lines,
+ * so the collapsed {@link LogEntry}s and the "Last message repeated" lines can be compared directly.
+ */
+class RepeatedEntryTest
+{
+    private static final String FIRST = "REPEAT_FIRST";
+    private static final String SECOND = "REPEAT_SECOND";
+    private static final Pattern REPEATED = Pattern.compile("Last message repeated (\\d+) times?");
+
+    private final List<String> lines = new ArrayList<>();
+
+    @BeforeEach
+    void setUp()
+    {
+        for(String template : new String[]{FIRST, SECOND})
+            Logger.createNewTemplate(template, LogColor.WHITE, "", "REP", false, false, 0, false, true, false, false, "LOG", "JavaLogger");
+        Logger.getInstance().setAppenderFilter("console", log -> !isRepeatTemplate(log));
+        Logger.getInstance().addAppender("repeats", (entry, text) ->
+        {
+            synchronized(lines)
+            {
+                lines.add(text.toString());
+            }
+        }, RepeatedEntryTest::isRepeatTemplate, null);
+    }
+    @AfterEach
+    void tearDown()
+    {
+        Logger.getInstance().setCollapseRepeats(false);
+        Logger.getInstance().removeAppender("repeats");
+        Logger.getInstance().setAppenderFilter("console", null);
+    }
+
+    @Test
+    void collapsesRepetitionsOfEachTemplateSeparately()
+    {
+        Logger.getInstance().setCollapseRepeats(true, 60_000);
+        for(int i = 0; i < 3; i++)
+        {
+            Logger.log(new LogEntry("first message", FIRST));
+            Logger.log(new LogEntry("second message", SECOND));
+        }
+        assertEquals(List.of("first message", "second message"), copyLines());
+
+        Logger.log(new LogEntry("other message", FIRST));
+        assertEquals(List.of("first message", "second message", "Last message repeated 2 times", "other message"), copyLines());
+
+        Logger.getInstance().flush();
+        assertEquals("Last message repeated 2 times", copyLines().get(4));
+        assertEquals(5, copyLines().size());
+    }
+    @Test
+    void reportsRepetitionsWithoutAnotherEntry() throws InterruptedException
+    {
+        Logger.getInstance().setCollapseRepeats(true, 20);
+        for(int i = 0; i < 5; i++)
+            Logger.log(new LogEntry("storm", FIRST));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while(reportedRepeats() < 4 && System.currentTimeMillis() < deadline)
+            Thread.sleep(10);
+        assertEquals(4, reportedRepeats(), copyLines().toString());
+        assertEquals("storm", copyLines().get(0));
+
+        int reports = copyLines().size();
+        Logger.log(new LogEntry("storm", FIRST));
+        Logger.getInstance().flush();
+        assertEquals(reports + 1, copyLines().size());
+        assertEquals(5, reportedRepeats());
+    }
+    @Test
+    void differentErrorCodesAreNotCollapsed()
+    {
+        Logger.getInstance().setCollapseRepeats(true, 60_000);
+        Logger.log(new LogEntry("failed", FIRST).CODE(1));
+        Logger.log(new LogEntry("failed", FIRST).CODE(2));
+        Logger.getInstance().flush();
+        List<String> result = copyLines();
+        assertEquals(2, result.size());
+        assertTrue(result.stream().noneMatch(line -> line.startsWith("Last message repeated")), result.toString());
+    }
+
+    private static boolean isRepeatTemplate(LogEntry log)
+    {
+        return FIRST.equals(log.templateName) || SECOND.equals(log.templateName);
+    }
+    private int reportedRepeats()
+    {
+        int count = 0;
+        for(String line : copyLines())
+        {
+            Matcher matcher = REPEATED.matcher(line);
+            if(matcher.matches())
+                count += Integer.parseInt(matcher.group(1));
+        }
+        return count;
+    }
+    private List<String> copyLines()
+    {
+        synchronized(lines)
+        {
+            return new ArrayList<>(lines);
+        }
+    }
+}
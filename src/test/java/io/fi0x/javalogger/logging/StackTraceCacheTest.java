@@ -0,0 +1,77 @@
+package io.fi0x.javalogger.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exceptions with the same frames are only rendered once, but their causes must not be merged:
+ * an exception whose cause has a different message or different frames needs its own full stack-trace.
+ */
+class StackTraceCacheTest
+{
+    @Test
+    void causesWithDifferentFramesAreNotMerged()
+    {
+        StackTraceCache cache = new StackTraceCache();
+        List<IOException> failures = new ArrayList<>();
+        for(int i = 0; i < 2; i++)
+            failures.add(failure(i == 0 ? refuse("host A refused") : refuseAfterRetry("host B refused")));
+        IOException first = failures.get(0);
+        IOException second = failures.get(1);
+        assertArrayEquals(first.getStackTrace(), second.getStackTrace());
+
+        assertTrue(cache.render(first, 0).contains("host A refused"));
+        String rendered = cache.render(second, 0);
+        assertTrue(rendered.contains("Caused by: java.net.ConnectException: host B refused"), rendered);
+        assertTrue(rendered.contains("refuseAfterRetry"), rendered);
+        assertFalse(rendered.contains("host A refused"), rendered);
+        assertFalse(rendered.contains(" seen "), rendered);
+
+        String full = cache.renderFull(second);
+        assertTrue(full.contains("host B refused"), full);
+        assertFalse(full.contains("host A refused"), full);
+    }
+    @Test
+    void causesWithDifferentMessagesAreNotMerged()
+    {
+        StackTraceCache cache = new StackTraceCache();
+        List<IOException> failures = new ArrayList<>();
+        for(String host : new String[]{"host A refused", "host B refused", "host B refused"})
+            failures.add(failure(refuse(host)));
+
+        assertTrue(cache.render(failures.get(0), 0).contains("host A refused"));
+        String rendered = cache.render(failures.get(1), 0);
+        assertTrue(rendered.contains("host B refused"), rendered);
+        assertFalse(rendered.contains(" seen "), rendered);
+        assertTrue(cache.renderFull(failures.get(1)).contains("host B refused"));
+
+        assertTrue(cache.render(failures.get(2), 0).endsWith(" seen 2 times]"));
+        assertEquals(2L, cache.getMetrics().get("cachedTraces"));
+    }
+    @Test
+    void framesAreSeparatedByTheLineSeparator()
+    {
+        String full = new StackTraceCache().renderFull(failure(refuse("host A refused")));
+        assertTrue(full.contains(System.lineSeparator() + "\tCaused by: java.net.ConnectException: host A refused"), full);
+        assertEquals(full.split("\n", -1).length, full.split(System.lineSeparator() + "\t", -1).length);
+    }
+
+    private static IOException failure(Exception cause)
+    {
+        return new IOException("upload failed", cause);
+    }
+    private static ConnectException refuse(String message)
+    {
+        return new ConnectException(message);
+    }
+    private static ConnectException refuseAfterRetry(String message)
+    {
+        return refuse(message);
+    }
+}
@@ -0,0 +1,110 @@
+package io.fi0x.javalogger.logging;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks how {@link LogTemplate}s keep their severity and their id when they are created or overwritten,
+ * and that readers of the {@link TemplateRegistry} always see a complete snapshot while {@link LogTemplate}s are added.
+ */
+class TemplateRegistryTest
+{
+    @AfterEach
+    void tearDown()
+    {
+        Logger.createNewTemplate(LogLevel.ERROR, LogColor.RED_BRIGHT, "", "ERR", true, false, 0, false, false, true, false, "LOG", "JavaLogger");
+    }
+
+    @Test
+    void newTemplatesHaveInfoSeverity()
+    {
+        assertTrue(Logger.createNewTemplate("REGISTRY_NEW", LogColor.WHITE, "", "NEW", false, false, 0, false, false, false, false, "LOG", "JavaLogger"));
+        assertEquals(1, new LogEntry("new", "REGISTRY_NEW").getSeverity());
+    }
+    @Test
+    void overwrittenTemplatesKeepTheirSeverity()
+    {
+        assertFalse(Logger.createNewTemplate(LogLevel.ERROR, LogColor.RED, "", "ERR", true, false, 0, false, false, true, false, "LOG", "JavaLogger"));
+        assertEquals(3, new LogEntry("error", LogLevel.ERROR).getSeverity());
+        assertEquals(LogColor.RED, Logger.templates.get(LogLevel.ERROR).color);
+
+        Logger.createNewTemplate("REGISTRY_SEVERE", LogColor.WHITE, "", "SEV", false, false, 0, false, false, false, false, "LOG", "JavaLogger");
+        Logger.setTemplateSeverity("REGISTRY_SEVERE", 4);
+        Logger.createNewTemplate("REGISTRY_SEVERE", LogColor.WHITE, "", "SEV", true, false, 0, false, false, false, false, "LOG", "JavaLogger");
+        assertEquals(4, new LogEntry("severe", "REGISTRY_SEVERE").getSeverity());
+    }
+    @Test
+    void overwrittenTemplatesKeepTheirId()
+    {
+        TemplateRegistry registry = new TemplateRegistry();
+        LogTemplate first = template("FIR", 1);
+        LogTemplate second = template("SEC", 1);
+        assertTrue(registry.put("FIRST", first));
+        assertTrue(registry.put(LogLevel.ERROR.name(), second));
+        assertEquals(0, first.id);
+        assertEquals(1, second.id);
+
+        RateLimit limit = new RateLimit(1, 1, false);
+        assertTrue(registry.setRateLimit(LogLevel.ERROR.name(), limit));
+        LogTemplate replaced = template("REP", 1);
+        assertFalse(registry.put(LogLevel.ERROR.name(), replaced));
+        assertEquals(1, replaced.id);
+        assertSame(replaced, registry.get(1));
+        assertSame(replaced, registry.get(LogLevel.ERROR));
+        assertSame(replaced, registry.get(LogLevel.ERROR.name()));
+        assertSame(limit, registry.getRateLimit(replaced.id));
+        assertSame(first, registry.get(0));
+        assertEquals("SEC", second.loglevel, "an overwritten template must not be changed");
+
+        assertTrue(registry.setSeverity(LogLevel.ERROR.name(), 4));
+        assertEquals(4, registry.get(1).severity);
+        assertEquals(1, registry.get(1).id);
+        assertEquals(1, replaced.severity);
+        assertFalse(registry.setSeverity("MISSING", 4));
+        assertNull(registry.get(2));
+        assertNull(registry.get(-1));
+    }
+    @Test
+    void readersAlwaysFindTheExistingTemplates() throws InterruptedException
+    {
+        TemplateRegistry registry = new TemplateRegistry();
+        registry.put("T0", template("T0", 1));
+        int count = 2000;
+        AtomicReference<String> failure = new AtomicReference<>();
+        Thread reader = new Thread(() ->
+        {
+            int found = 1;
+            while(found < count && failure.get() == null)
+            {
+                for(int i = 0; i < found; i++)
+                {
+                    LogTemplate byName = registry.get("T" + i);
+                    LogTemplate byId = registry.get(i);
+                    if(byName == null || byName.id != i || byId == null || !byId.loglevel.equals("T" + i))
+                        failure.set("template T" + i + " was missing or had the wrong id after T" + (found - 1) + " was added");
+                }
+                while(found < count && registry.get("T" + found) != null)
+                    found++;
+            }
+        });
+        reader.start();
+        for(int i = 1; i < count; i++)
+        {
+            registry.put("T" + i, template("T" + i, 1));
+            registry.put("T" + (i / 2), template("T" + (i / 2), 2));
+        }
+        reader.join(30000);
+
+        assertNull(failure.get(), failure.get());
+        assertFalse(reader.isAlive(), "the reader did not find all templates");
+    }
+
+    private static LogTemplate template(String level, int severity)
+    {
+        return new LogTemplate(LogColor.WHITE, "", level, false, false, 0, false, false, false, false, "LOG", "JavaLogger", severity);
+    }
+}
@@ -0,0 +1,122 @@
+package io.fi0x.javalogger.mixpanel;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Events are uploaded to a local endpoint, which records the decoded events,
+ * to check that every property name is only sent once and that the automatic properties take precedence.
+ * An event that could not be completed must not keep the thread from reusing its {@link MixpanelEvent}.
+ */
+class MixpanelEventTest
+{
+    private HttpServer server;
+    private volatile String events;
+
+    @BeforeEach
+    void setUp() throws IOException
+    {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/track", exchange ->
+        {
+            String body;
+            try(InputStream in = exchange.getRequestBody())
+            {
+                body = new String(in.readAllBytes(), StandardCharsets.US_ASCII);
+            }
+            String data = URLDecoder.decode(body.substring("data=".length()), StandardCharsets.US_ASCII);
+            events = new String(Base64.getDecoder().decode(data), StandardCharsets.UTF_8);
+
+            byte[] response = "1".getBytes(StandardCharsets.US_ASCII);
+            exchange.sendResponseHeaders(200, response.length);
+            try(OutputStream out = exchange.getResponseBody())
+            {
+                out.write(response);
+            }
+        });
+        server.start();
+
+        assertTrue(MixpanelHandler.setEndpoint("http://127.0.0.1:" + server.getAddress().getPort() + "/track"));
+        MixpanelHandler.setProjectToken("project-token");
+        MixpanelHandler.setUniqueUserID("user");
+        MixpanelHandler.addDefaultProperty("version", "1.0");
+    }
+    @AfterEach
+    void tearDown()
+    {
+        MixpanelHandler.shutdown(1000);
+        server.stop(0);
+    }
+
+    @Test
+    void eachPropertyIsOnlySentOnce()
+    {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("distinct_id", "other user");
+        properties.put("token", "other token");
+        properties.put("mp_lib", "other library");
+        properties.put("version", "0.9");
+        properties.put("text", "a \"quoted\"\nline");
+        assertTrue(MixpanelHandler.addMessage("map", properties));
+        assertTrue(MixpanelHandler.sendMessages());
+
+        assertProperty("distinct_id", "\"user\"");
+        assertProperty("token", "\"project-token\"");
+        assertProperty("mp_lib", "\"jdk\"");
+        assertProperty("version", "\"1.0\"");
+        assertProperty("text", "\"a \\\"quoted\\\"\\nline\"");
+
+        assertTrue(MixpanelHandler.startEvent("builder")
+                .property("count", 1)
+                .property("count", 2)
+                .property("distinct_id", "other user")
+                .send());
+        assertTrue(MixpanelHandler.sendMessages());
+
+        assertProperty("count", "1");
+        assertProperty("distinct_id", "\"user\"");
+    }
+    @Test
+    void failedEventsAreReleased()
+    {
+        MixpanelEvent event = MixpanelEvent.start("first");
+        event.release();
+
+        assertThrows(IndexOutOfBoundsException.class, () -> MixpanelEvent.start("broken").property("text", "abc", 0, 10));
+        assertSame(event, MixpanelEvent.start("second"));
+        event.release();
+
+        Map<String, String> properties = new HashMap<>();
+        properties.put(null, "value");
+        assertThrows(NullPointerException.class, () -> MixpanelHandler.addMessage("broken", properties));
+        assertSame(event, MixpanelEvent.start("third"));
+        event.release();
+    }
+
+    private void assertProperty(String name, String value)
+    {
+        Matcher matcher = Pattern.compile("\"" + Pattern.quote(name) + "\":").matcher(events);
+        int count = 0;
+        while(matcher.find())
+            count++;
+        assertEquals(1, count, "Property " + name + " was not sent exactly once: " + events);
+        assertTrue(events.contains("\"" + name + "\":" + value), "Property " + name + " has the wrong value: " + events);
+    }
+}
@@ -0,0 +1,95 @@
+package io.fi0x.javalogger.mixpanel;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Batches are uploaded to a local endpoint, which records the "Content-Encoding" header and the decoded events.
+ * The body must only be compressed if compression was enabled.
+ */
+class MixpanelSenderTest
+{
+    private static final List<byte[]> BATCH = List.of(
+            "{\"event\":\"first\"}".getBytes(StandardCharsets.UTF_8),
+            "{\"event\":\"second\"}".getBytes(StandardCharsets.UTF_8));
+
+    private HttpServer server;
+    private volatile String encoding;
+    private volatile String events;
+
+    @BeforeEach
+    void setUp() throws IOException
+    {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/track", exchange ->
+        {
+            encoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+            byte[] body;
+            try(InputStream in = exchange.getRequestBody())
+            {
+                body = in.readAllBytes();
+            }
+            if("gzip".equals(encoding))
+            {
+                try(InputStream in = new GZIPInputStream(new ByteArrayInputStream(body)))
+                {
+                    body = in.readAllBytes();
+                }
+            }
+            String data = URLDecoder.decode(new String(body, StandardCharsets.US_ASCII).substring("data=".length()), StandardCharsets.US_ASCII);
+            events = new String(Base64.getDecoder().decode(data), StandardCharsets.UTF_8);
+
+            byte[] response = "1".getBytes(StandardCharsets.US_ASCII);
+            exchange.sendResponseHeaders(200, response.length);
+            try(OutputStream out = exchange.getResponseBody())
+            {
+                out.write(response);
+            }
+        });
+        server.start();
+    }
+    @AfterEach
+    void tearDown()
+    {
+        server.stop(0);
+    }
+
+    @Test
+    void uploadsAreNotCompressedByDefault() throws Exception
+    {
+        MixpanelSender sender = new MixpanelSender();
+        sender.setEndpoint("http://127.0.0.1:" + server.getAddress().getPort() + "/track");
+        sender.send(BATCH).get(10, TimeUnit.SECONDS);
+
+        assertNull(encoding);
+        assertEquals("[{\"event\":\"first\"},{\"event\":\"second\"}]", events);
+    }
+    @Test
+    void uploadsAreCompressedIfEnabled() throws Exception
+    {
+        MixpanelSender sender = new MixpanelSender();
+        sender.setEndpoint("http://127.0.0.1:" + server.getAddress().getPort() + "/track");
+        sender.setCompress(true);
+        sender.send(BATCH).get(10, TimeUnit.SECONDS);
+
+        assertEquals("gzip", encoding);
+        assertEquals("[{\"event\":\"first\"},{\"event\":\"second\"}]", events);
+    }
+}
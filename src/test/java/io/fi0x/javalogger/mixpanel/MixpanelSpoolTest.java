@@ -0,0 +1,223 @@
+package io.fi0x.javalogger.mixpanel;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import io.fi0x.javalogger.logging.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Messages are spooled and uploaded to a local endpoint, which accepts the first batch
+ * and never answers the second one, so the application "crashes" while that batch is uploaded.
+ * After the spool is opened again, every message that was not acknowledged has to be uploaded again,
+ * so each message reaches the endpoint at least once.
+ * The console-appender is filtered, because the failed upload is reported as an error.
+ */
+class MixpanelSpoolTest
+{
+    private static final int MESSAGES = 120;
+    private static final long MAX_BYTES = 131072;
+    private static final Pattern NUMBER = Pattern.compile("\"n\":(\\d+)");
+
+    @TempDir
+    File spoolFolder;
+
+    private final BitSet accepted = new BitSet();
+    private final BitSet redelivered = new BitSet();
+    private final AtomicInteger crashedRequests = new AtomicInteger();
+    private final CountDownLatch uploading = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private HttpServer crashingServer;
+    private MixpanelUploader crashing;
+    private HttpServer server;
+
+    @BeforeEach
+    void setUp() throws IOException
+    {
+        Logger.getInstance().setAppenderFilter("console", log -> false);
+
+        AtomicInteger requests = new AtomicInteger();
+        crashingServer = startServer(exchange ->
+        {
+            BitSet numbers = readNumbers(exchange);
+            if(requests.incrementAndGet() == 1)
+            {
+                synchronized(accepted)
+                {
+                    accepted.or(numbers);
+                }
+                respond(exchange, 200);
+                return;
+            }
+
+            crashedRequests.incrementAndGet();
+            uploading.countDown();
+            awaitQuietly(release);
+            respond(exchange, 500);
+        });
+        server = startServer(exchange ->
+        {
+            BitSet numbers = readNumbers(exchange);
+            synchronized(accepted)
+            {
+                accepted.or(numbers);
+                redelivered.or(numbers);
+            }
+            respond(exchange, 200);
+        });
+    }
+    @AfterEach
+    void tearDown()
+    {
+        release.countDown();
+        if(crashing != null)
+            crashing.shutdown(5000);
+        crashingServer.stop(0);
+        server.stop(0);
+        Logger.getInstance().setAppenderFilter("console", null);
+    }
+
+    @Test
+    void unacknowledgedMessagesAreUploadedAgainAfterARestart() throws Exception
+    {
+        MixpanelSpool spool = MixpanelSpool.open(spoolFolder, MAX_BYTES);
+        for(int i = 0; i < MESSAGES; i++)
+            spool.append(message(i));
+
+        crashing = new MixpanelUploader(100);
+        crashing.setCompress(false);
+        crashing.setEndpoint(endpoint(crashingServer));
+        crashing.setSpool(spool);
+        assertTrue(uploading.await(10, TimeUnit.SECONDS), "The second batch was never uploaded");
+
+        BitSet beforeCrash;
+        synchronized(accepted)
+        {
+            beforeCrash = (BitSet) accepted.clone();
+        }
+        assertEquals(MixpanelUploader.BATCH_SIZE, beforeCrash.cardinality());
+
+        MixpanelSpool reopened = MixpanelSpool.open(spoolFolder, MAX_BYTES);
+        assertTrue(reopened.hasPendingMessages());
+        MixpanelUploader restarted = new MixpanelUploader(60000);
+        restarted.setCompress(false);
+        restarted.setEndpoint(endpoint(server));
+        restarted.setSpool(reopened);
+        assertTrue(restarted.flushNow(), "The spooled messages could not be uploaded after the restart");
+        restarted.shutdown(1000);
+
+        synchronized(accepted)
+        {
+            assertEquals(MESSAGES, accepted.cardinality(), "Messages were lost: " + accepted);
+            for(int i = beforeCrash.cardinality(); i < MESSAGES; i++)
+                assertTrue(redelivered.get(i), "Message " + i + " was not uploaded again");
+        }
+        assertEquals(1, crashedRequests.get());
+        assertFalse(reopened.hasPendingMessages());
+        assertFalse(MixpanelSpool.open(spoolFolder, MAX_BYTES).hasPendingMessages());
+    }
+
+    @Test
+    void pendingMessagesAreCountedPerSegment() throws Exception
+    {
+        MixpanelSpool spool = MixpanelSpool.open(spoolFolder, MAX_BYTES);
+        for(int i = 0; i < MESSAGES; i++)
+            spool.append(message(i));
+        assertEquals(MESSAGES, spool.getPendingMessages());
+
+        MixpanelSpool.Batch first = spool.read(MixpanelUploader.BATCH_SIZE, null);
+        MixpanelSpool.Batch second = spool.read(MixpanelUploader.BATCH_SIZE, first);
+        spool.acknowledge(second);
+        assertEquals(MESSAGES - 2 * MixpanelUploader.BATCH_SIZE, spool.getPendingMessages());
+        spool.close();
+
+        MixpanelSpool reopened = MixpanelSpool.open(spoolFolder, MAX_BYTES);
+        assertEquals(MESSAGES - 2 * MixpanelUploader.BATCH_SIZE, reopened.getPendingMessages());
+        Matcher matcher = NUMBER.matcher(new String(reopened.read(1, null).messages.get(0), StandardCharsets.UTF_8));
+        assertTrue(matcher.find());
+        assertEquals(2 * MixpanelUploader.BATCH_SIZE, Integer.parseInt(matcher.group(1)));
+
+        int added = 1000;
+        for(int i = 0; i < added; i++)
+            reopened.append(message(MESSAGES + i));
+        long dropped = reopened.getAndResetDroppedMessages();
+        assertTrue(dropped > 0, "The spool never reached its limit");
+        assertEquals(MESSAGES - 2 * MixpanelUploader.BATCH_SIZE + added - dropped, reopened.getPendingMessages());
+        assertEquals(reopened.getPendingMessages(), reopened.read(Integer.MAX_VALUE, null).messages.size());
+        reopened.close();
+    }
+
+    private static byte[] message(int number)
+    {
+        StringBuilder padding = new StringBuilder();
+        for(int i = 0; i < 300; i++)
+            padding.append('x');
+        return ("{\"event\":\"spool\",\"properties\":{\"n\":" + number + ",\"padding\":\"" + padding + "\"}}").getBytes(StandardCharsets.UTF_8);
+    }
+    private static BitSet readNumbers(HttpExchange exchange) throws IOException
+    {
+        String body;
+        try(InputStream in = exchange.getRequestBody())
+        {
+            body = new String(in.readAllBytes(), StandardCharsets.US_ASCII);
+        }
+        String data = URLDecoder.decode(body.substring("data=".length()), StandardCharsets.US_ASCII);
+        String events = new String(Base64.getDecoder().decode(data), StandardCharsets.UTF_8);
+
+        BitSet numbers = new BitSet();
+        Matcher matcher = NUMBER.matcher(events);
+        while(matcher.find())
+            numbers.set(Integer.parseInt(matcher.group(1)));
+        return numbers;
+    }
+    private static void respond(HttpExchange exchange, int status) throws IOException
+    {
+        byte[] body = (status == 200 ? "1" : "0").getBytes(StandardCharsets.US_ASCII);
+        exchange.sendResponseHeaders(status, body.length);
+        try(OutputStream out = exchange.getResponseBody())
+        {
+            out.write(body);
+        }
+    }
+    private static HttpServer startServer(HttpHandler handler) throws IOException
+    {
+        HttpServer httpServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        httpServer.createContext("/track", handler);
+        httpServer.start();
+        return httpServer;
+    }
+    private static String endpoint(HttpServer httpServer)
+    {
+        return "http://127.0.0.1:" + httpServer.getAddress().getPort() + "/track";
+    }
+    private static void awaitQuietly(CountDownLatch latch)
+    {
+        try
+        {
+            latch.await();
+        } catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
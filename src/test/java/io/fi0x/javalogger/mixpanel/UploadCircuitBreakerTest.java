@@ -0,0 +1,87 @@
+package io.fi0x.javalogger.mixpanel;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The breaker waits exactly the doubled delay, so every state change happens at a known time.
+ */
+class UploadCircuitBreakerTest
+{
+    private static final long START = 1_000_000;
+
+    @Test
+    void opensAfterTheFailureThreshold()
+    {
+        UploadCircuitBreaker breaker = new UploadCircuitBreaker(delay -> delay);
+        long now = START;
+        for(int i = 1; i < UploadCircuitBreaker.FAILURE_THRESHOLD; i++)
+        {
+            breaker.beforeAttempt();
+            assertFalse(breaker.onFailure(now));
+            assertEquals(UploadCircuitBreaker.CLOSED, breaker.getState());
+            assertEquals(UploadCircuitBreaker.BASE_DELAY << (i - 1), breaker.getDelay(now));
+            now += breaker.getDelay(now);
+        }
+
+        breaker.beforeAttempt();
+        assertTrue(breaker.onFailure(now), "the circuit was not reported as opened");
+        assertEquals(UploadCircuitBreaker.OPEN, breaker.getState());
+        assertTrue(breaker.isRetrying());
+    }
+    @Test
+    void isHalfOpenAfterTheBackoff()
+    {
+        UploadCircuitBreaker breaker = open();
+        long delay = breaker.getDelay(START);
+        assertEquals(UploadCircuitBreaker.BASE_DELAY << (UploadCircuitBreaker.FAILURE_THRESHOLD - 1), delay);
+        assertTrue(breaker.isWaiting(START + delay - 1));
+        assertFalse(breaker.isWaiting(START + delay));
+
+        breaker.beforeAttempt();
+        assertEquals(UploadCircuitBreaker.HALF_OPEN, breaker.getState());
+    }
+    @Test
+    void closesWhenTheHalfOpenAttemptSucceeds()
+    {
+        UploadCircuitBreaker breaker = open();
+        breaker.beforeAttempt();
+        breaker.onSuccess();
+
+        assertEquals(UploadCircuitBreaker.CLOSED, breaker.getState());
+        assertFalse(breaker.isWaiting(START));
+        assertFalse(breaker.isRetrying());
+    }
+    @Test
+    void opensAgainWhenTheHalfOpenAttemptFails()
+    {
+        UploadCircuitBreaker breaker = open();
+        long now = START + breaker.getDelay(START);
+        breaker.beforeAttempt();
+        assertFalse(breaker.onFailure(now), "reopening the circuit was reported as a new outage");
+
+        assertEquals(UploadCircuitBreaker.OPEN, breaker.getState());
+        assertEquals(UploadCircuitBreaker.BASE_DELAY << UploadCircuitBreaker.FAILURE_THRESHOLD, breaker.getDelay(now));
+    }
+    @Test
+    void theDelayIsLimited()
+    {
+        UploadCircuitBreaker breaker = new UploadCircuitBreaker(delay -> delay);
+        for(int i = 0; i < 40; i++)
+            breaker.onFailure(START);
+        assertEquals(UploadCircuitBreaker.MAX_DELAY, breaker.getDelay(START));
+    }
+
+    private static UploadCircuitBreaker open()
+    {
+        UploadCircuitBreaker breaker = new UploadCircuitBreaker(delay -> delay);
+        for(int i = 0; i < UploadCircuitBreaker.FAILURE_THRESHOLD; i++)
+        {
+            breaker.beforeAttempt();
+            breaker.onFailure(START);
+        }
+        assertEquals(UploadCircuitBreaker.OPEN, breaker.getState());
+        return breaker;
+    }
+}